@@ -0,0 +1,251 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest.benchmarks;
+
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.JsonReader;
+import com.badlogic.gdx.utils.JsonValue;
+import com.twistral.tempest.assetsorter.AssetSorter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+
+/**
+ * A generated set of asset files on disk together with the IDs, file names and types that
+ * should be used to define them in an {@link AssetSorter}. <br>
+ * The corpus is a deterministic mix of: <br>
+ * - 40% small text files (custom loader, {@link TextAsset}) <br>
+ * - 20% json files (custom loader, {@link JsonValue}) <br>
+ * - 20% png images (libGDX's own pixmap loader, {@link Pixmap}) <br>
+ * - 20% binary blobs (custom loader, {@link BlobAsset})
+ */
+final class AssetCorpus {
+
+    static final String TEXT_PREFIX = "txt_", JSON_PREFIX = "json_", IMAGE_PREFIX = "img_", BLOB_PREFIX = "bin_";
+
+    final String[] ids;
+    final String[] fileNames;
+    final Class<?>[] types;
+    final File directory;
+
+
+    private AssetCorpus(int size, File directory) {
+        this.ids = new String[size];
+        this.fileNames = new String[size];
+        this.types = new Class<?>[size];
+        this.directory = directory;
+    }
+
+
+    /**
+     * Writes a new corpus into a temporary directory. Needs the core natives to be loaded,
+     * see {@link BenchmarkUtils#initHeadless()}.
+     * @param size how many asset files will be generated
+     * @param seed seed for the contents of the files
+     */
+    static AssetCorpus generate(int size, long seed) throws IOException {
+        final File directory = Files.createTempDirectory("tempest-asset-corpus").toFile();
+        final AssetCorpus corpus = new AssetCorpus(size, directory);
+        final Random random = new Random(seed);
+
+        for (int i = 0; i < size; i++) {
+            final File file;
+            switch (i % 5) {
+                case 0: case 1:
+                    file = new File(directory, String.format("%s%05d.txt", TEXT_PREFIX, i));
+                    writeText(file, random);
+                    corpus.types[i] = TextAsset.class;
+                    break;
+                case 2:
+                    file = new File(directory, String.format("%s%05d.json", JSON_PREFIX, i));
+                    writeJson(file, random);
+                    corpus.types[i] = JsonValue.class;
+                    break;
+                case 3:
+                    file = new File(directory, String.format("%s%05d.png", IMAGE_PREFIX, i));
+                    writeImage(file, random);
+                    corpus.types[i] = Pixmap.class;
+                    break;
+                default:
+                    file = new File(directory, String.format("%s%05d.bin", BLOB_PREFIX, i));
+                    writeBlob(file, random);
+                    corpus.types[i] = BlobAsset.class;
+                    break;
+            }
+
+            final String name = file.getName();
+            corpus.ids[i] = name.substring(0, name.lastIndexOf('.'));
+            corpus.fileNames[i] = file.getAbsolutePath();
+        }
+
+        return corpus;
+    }
+
+
+    /** Registers the custom loaders that this corpus needs. */
+    void setLoaders(AssetSorter sorter, FileHandleResolver resolver) {
+        sorter.setLoader(TextAsset.class, new TextAssetLoader(resolver));
+        sorter.setLoader(JsonValue.class, new JsonValueLoader(resolver));
+        sorter.setLoader(BlobAsset.class, new BlobAssetLoader(resolver));
+    }
+
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    void defineAll(AssetSorter sorter) {
+        for (int i = 0; i < ids.length; i++)
+            sorter.defineAsset(ids[i], fileNames[i], (Class) types[i]);
+    }
+
+
+    void delete() {
+        final File[] files = directory.listFiles();
+        if(files != null) {
+            for(File file : files) file.delete();
+        }
+        directory.delete();
+    }
+
+
+    /*////////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  FILE GENERATION  ///////////////////////////*/
+    /*////////////////////////////////////////////////////////////////////////////*/
+
+
+    private static void writeText(File file, Random random) throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        final int lineCount = 4 + random.nextInt(16);
+        for (int i = 0; i < lineCount; i++)
+            sb.append("line ").append(i).append(": ").append(Long.toHexString(random.nextLong())).append('\n');
+        Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    private static void writeJson(File file, Random random) throws IOException {
+        final StringBuilder sb = new StringBuilder("{\"name\":\"").append(file.getName()).append("\",\"values\":[");
+        final int valueCount = 8 + random.nextInt(64);
+        for (int i = 0; i < valueCount; i++) {
+            if(i > 0) sb.append(',');
+            sb.append("{\"id\":").append(i).append(",\"weight\":").append(random.nextFloat()).append('}');
+        }
+        sb.append("]}");
+        Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    private static void writeImage(File file, Random random) {
+        final int size = 16 << random.nextInt(3); // 16, 32 or 64
+        final Pixmap pixmap = new Pixmap(size, size, Pixmap.Format.RGBA8888);
+        pixmap.setColor(random.nextFloat(), random.nextFloat(), random.nextFloat(), 1f);
+        pixmap.fill();
+        pixmap.setColor(random.nextFloat(), random.nextFloat(), random.nextFloat(), 1f);
+        pixmap.fillCircle(size / 2, size / 2, size / 3);
+        PixmapIO.writePNG(new FileHandle(file), pixmap);
+        pixmap.dispose();
+    }
+
+
+    private static void writeBlob(File file, Random random) throws IOException {
+        final byte[] bytes = new byte[1024 + random.nextInt(8192)];
+        random.nextBytes(bytes);
+        Files.write(file.toPath(), bytes);
+    }
+
+
+    /*//////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  ASSETS & LOADERS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////////*/
+
+
+    static final class TextAsset {
+        final String text;
+        TextAsset(String text) { this.text = text; }
+    }
+
+
+    static final class BlobAsset {
+        final byte[] bytes;
+        BlobAsset(byte[] bytes) { this.bytes = bytes; }
+    }
+
+
+    static final class TextAssetLoader extends SynchronousAssetLoader<TextAsset, TextAssetLoader.Params> {
+        static final class Params extends AssetLoaderParameters<TextAsset> {}
+
+        TextAssetLoader(FileHandleResolver resolver) { super(resolver); }
+
+        @Override
+        public TextAsset load(AssetManager manager, String fileName, FileHandle file, Params params) {
+            return new TextAsset(file.readString("UTF-8"));
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes") // the signature of AssetLoader
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Params params) {
+            return null;
+        }
+    }
+
+
+    static final class JsonValueLoader extends SynchronousAssetLoader<JsonValue, JsonValueLoader.Params> {
+        static final class Params extends AssetLoaderParameters<JsonValue> {}
+
+        private final JsonReader reader = new JsonReader();
+
+        JsonValueLoader(FileHandleResolver resolver) { super(resolver); }
+
+        @Override
+        public JsonValue load(AssetManager manager, String fileName, FileHandle file, Params params) {
+            return reader.parse(file);
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes") // the signature of AssetLoader
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Params params) {
+            return null;
+        }
+    }
+
+
+    static final class BlobAssetLoader extends SynchronousAssetLoader<BlobAsset, BlobAssetLoader.Params> {
+        static final class Params extends AssetLoaderParameters<BlobAsset> {}
+
+        BlobAssetLoader(FileHandleResolver resolver) { super(resolver); }
+
+        @Override
+        public BlobAsset load(AssetManager manager, String fileName, FileHandle file, Params params) {
+            return new BlobAsset(file.readBytes());
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes") // the signature of AssetLoader
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Params params) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest.benchmarks;
+
+
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.AbsoluteFileHandleResolver;
+import com.twistral.tempest.assetsorter.AssetSorter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Loads a whole generated corpus (see {@link AssetCorpus}) with {@link AssetSorter#keepLoading(int)}
+ * on libGDX's headless backend, one call per simulated frame with the given slice. <br>
+ * Every invocation loads the corpus into a new sorter, which is set up outside of the timed part. <br>
+ * The secondary results are totals over the measured iterations (JMH sums event counters), divide them
+ * to get averages: overshootMicros / frames is the average slice overshoot and retainedHeapBytes / loadedAssets
+ * is the heap bytes per loaded asset. The heap is measured outside of the timed part, since it needs full GCs.
+ * (Pixmap pixels live in native memory and are not part of the heap numbers)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AssetLoadingBenchmark {
+
+    @Param({"2000", "8000"})
+    public int corpusSize;
+
+    @Param({"4", "17"})
+    public int sliceMillis;
+
+    private AssetCorpus corpus;
+    private FileHandleResolver resolver;
+    private AssetSorter sorter;
+
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class LoadCounters {
+        public long frames;
+        public long overshootMicros;
+        public long loadedAssets;
+        public long retainedHeapBytes;
+        private long heapBefore;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            frames = 0;
+            overshootMicros = 0;
+            loadedAssets = 0;
+            retainedHeapBytes = 0;
+        }
+
+        // Outside of the timed part, the benchmark's sorter is already set up when these run
+        @Setup(Level.Invocation)
+        public void measureHeapBefore() {
+            heapBefore = usedHeap();
+        }
+
+        @TearDown(Level.Invocation)
+        public void measureHeapAfter() {
+            retainedHeapBytes += Math.max(0L, usedHeap() - heapBefore);
+        }
+    }
+
+
+    @Setup(Level.Trial)
+    public void setupCorpus() throws IOException {
+        BenchmarkUtils.initHeadless();
+        resolver = new AbsoluteFileHandleResolver();
+        corpus = AssetCorpus.generate(corpusSize, 1234L);
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDownCorpus() {
+        corpus.delete();
+    }
+
+
+    @Setup(Level.Invocation)
+    public void setupSorter() {
+        sorter = new AssetSorter(resolver);
+        corpus.setLoaders(sorter, resolver);
+        corpus.defineAll(sorter);
+        sorter.queueAssetsWithRegex(".*");
+    }
+
+
+    @TearDown(Level.Invocation)
+    public void tearDownSorter() {
+        sorter.dispose();
+    }
+
+
+    @Benchmark
+    public boolean loadCorpus(LoadCounters counters) {
+        final long sliceNanos = TimeUnit.MILLISECONDS.toNanos(sliceMillis);
+
+        boolean finished = false;
+        while (!finished) {
+            final long start = System.nanoTime();
+            finished = sorter.keepLoading(sliceMillis);
+            final long overshoot = System.nanoTime() - start - sliceNanos;
+            counters.overshootMicros += Math.max(0L, overshoot / 1000L);
+            counters.frames++;
+        }
+
+        counters.loadedAssets += corpusSize;
+        return finished;
+    }
+
+
+    private static long usedHeap() {
+        final Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+}
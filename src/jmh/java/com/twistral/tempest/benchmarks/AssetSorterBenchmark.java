@@ -0,0 +1,147 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest.benchmarks;
+
+
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.AbsoluteFileHandleResolver;
+import com.twistral.tempest.assetsorter.AssetSorter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures the loading path of {@link AssetSorter} on libGDX's headless backend against a generated
+ * corpus of text, json, image and binary assets (see {@link AssetCorpus}). <br><br>
+ *
+ * - {@link #defineAll()}: defining every asset of the corpus into an empty sorter <br>
+ * - {@link #queueWithRegex()}: queueing every image of the corpus with {@link AssetSorter#queueAssetsWithRegex} <br>
+ * - {@link #getAsset()}: looking up a random loaded asset with {@link AssetSorter#getAsset} <br><br>
+ *
+ * Loading itself is measured by {@link AssetLoadingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssetSorterBenchmark {
+
+    @Param({"2000", "8000"})
+    public int corpusSize;
+
+    private AssetCorpus corpus;
+    private FileHandleResolver resolver;
+
+    private AssetSorter loadedSorter; // fully loaded, only used by getAsset()
+    private int lookupIndex = 0;
+
+
+    @Setup(Level.Trial)
+    public void setupCorpus() throws IOException {
+        BenchmarkUtils.initHeadless();
+        resolver = new AbsoluteFileHandleResolver();
+        corpus = AssetCorpus.generate(corpusSize, 1234L);
+
+        loadedSorter = newSorter();
+        corpus.defineAll(loadedSorter);
+        loadedSorter.queueAssetsWithRegex(".*");
+        loadedSorter.finishLoading();
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDownCorpus() {
+        loadedSorter.dispose();
+        corpus.delete();
+    }
+
+
+    AssetSorter newSorter() {
+        final AssetSorter newSorter = new AssetSorter(resolver);
+        corpus.setLoaders(newSorter, resolver);
+        return newSorter;
+    }
+
+
+    /*//////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  DEFINING  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////*/
+
+
+    @State(Scope.Thread)
+    public static class EmptySorter {
+        AssetSorter sorter;
+
+        @Setup(Level.Invocation)
+        public void setup(AssetSorterBenchmark bench) { sorter = bench.newSorter(); }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() { sorter.dispose(); }
+    }
+
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AssetSorter defineAll(EmptySorter state) {
+        corpus.defineAll(state.sorter);
+        return state.sorter;
+    }
+
+
+    /*//////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  QUEUEING  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////*/
+
+
+    @State(Scope.Thread)
+    public static class DefinedSorter {
+        AssetSorter sorter;
+
+        @Setup(Level.Invocation)
+        public void setup(AssetSorterBenchmark bench) {
+            sorter = bench.newSorter();
+            bench.corpus.defineAll(sorter);
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() { sorter.dispose(); }
+    }
+
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public AssetSorter queueWithRegex(DefinedSorter state) {
+        return state.sorter.queueAssetsWithRegex(AssetCorpus.IMAGE_PREFIX + ".*");
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTING  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object getAsset() {
+        lookupIndex = (lookupIndex + 7919) % corpusSize; // large prime stride, avoids hitting the same buckets
+        return loadedSorter.getAsset(corpus.ids[lookupIndex], corpus.types[lookupIndex]);
+    }
+
+}
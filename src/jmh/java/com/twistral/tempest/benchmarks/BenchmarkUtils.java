@@ -0,0 +1,130 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest.benchmarks;
+
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.maps.MapObjects;
+import com.badlogic.gdx.maps.objects.EllipseMapObject;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.physics.box2d.World;
+
+import java.util.Random;
+
+
+/**
+ * Shared fixtures for the headless benchmarks. Everything in here only needs the desktop
+ * natives, no window or gpu is ever created.
+ */
+final class BenchmarkUtils {
+
+    static final float PPM = 32f;
+
+    /** Same polygon that {@code Box2DComplexBodyTest} uses for polygon2.png (128x64) */
+    static final float[] TEST_POLYGON = { 8, 46, 35, 56, 52, 34, 76, 59, 89, 35, 107, 59, 114, 12, 37, 7 };
+    static final float TEST_POLYGON_W = 128f, TEST_POLYGON_H = 64f;
+
+    private static boolean initialized = false;
+    private static HeadlessApplication headlessApp = null;
+
+    private BenchmarkUtils() {}
+
+
+    static synchronized void initBox2D() {
+        if(initialized) return;
+        Box2D.init();
+        initialized = true;
+    }
+
+
+    /**
+     * Starts libGDX's headless backend once per JVM, this sets up {@code Gdx.files} and loads the
+     * core natives (needed for {@link com.badlogic.gdx.graphics.Pixmap}).
+     */
+    static synchronized void initHeadless() {
+        if(headlessApp != null) return;
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.renderInterval = 1f / 10f;
+        headlessApp = new HeadlessApplication(new ApplicationAdapter() {}, config);
+    }
+
+
+    static World newWorld(boolean allowSleep) {
+        initBox2D();
+        return new World(new Vector2(0f, -10f), allowSleep);
+    }
+
+
+    /**
+     * Creates a star shaped polygon in image space (y pointing down) that is centered in a
+     * square image with the given size.
+     * @param pointCount how many vertices the polygon will have (must be even)
+     * @param imgSize width and height of the imaginary image
+     */
+    static float[] starPolygon(int pointCount, float imgSize) {
+        final float[] points = new float[pointCount * 2];
+        final float outer = imgSize * 0.45f, inner = imgSize * 0.25f, center = imgSize / 2f;
+        for (int i = 0; i < pointCount; i++) {
+            final float radius = (i % 2 == 0) ? outer : inner;
+            final float angle = MathUtils.PI2 * i / pointCount;
+            points[i * 2] = center + MathUtils.cos(angle) * radius;
+            points[i * 2 + 1] = center - MathUtils.sin(angle) * radius;
+        }
+        return points;
+    }
+
+
+    /**
+     * Fills a {@link MapObjects} instance with a deterministic mix of rectangles, circles and
+     * polygons, similar to what a Tiled object layer would contain.
+     * @param objectCount how many objects will be generated
+     * @param seed seed for the placement of the objects
+     */
+    static MapObjects syntheticObjectLayer(int objectCount, long seed) {
+        final Random random = new Random(seed);
+        final MapObjects objects = new MapObjects();
+        final float mapSize = (float) Math.sqrt(objectCount) * 96f;
+
+        for (int i = 0; i < objectCount; i++) {
+            final float x = random.nextFloat() * mapSize;
+            final float y = random.nextFloat() * mapSize;
+
+            switch (i % 3) {
+                case 0:
+                    objects.add(new RectangleMapObject(x, y, 16 + random.nextInt(64), 16 + random.nextInt(64)));
+                    break;
+                case 1:
+                    final float diameter = 16 + random.nextInt(48);
+                    objects.add(new EllipseMapObject(x, y, diameter, diameter));
+                    break;
+                default:
+                    final float[] vertices = starPolygon(6 + 2 * random.nextInt(5), 64f);
+                    final PolygonMapObject polygon = new PolygonMapObject(vertices);
+                    polygon.getPolygon().setPosition(x, y);
+                    objects.add(polygon);
+                    break;
+            }
+        }
+
+        return objects;
+    }
+
+}
@@ -0,0 +1,85 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest.benchmarks;
+
+
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.physics.box2d.World;
+import com.twistral.tempest.box2d.WorldFacade;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.twistral.tempest.box2d.Box2DUtils.dfr;
+import static com.twistral.tempest.box2d.Box2DUtils.offset;
+
+
+/**
+ * Measures the cost of creating bodies through {@link WorldFacade#newSimpleBodyAsBox} and through
+ * the {@link com.twistral.tempest.box2d.ComplexBB} builder. Every invocation creates
+ * {@link #BODIES_PER_INVOCATION} bodies inside a fresh world so that the world never grows.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BodyCreationBenchmark {
+
+    private static final int BODIES_PER_INVOCATION = 100;
+
+    private World world;
+    private WorldFacade wf;
+
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        world = BenchmarkUtils.newWorld(true);
+        wf = new WorldFacade(world, BenchmarkUtils.PPM);
+    }
+
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        world.dispose();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(BODIES_PER_INVOCATION)
+    public void simpleBox(Blackhole bh) {
+        for (int i = 0; i < BODIES_PER_INVOCATION; i++) {
+            bh.consume(wf.newSimpleBodyAsBox(BodyType.DynamicBody, i * 40f, 0f, 32f, 32f, dfr(1f, 0.5f, 0f)));
+        }
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(BODIES_PER_INVOCATION)
+    public void complexBody(Blackhole bh) {
+        for (int i = 0; i < BODIES_PER_INVOCATION; i++) {
+            bh.consume(wf.newComplexBody(BodyType.DynamicBody, i * 80f, 0f)
+                .addBoxFixture(20, 20, dfr(1, 1, 1))
+                .addCircleFixture(10, dfr(1, 1, 1), offset(0, 20))
+                .addCircleFixture(10, dfr(1, 1, 1), offset(0, -20))
+                .addBoxFixture(20, 20, dfr(1, 1, 1), offset(20, 20))
+                .addBoxFixture(20, 20, dfr(1, 1, 1), offset(-20, -20))
+                .build());
+        }
+    }
+
+}
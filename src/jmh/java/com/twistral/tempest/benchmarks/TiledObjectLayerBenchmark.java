@@ -0,0 +1,71 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest.benchmarks;
+
+
+import com.badlogic.gdx.maps.MapObjects;
+import com.badlogic.gdx.physics.box2d.World;
+import com.twistral.tempest.box2d.WorldFacade;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Measures {@link WorldFacade#parseTiledObjectLayer(MapObjects)} on synthetic object layers that
+ * contain an even mix of rectangles, circles and polygons.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TiledObjectLayerBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int objectCount;
+
+    private MapObjects objects;
+    private World world;
+    private WorldFacade wf;
+
+
+    @Setup(Level.Trial)
+    public void setupMap() {
+        objects = BenchmarkUtils.syntheticObjectLayer(objectCount, 42L);
+    }
+
+
+    @Setup(Level.Invocation)
+    public void setupWorld() {
+        world = BenchmarkUtils.newWorld(true);
+        wf = new WorldFacade(world, BenchmarkUtils.PPM);
+    }
+
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        world.dispose();
+    }
+
+
+    @Benchmark
+    public int parse() {
+        wf.parseTiledObjectLayer(objects);
+        return world.getBodyCount();
+    }
+
+}
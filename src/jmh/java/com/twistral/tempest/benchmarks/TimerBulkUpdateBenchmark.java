@@ -0,0 +1,82 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest.benchmarks;
+
+
+import com.badlogic.gdx.utils.IntArray;
+import com.twistral.tempest.timing.AccumulationTimer;
+import com.twistral.tempest.timing.NanoAccumulationTimer;
+import com.twistral.tempest.timing.TimerPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Compares updating many float {@link AccumulationTimer}s, long nanosecond {@link NanoAccumulationTimer}s
+ * and one {@link TimerPool} with the same amount of timers, using 1/144 second deltas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerBulkUpdateBenchmark {
+
+    private static final float DELTA = 1f / 144f;
+
+    @Param({"1000", "20000", "100000"})
+    public int timerCount;
+
+    private AccumulationTimer[] floatTimers;
+    private NanoAccumulationTimer[] nanoTimers;
+    private TimerPool timerPool;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        floatTimers = new AccumulationTimer[timerCount];
+        nanoTimers = new NanoAccumulationTimer[timerCount];
+        timerPool = new TimerPool(timerCount);
+
+        for (int i = 0; i < timerCount; i++) {
+            floatTimers[i] = new AccumulationTimer();
+            nanoTimers[i] = new NanoAccumulationTimer();
+            timerPool.obtain(Float.MAX_VALUE); // never expires, only the update loop is measured
+        }
+    }
+
+
+    @Benchmark
+    public AccumulationTimer[] floatTimers() {
+        for(AccumulationTimer timer : floatTimers) timer.update(DELTA);
+        return floatTimers;
+    }
+
+
+    @Benchmark
+    public NanoAccumulationTimer[] nanoTimers() {
+        for(NanoAccumulationTimer timer : nanoTimers) timer.update(DELTA);
+        return nanoTimers;
+    }
+
+
+    @Benchmark
+    public IntArray timerPool() {
+        return timerPool.update(DELTA);
+    }
+
+}
@@ -0,0 +1,91 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest.benchmarks;
+
+
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.physics.box2d.World;
+import com.twistral.tempest.box2d.WorldFacade;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.twistral.tempest.box2d.Box2DUtils.dfr;
+
+
+/**
+ * Measures {@link com.twistral.tempest.box2d.ComplexBB#addFixturesFromImgTriangulation} (ear clipping
+ * and one polygon fixture per triangle) for polygons with different vertex counts. A vertex count of
+ * zero means the hand-authored polygon from {@code Box2DComplexBodyTest}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TriangulationBenchmark {
+
+    private static final int BODIES_PER_INVOCATION = 20;
+    private static final float STAR_IMG_SIZE = 400f;
+
+    @Param({"0", "16", "64", "128"})
+    public int vertexCount;
+
+    private float[] imgPoints;
+    private float imgWidth, imgHeight;
+    private World world;
+    private WorldFacade wf;
+
+
+    @Setup(Level.Trial)
+    public void setupPolygon() {
+        if(vertexCount == 0) {
+            imgPoints = BenchmarkUtils.TEST_POLYGON;
+            imgWidth = BenchmarkUtils.TEST_POLYGON_W;
+            imgHeight = BenchmarkUtils.TEST_POLYGON_H;
+        }
+        else {
+            imgPoints = BenchmarkUtils.starPolygon(vertexCount, STAR_IMG_SIZE);
+            imgWidth = imgHeight = STAR_IMG_SIZE;
+        }
+    }
+
+
+    @Setup(Level.Invocation)
+    public void setupWorld() {
+        world = BenchmarkUtils.newWorld(true);
+        wf = new WorldFacade(world, BenchmarkUtils.PPM);
+    }
+
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        world.dispose();
+    }
+
+
+    @Benchmark
+    @OperationsPerInvocation(BODIES_PER_INVOCATION)
+    public void triangulate(Blackhole bh) {
+        for (int i = 0; i < BODIES_PER_INVOCATION; i++) {
+            bh.consume(wf.newComplexBody(BodyType.DynamicBody, i * STAR_IMG_SIZE, 0f)
+                .addFixturesFromImgTriangulation(imgPoints, imgWidth, imgHeight, dfr(0.5f, 0.5f, 0.5f))
+                .build());
+        }
+    }
+
+}
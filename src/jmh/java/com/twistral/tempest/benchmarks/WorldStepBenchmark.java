@@ -0,0 +1,78 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest.benchmarks;
+
+
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.physics.box2d.World;
+import com.twistral.tempest.box2d.WorldFacade;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.twistral.tempest.box2d.Box2DUtils.dfr;
+
+
+/**
+ * Measures a single {@code world.step(1/60, 6, 2)} for worlds with different amounts of fixtures.
+ * Sleeping is disabled so that the piles don't go to sleep in the middle of a measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldStepBenchmark {
+
+    private static final float BOX_SIZE = 16f;
+
+    @Param({"100", "1000", "4000"})
+    public int fixtureCount;
+
+    private World world;
+
+
+    @Setup(Level.Trial)
+    public void setup() {
+        world = BenchmarkUtils.newWorld(false);
+        final WorldFacade wf = new WorldFacade(world, BenchmarkUtils.PPM);
+
+        final int columns = (int) Math.ceil(Math.sqrt(fixtureCount));
+        final float floorWidth = columns * BOX_SIZE * 2f;
+        wf.newSimpleBodyAsBox(BodyType.StaticBody, -BOX_SIZE, -BOX_SIZE, floorWidth + BOX_SIZE * 2f,
+                BOX_SIZE, dfr(1f, 0.5f, 0f));
+
+        for (int i = 0; i < fixtureCount; i++) {
+            final float x = (i % columns) * BOX_SIZE * 2f;
+            final float y = (i / columns) * BOX_SIZE * 1.5f;
+            wf.newSimpleBodyAsBox(BodyType.DynamicBody, x, y, BOX_SIZE, BOX_SIZE, dfr(1f, 0.5f, 0f));
+        }
+    }
+
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        world.dispose();
+    }
+
+
+    @Benchmark
+    public int step() {
+        world.step(1f / 60f, 6, 2);
+        return world.getContactCount();
+    }
+
+}
@@ -0,0 +1,234 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapObjects;
+import com.badlogic.gdx.maps.MapProperties;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.twistral.tempest.timing.AccumulationTimer;
+
+
+
+/**
+ * Drives every animated tile of your maps from one {@link AccumulationTimer}. Unlike
+ * {@link com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile}, there is no global base time to
+ * remember, the current frame of each animation is computed once in {@link #update(float)} instead of
+ * once for every cell that gets rendered, and animations stop advancing while their layer (or any of
+ * its parent groups) is invisible. <br><br>
+ *
+ * Call {@link #update(float)} once per frame before rendering the map.
+ * <br> Example: manager.addAnimatedTileToMap(map, 0.5f, "myCoolTileset", "tile-layer", "blueFlowerAnimation", "heyyo");
+ */
+public class AnimatedTileManager {
+
+    private final AccumulationTimer clock;
+    private final Array<ManagedAnimatedTile> animations;
+
+
+    public AnimatedTileManager() {
+        this.clock = new AccumulationTimer();
+        this.animations = new Array<>(false, 16, ManagedAnimatedTile.class);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    public void update(float deltaTime) {
+        clock.update(deltaTime);
+
+        final ManagedAnimatedTile[] items = animations.items;
+        for (int i = 0; i < animations.size; i++) {
+            final ManagedAnimatedTile anim = items[i];
+            if(anim.paused || !isVisible(anim.layer)) continue;
+            anim.updateFrame(deltaTime);
+        }
+    }
+
+
+    /**
+     * Creates a managed animation for the given layer. You still need to put the returned tile into the
+     * cells yourself, or use one of the addAnimatedTileToMap() methods that does that for you.
+     * @param layer the layer whose visibility will pause this animation, can be null to never pause it
+     */
+    public ManagedAnimatedTile addAnimation(TiledMapTileLayer layer, float durationOfEachFrame,
+                                            Array<StaticTiledMapTile> frameTiles)
+    {
+        if(frameTiles.size == 0)
+            throw new TempestException("An animated tile needs at least one frame.");
+        if(durationOfEachFrame <= 0f)
+            throw new TempestException("Frame duration must be positive, it was %f", durationOfEachFrame);
+
+        ManagedAnimatedTile anim = new ManagedAnimatedTile(layer, durationOfEachFrame,
+                frameTiles.toArray(StaticTiledMapTile.class));
+        animations.add(anim);
+        return anim;
+    }
+
+
+    /**
+     * Same as {@link TempestUtils#addAnimatedTileToMap(TiledMap, float, String, String, String, String)}
+     * but the animation is driven by this manager, so there is no need to call
+     * {@link com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile#updateAnimationBaseTime()}.
+     */
+    public ManagedAnimatedTile addAnimatedTileToMap(TiledMap map, float durationOfEachFrame,
+                            String tilesetNameWithoutExtension, String layerNameForAnimation,
+                            String animationPropertyName, String animationPropertyValue)
+    {
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(layerNameForAnimation);
+        return addAnimatedTileToMap(map, new TilePropertyIndex(layer), durationOfEachFrame,
+                tilesetNameWithoutExtension, animationPropertyName, animationPropertyValue);
+    }
+
+
+    /** Same as {@link #addAnimatedTileToMap(TiledMap, float, String, String, String, String)} but uses an existing index of the layer. */
+    public ManagedAnimatedTile addAnimatedTileToMap(TiledMap map, TilePropertyIndex layerIndex, float durationOfEachFrame,
+                            String tilesetNameWithoutExtension, String animationPropertyName, String animationPropertyValue)
+    {
+        Array<StaticTiledMapTile> frameTiles = TempestUtils.findFrameTiles(map, tilesetNameWithoutExtension,
+                animationPropertyName, animationPropertyValue);
+
+        ManagedAnimatedTile anim = addAnimation(layerIndex.getLayer(), durationOfEachFrame, frameTiles);
+        layerIndex.replaceTiles(animationPropertyName, animationPropertyValue, anim);
+        return anim;
+    }
+
+
+    /** Stops updating this animation, cells that still have it will stay on its current frame. */
+    public boolean remove(ManagedAnimatedTile anim) {
+        return animations.removeValue(anim, true);
+    }
+
+
+    public void clear() {
+        animations.clear();
+    }
+
+
+    private static boolean isVisible(MapLayer layer) {
+        for (MapLayer l = layer; l != null; l = l.getParent()) {
+            if(!l.isVisible()) return false;
+        }
+        return true;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public AccumulationTimer getClock() { return clock; }
+    public Array<ManagedAnimatedTile> getAnimations() { return animations; }
+    public int getAnimationCount() { return animations.size; }
+
+
+    /*///////////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  MANAGED ANIMATED TILE  ///////////////////////////*/
+    /*///////////////////////////////////////////////////////////////////////////////*/
+
+    /**
+     * An animated tile whose current frame is set by its {@link AnimatedTileManager}, so every getter
+     * the renderer calls is just a field read.
+     */
+    public static class ManagedAnimatedTile implements TiledMapTile {
+
+        private final TiledMapTileLayer layer;
+        private final StaticTiledMapTile[] frameTiles;
+        private final float frameDuration, loopDuration;
+
+        private int id;
+        private BlendMode blendMode = BlendMode.ALPHA;
+        private MapProperties properties;
+        private MapObjects objects;
+
+        private int currentFrameIndex;
+        private StaticTiledMapTile currentFrame;
+        private float phaseSecs; // time into the current loop, so it never grows past loopDuration
+        private boolean paused;
+
+        private ManagedAnimatedTile(TiledMapTileLayer layer, float frameDuration, StaticTiledMapTile[] frameTiles) {
+            this.layer = layer;
+            this.frameTiles = frameTiles;
+            this.frameDuration = frameDuration;
+            this.loopDuration = frameDuration * frameTiles.length;
+            this.currentFrame = frameTiles[0];
+        }
+
+        private void updateFrame(float deltaTime) {
+            phaseSecs = (phaseSecs + deltaTime) % loopDuration;
+            final int index = Math.min((int) (phaseSecs / frameDuration), frameTiles.length - 1);
+            if(index != currentFrameIndex) {
+                currentFrameIndex = index;
+                currentFrame = frameTiles[index];
+            }
+        }
+
+        /** Paused animations stay on their current frame and continue from it when they are unpaused. */
+        public void setPaused(boolean paused) { this.paused = paused; }
+        public boolean isPaused() { return paused; }
+
+        public int getCurrentFrameIndex() { return currentFrameIndex; }
+        public StaticTiledMapTile getCurrentFrame() { return currentFrame; }
+        public StaticTiledMapTile[] getFrameTiles() { return frameTiles; }
+        public float getFrameDuration() { return frameDuration; }
+        public TiledMapTileLayer getLayer() { return layer; }
+
+        @Override public int getId() { return id; }
+        @Override public void setId(int id) { this.id = id; }
+        @Override public BlendMode getBlendMode() { return blendMode; }
+        @Override public void setBlendMode(BlendMode blendMode) { this.blendMode = blendMode; }
+        @Override public TextureRegion getTextureRegion() { return currentFrame.getTextureRegion(); }
+        @Override public float getOffsetX() { return currentFrame.getOffsetX(); }
+        @Override public float getOffsetY() { return currentFrame.getOffsetY(); }
+
+        @Override
+        public void setTextureRegion(TextureRegion textureRegion) {
+            throw new TempestException("Cannot set the texture region of an animated tile.");
+        }
+
+        @Override
+        public void setOffsetX(float offsetX) {
+            throw new TempestException("Cannot set the offset of an animated tile.");
+        }
+
+        @Override
+        public void setOffsetY(float offsetY) {
+            throw new TempestException("Cannot set the offset of an animated tile.");
+        }
+
+        @Override
+        public MapProperties getProperties() {
+            if(properties == null) properties = new MapProperties();
+            return properties;
+        }
+
+        @Override
+        public MapObjects getObjects() {
+            if(objects == null) objects = new MapObjects();
+            return objects;
+        }
+
+    }
+
+
+}
@@ -0,0 +1,132 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.twistral.tempest.TileLayerCache.Chunk;
+
+
+
+/**
+ * Draws a tile layer from a {@link TileLayerCache}. The static tiles of each visible chunk are drawn with
+ * one {@link Batch#draw(com.badlogic.gdx.graphics.Texture, float[], int, int)} call for each texture, so
+ * nothing is computed for them, and only the animated tiles get their vertices built every frame. <br><br>
+ *
+ * Unlike the map renderers, this one doesn't begin or end the batch and doesn't set its projection, call
+ * {@link #render(Batch, OrthographicCamera)} between batch.begin() and batch.end() like any other drawing.
+ * <br> Example: renderer = new CachedTileLayerRenderer(new TileLayerCache(layer, 32, 1f / 16f));
+ */
+public class CachedTileLayerRenderer {
+
+    private final TileLayerCache cache;
+    private final float[] spriteVertices;
+
+
+    public CachedTileLayerRenderer(TileLayerCache cache) {
+        this.cache = cache;
+        this.spriteVertices = new float[TileLayerCache.SPRITE_SIZE];
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /** Same as {@link #render(Batch, float, float, float, float)} with the area that the camera sees. */
+    public void render(Batch batch, OrthographicCamera camera) {
+        final float w = camera.viewportWidth * camera.zoom;
+        final float h = camera.viewportHeight * camera.zoom;
+        render(batch, camera.position.x - w / 2f, camera.position.y - h / 2f, w, h);
+    }
+
+
+    /**
+     * Draws every chunk that overlaps the given area, rebuilding the ones that are out of date.
+     * Nothing is drawn if the layer or one of its parents is invisible.
+     * @param x left of the area in world units
+     * @param y bottom of the area in world units
+     */
+    public void render(Batch batch, float x, float y, float w, float h) {
+        final TiledMapTileLayer layer = cache.getLayer();
+        if(!isVisible(layer)) return;
+
+        final Color batchColor = batch.getColor();
+        final float color = Color.toFloatBits(batchColor.r, batchColor.g, batchColor.b, batchColor.a * layer.getOpacity());
+        final float unitScale = cache.getUnitScale();
+        final float tileW = layer.getTileWidth() * unitScale, tileH = layer.getTileHeight() * unitScale;
+        final float offsetX = layer.getRenderOffsetX() * unitScale, offsetY = -layer.getRenderOffsetY() * unitScale;
+
+        // a cell can be bigger than the layer's tiles, so one more chunk is drawn on each side
+        final float chunkW = cache.getChunkSize() * tileW, chunkH = cache.getChunkSize() * tileH;
+        final int minX = Math.max((int) Math.floor((x - offsetX) / chunkW) - 1, 0);
+        final int minY = Math.max((int) Math.floor((y - offsetY) / chunkH) - 1, 0);
+        final int maxX = Math.min((int) Math.floor((x + w - offsetX) / chunkW) + 1, cache.getChunksX() - 1);
+        final int maxY = Math.min((int) Math.floor((y + h - offsetY) / chunkH) + 1, cache.getChunksY() - 1);
+
+        AnimatedTiledMapTile.updateAnimationBaseTime();
+        for (int cy = maxY; cy >= minY; cy--) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                final Chunk chunk = cache.getChunk(cx, cy, color);
+                for (int i = 0; i < chunk.getTextureCount(); i++) {
+                    final FloatArray vertices = chunk.getVertices(i);
+                    batch.draw(chunk.getTexture(i), vertices.items, 0, vertices.size);
+                }
+                drawAnimatedCells(batch, layer, chunk.getAnimatedCells(), tileW, tileH, offsetX, offsetY, color);
+            }
+        }
+    }
+
+
+    private void drawAnimatedCells(Batch batch, TiledMapTileLayer layer, IntArray cells,
+                                   float tileW, float tileH, float offsetX, float offsetY, float color)
+    {
+        final int width = layer.getWidth();
+        for (int i = 0; i < cells.size; i++) {
+            final int cellX = cells.items[i] % width, cellY = cells.items[i] / width;
+            final Cell cell = layer.getCell(cellX, cellY);
+            if(cell == null || cell.getTile() == null) continue; // changed without being invalidated
+
+            final TiledMapTile tile = cell.getTile();
+            final TextureRegion region = tile.getTextureRegion();
+            TileLayerCache.buildSprite(cell, tile, region, cellX * tileW + offsetX, cellY * tileH + offsetY,
+                    cache.getUnitScale(), color, spriteVertices, 0);
+            batch.draw(region.getTexture(), spriteVertices, 0, TileLayerCache.SPRITE_SIZE);
+        }
+    }
+
+
+    private static boolean isVisible(TiledMapTileLayer layer) {
+        for (MapLayer l = layer; l != null; l = l.getParent()) {
+            if(!l.isVisible()) return false;
+        }
+        return true;
+    }
+
+
+    public TileLayerCache getCache() { return cache; }
+
+
+}
@@ -104,6 +104,9 @@ public class TempestUtils {
      * to call {@link AnimatedTiledMapTile#updateAnimationBaseTime()} in your update() method before
      * any drawing happens so that animation will not be stuck on the first frame all the time.</b>
      * <br> Example: TiledUtils.addAnimatedTileToMap(map, 0.5f, "myCoolTileset", "tile-layer", "blueFlowerAnimation", "heyyo");
+     * <br> If you are adding more than one animation to the same layer, use
+     * {@link #addAnimatedTilesToMap} or {@link #addAnimatedTileToMap(TiledMap, TilePropertyIndex, float, String, String, String)}
+     * so that the layer is only scanned once.
      * @param map Any tiled map
      * @param durationOfEachFrame How much time is one frame going to take in the animation
      * @param tilesetNameWithoutExtension What is the name of the tileset that these animation frames are in? (without extension)
@@ -115,6 +118,53 @@ public class TempestUtils {
     public static void addAnimatedTileToMap(TiledMap map, float durationOfEachFrame,
                             String tilesetNameWithoutExtension, String layerNameForAnimation,
                             String animationPropertyName, String animationPropertyValue)
+    {
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(layerNameForAnimation);
+        addAnimatedTileToMap(map, new TilePropertyIndex(layer), durationOfEachFrame,
+                tilesetNameWithoutExtension, animationPropertyName, animationPropertyValue);
+    }
+
+
+    /**
+     * Same as {@link #addAnimatedTileToMap(TiledMap, float, String, String, String, String)} but uses an
+     * existing index of the layer, so the time it takes only depends on the cells that get animated.
+     * @param layerIndex the index of the tile layer that will have this animation
+     */
+    public static void addAnimatedTileToMap(TiledMap map, TilePropertyIndex layerIndex, float durationOfEachFrame,
+                            String tilesetNameWithoutExtension, String animationPropertyName, String animationPropertyValue)
+    {
+        Array<StaticTiledMapTile> frameTiles = findFrameTiles(map, tilesetNameWithoutExtension,
+                animationPropertyName, animationPropertyValue);
+
+        AnimatedTiledMapTile animatedTile = new AnimatedTiledMapTile(durationOfEachFrame, frameTiles);
+        layerIndex.replaceTiles(animationPropertyName, animationPropertyValue, animatedTile);
+    }
+
+
+    /**
+     * Adds one animation for each of the given property values to the layer, while scanning the layer
+     * only once. Check {@link #addAnimatedTileToMap(TiledMap, float, String, String, String, String)}
+     * for the details.
+     */
+    public static void addAnimatedTilesToMap(TiledMap map, float durationOfEachFrame,
+                            String tilesetNameWithoutExtension, String layerNameForAnimation,
+                            String animationPropertyName, String... animationPropertyValues)
+    {
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(layerNameForAnimation);
+        TilePropertyIndex layerIndex = new TilePropertyIndex(layer);
+        for(String animationPropertyValue : animationPropertyValues) {
+            addAnimatedTileToMap(map, layerIndex, durationOfEachFrame, tilesetNameWithoutExtension,
+                    animationPropertyName, animationPropertyValue);
+        }
+    }
+
+
+    /**
+     * @return every static tile of the tileset whose property has the given value, in the order of the tileset.
+     * These are the frames that {@link #addAnimatedTileToMap(TiledMap, float, String, String, String, String)} uses.
+     */
+    public static Array<StaticTiledMapTile> findFrameTiles(TiledMap map, String tilesetNameWithoutExtension,
+                            String animationPropertyName, String animationPropertyValue)
     {
         Array<StaticTiledMapTile> frameTiles = new Array<>();
 
@@ -122,30 +172,12 @@ public class TempestUtils {
         while (tiles.hasNext()) {
             TiledMapTile tile = tiles.next();
             MapProperties tileProp = tile.getProperties();
-            if(tileProp.containsKey(animationPropertyName)) {
-                if(tileProp.get(animationPropertyName, String.class).equals(animationPropertyValue)) {
-                    frameTiles.add((StaticTiledMapTile) tile);
-                }
-            }
-        }
-
-        AnimatedTiledMapTile animatedTile = new AnimatedTiledMapTile(durationOfEachFrame, frameTiles);
-        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(layerNameForAnimation);
-        final int layerWidth = layer.getWidth();
-        final int layerHeight = layer.getHeight();
-
-        for (int x = 0; x < layerWidth; x++) {
-            for (int y = 0; y < layerHeight; y++) {
-                TiledMapTileLayer.Cell cell = layer.getCell(x, y);
-                MapProperties cellProp = cell.getTile().getProperties();
-                if (cellProp.containsKey(animationPropertyName)) {
-                    if(cellProp.get(animationPropertyName, String.class).equals(animationPropertyValue)) {
-                        cell.setTile(animatedTile);
-                    }
-                }
+            if(tile instanceof StaticTiledMapTile && animationPropertyValue.equals(tileProp.get(animationPropertyName))) {
+                frameTiles.add((StaticTiledMapTile) tile);
             }
         }
 
+        return frameTiles;
     }
 
 
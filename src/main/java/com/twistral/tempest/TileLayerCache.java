@@ -0,0 +1,287 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+
+
+
+/**
+ * Keeps the sprite vertices of a {@link TiledMapTileLayer}'s static tiles, split into square chunks and
+ * grouped by texture, so they are computed once instead of every frame. Cells with animated tiles
+ * ({@link AnimatedTiledMapTile} or {@link AnimatedTileManager.ManagedAnimatedTile}) are only listed, their
+ * vertices are built every frame since their texture region changes. <br><br>
+ *
+ * This class doesn't touch OpenGL at all, {@link CachedTileLayerRenderer} is what draws it. Chunks are
+ * built lazily by {@link #getChunk(int, int, float)}, only when they are dirty or when the color or the
+ * offset of the layer changed. The layer can't tell when its cells change, so after changing them (for
+ * example after {@link TempestUtils#addAnimatedTileToMap}) invalidate the changed cells, or everything.
+ */
+public class TileLayerCache {
+
+    /** Floats of one sprite: 4 vertices of x, y, packed color, u, v, same as {@link Batch}. */
+    public static final int SPRITE_SIZE = 20;
+
+    private final TiledMapTileLayer layer;
+    private final int chunkSize, chunksX, chunksY;
+    private final float unitScale;
+    private final Chunk[] chunks;
+    private int rebuildCount;
+
+
+    /**
+     * @param chunkSize width and height of a chunk in cells, something like 32
+     * @param unitScale the same unit scale you would give to a map renderer
+     */
+    public TileLayerCache(TiledMapTileLayer layer, int chunkSize, float unitScale) {
+        if(chunkSize <= 0)
+            throw new TempestException("Chunk size must be positive, it was %d.", chunkSize);
+        this.layer = layer;
+        this.chunkSize = chunkSize;
+        this.unitScale = unitScale;
+        this.chunksX = (layer.getWidth() + chunkSize - 1) / chunkSize;
+        this.chunksY = (layer.getHeight() + chunkSize - 1) / chunkSize;
+        this.chunks = new Chunk[chunksX * chunksY];
+        for (int i = 0; i < chunks.length; i++) chunks[i] = new Chunk(i % chunksX, i / chunksX);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * @param color packed color that the vertices should have, the batch color times the layer's opacity
+     * @return the chunk, rebuilt first if it was out of date
+     */
+    public Chunk getChunk(int chunkX, int chunkY, float color) {
+        final Chunk chunk = chunks[chunkY * chunksX + chunkX];
+        final float offsetX = layer.getRenderOffsetX() * unitScale;
+        final float offsetY = -layer.getRenderOffsetY() * unitScale;
+        if(chunk.dirty || chunk.color != color || chunk.offsetX != offsetX || chunk.offsetY != offsetY)
+            build(chunk, color, offsetX, offsetY);
+        return chunk;
+    }
+
+
+    public void invalidateAll() {
+        for(Chunk chunk : chunks) chunk.dirty = true;
+    }
+
+
+    public void invalidateCell(int x, int y) {
+        if(x < 0 || y < 0 || x >= layer.getWidth() || y >= layer.getHeight()) return;
+        chunks[(y / chunkSize) * chunksX + x / chunkSize].dirty = true;
+    }
+
+
+    /** @param packedCells cells packed as (y * layerWidth + x), like the ones {@link TilePropertyIndex} returns */
+    public void invalidateCells(IntArray packedCells) {
+        final int width = layer.getWidth();
+        for (int i = 0; i < packedCells.size; i++)
+            invalidateCell(packedCells.items[i] % width, packedCells.items[i] / width);
+    }
+
+
+    /** Invalidates every chunk that overlaps the given area of cells. */
+    public void invalidateArea(int x, int y, int width, int height) {
+        final int minX = Math.max(x, 0) / chunkSize, minY = Math.max(y, 0) / chunkSize;
+        final int maxX = Math.min(x + width - 1, layer.getWidth() - 1) / chunkSize;
+        final int maxY = Math.min(y + height - 1, layer.getHeight() - 1) / chunkSize;
+        for (int cy = minY; cy <= maxY; cy++)
+            for (int cx = minX; cx <= maxX; cx++)
+                chunks[cy * chunksX + cx].dirty = true;
+    }
+
+
+    private void build(Chunk chunk, float color, float offsetX, float offsetY) {
+        chunk.reset();
+        chunk.color = color;
+        chunk.offsetX = offsetX;
+        chunk.offsetY = offsetY;
+
+        final float tileW = layer.getTileWidth() * unitScale, tileH = layer.getTileHeight() * unitScale;
+        final int minX = chunk.chunkX * chunkSize, maxX = Math.min(minX + chunkSize, layer.getWidth());
+        final int minY = chunk.chunkY * chunkSize, maxY = Math.min(minY + chunkSize, layer.getHeight());
+
+        // top to bottom, like the map renderers, so overlapping tiles are drawn in the same order
+        for (int y = maxY - 1; y >= minY; y--) {
+            for (int x = minX; x < maxX; x++) {
+                final Cell cell = layer.getCell(x, y);
+                if(cell == null || cell.getTile() == null) continue;
+
+                final TiledMapTile tile = cell.getTile();
+                if(isAnimated(tile)) {
+                    chunk.animatedCells.add(y * layer.getWidth() + x);
+                    continue;
+                }
+
+                final TextureRegion region = tile.getTextureRegion();
+                final FloatArray vertices = chunk.getVertices(region.getTexture());
+                vertices.ensureCapacity(SPRITE_SIZE);
+                buildSprite(cell, tile, region, x * tileW + offsetX, y * tileH + offsetY, unitScale, color,
+                        vertices.items, vertices.size);
+                vertices.size += SPRITE_SIZE;
+            }
+        }
+        chunk.dirty = false;
+        rebuildCount++;
+    }
+
+
+    /**
+     * Writes the sprite of a cell into the array exactly like
+     * {@link com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer} does, flips and rotations included.
+     * @param x left of the cell in world units
+     * @param y bottom of the cell in world units
+     */
+    public static void buildSprite(Cell cell, TiledMapTile tile, TextureRegion region, float x, float y,
+                                   float unitScale, float color, float[] out, int offset)
+    {
+        final float x1 = x + tile.getOffsetX() * unitScale;
+        final float y1 = y + tile.getOffsetY() * unitScale;
+        final float x2 = x1 + region.getRegionWidth() * unitScale;
+        final float y2 = y1 + region.getRegionHeight() * unitScale;
+
+        // u and v of the 4 vertices: bottom left, top left, top right, bottom right
+        float u1 = region.getU(), v1 = region.getV2();
+        float u2 = region.getU(), v2 = region.getV();
+        float u3 = region.getU2(), v3 = region.getV();
+        float u4 = region.getU2(), v4 = region.getV2();
+        float temp;
+
+        if(cell.getFlipHorizontally()) {
+            temp = u1; u1 = u3; u3 = temp;
+            temp = u2; u2 = u4; u4 = temp;
+        }
+        if(cell.getFlipVertically()) {
+            temp = v1; v1 = v3; v3 = temp;
+            temp = v2; v2 = v4; v4 = temp;
+        }
+        switch (cell.getRotation()) {
+            case Cell.ROTATE_90:
+                temp = v1; v1 = v2; v2 = v3; v3 = v4; v4 = temp;
+                temp = u1; u1 = u2; u2 = u3; u3 = u4; u4 = temp;
+                break;
+            case Cell.ROTATE_180:
+                temp = u1; u1 = u3; u3 = temp;
+                temp = u2; u2 = u4; u4 = temp;
+                temp = v1; v1 = v3; v3 = temp;
+                temp = v2; v2 = v4; v4 = temp;
+                break;
+            case Cell.ROTATE_270:
+                temp = v1; v1 = v4; v4 = v3; v3 = v2; v2 = temp;
+                temp = u1; u1 = u4; u4 = u3; u3 = u2; u2 = temp;
+                break;
+        }
+
+        out[offset] = x1;       out[offset + 1] = y1;   out[offset + 2] = color;   out[offset + 3] = u1;   out[offset + 4] = v1;
+        out[offset + 5] = x1;   out[offset + 6] = y2;   out[offset + 7] = color;   out[offset + 8] = u2;   out[offset + 9] = v2;
+        out[offset + 10] = x2;  out[offset + 11] = y2;  out[offset + 12] = color;  out[offset + 13] = u3;  out[offset + 14] = v3;
+        out[offset + 15] = x2;  out[offset + 16] = y1;  out[offset + 17] = color;  out[offset + 18] = u4;  out[offset + 19] = v4;
+    }
+
+
+    public static boolean isAnimated(TiledMapTile tile) {
+        return tile instanceof AnimatedTiledMapTile || tile instanceof AnimatedTileManager.ManagedAnimatedTile;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public TiledMapTileLayer getLayer() { return layer; }
+    public int getChunkSize() { return chunkSize; }
+    public int getChunksX() { return chunksX; }
+    public int getChunksY() { return chunksY; }
+    public float getUnitScale() { return unitScale; }
+    /** @return how many times a chunk was built since this cache was created */
+    public int getRebuildCount() { return rebuildCount; }
+
+    public int getDirtyChunkCount() {
+        int count = 0;
+        for(Chunk chunk : chunks) if(chunk.dirty) count++;
+        return count;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CHUNK  /////////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    /** Vertices of the static tiles of a chunk, one array for each texture, and its animated cells. */
+    public static class Chunk {
+
+        private final int chunkX, chunkY;
+        private final Array<Texture> textures;
+        private final Array<FloatArray> vertices;
+        private final IntArray animatedCells;
+        private int textureCount;
+        private boolean dirty;
+        private float color, offsetX, offsetY;
+
+        private Chunk(int chunkX, int chunkY) {
+            this.chunkX = chunkX;
+            this.chunkY = chunkY;
+            this.textures = new Array<>(false, 2, Texture.class);
+            this.vertices = new Array<>(false, 2, FloatArray.class);
+            this.animatedCells = new IntArray(false, 8);
+            this.dirty = true;
+        }
+
+        private void reset() {
+            for (int i = 0; i < textureCount; i++) vertices.get(i).clear(); // arrays are kept for the next build
+            textureCount = 0;
+            animatedCells.clear();
+        }
+
+        private FloatArray getVertices(Texture texture) {
+            for (int i = 0; i < textureCount; i++)
+                if(textures.get(i) == texture) return vertices.get(i);
+
+            if(textureCount == textures.size) {
+                textures.add(texture);
+                vertices.add(new FloatArray(false, SPRITE_SIZE * 64));
+            }
+            else textures.set(textureCount, texture);
+            return vertices.get(textureCount++);
+        }
+
+        public int getChunkX() { return chunkX; }
+        public int getChunkY() { return chunkY; }
+        public boolean isDirty() { return dirty; }
+        /** @return how many different textures the static tiles of this chunk use */
+        public int getTextureCount() { return textureCount; }
+        public Texture getTexture(int textureIndex) { return textures.get(textureIndex); }
+        /** @return sprite vertices of the static tiles that use this texture, {@link FloatArray#size} floats long */
+        public FloatArray getVertices(int textureIndex) { return vertices.get(textureIndex); }
+        /** @return cells with animated tiles, packed as (y * layerWidth + x) */
+        public IntArray getAnimatedCells() { return animatedCells; }
+
+    }
+
+
+}
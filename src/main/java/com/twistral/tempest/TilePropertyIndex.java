@@ -0,0 +1,165 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+package com.twistral.tempest;
+
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.ObjectMap;
+
+
+
+/**
+ * Groups the cells of a {@link TiledMapTileLayer} by their tile in a single pass over the layer.
+ * A layer usually has millions of cells but only a few distinct tiles, so looking up the cells that
+ * have a certain property only checks the properties of those distinct tiles and then returns their
+ * cells directly, without scanning the layer again. <br><br>
+ *
+ * Cells are stored as packed indices (y * layerWidth + x), use {@link #getCellX(int)} and
+ * {@link #getCellY(int)} to unpack them. Empty cells (null cells or cells without a tile) are skipped.
+ * If you change the layer's cells yourself, call {@link #rebuild()}; {@link #replaceTiles} keeps the
+ * index up to date on its own.
+ */
+public class TilePropertyIndex {
+
+    private final TiledMapTileLayer layer;
+    private final ObjectMap<TiledMapTile, IntArray> cellsByTile;
+
+
+    public TilePropertyIndex(TiledMapTileLayer layer) {
+        this.layer = layer;
+        this.cellsByTile = new ObjectMap<>();
+        rebuild();
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    public void rebuild() {
+        cellsByTile.clear();
+        final int width = layer.getWidth();
+        final int height = layer.getHeight();
+
+        TiledMapTile lastTile = null;
+        IntArray lastCells = null;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                final Cell cell = layer.getCell(x, y);
+                if(cell == null || cell.getTile() == null) continue;
+
+                final TiledMapTile tile = cell.getTile();
+                if(tile != lastTile) { // neighbouring cells often have the same tile
+                    lastCells = cellsByTile.get(tile);
+                    if(lastCells == null) {
+                        lastCells = new IntArray();
+                        cellsByTile.put(tile, lastCells);
+                    }
+                    lastTile = tile;
+                }
+                lastCells.add(y * width + x);
+            }
+        }
+    }
+
+
+    /**
+     * @param propertyName name of a property that was set in Tiled
+     * @param propertyValue the value that the property must have
+     * @param out the array that the matching tiles will be added into
+     * @return the given array
+     */
+    public Array<TiledMapTile> findTiles(String propertyName, Object propertyValue, Array<TiledMapTile> out) {
+        for(TiledMapTile tile : cellsByTile.keys()) {
+            if(propertyValue.equals(tile.getProperties().get(propertyName)))
+                out.add(tile);
+        }
+        return out;
+    }
+
+
+    /**
+     * @param propertyName name of a property that was set in Tiled
+     * @param propertyValue the value that the property must have
+     * @param out the array that the packed indices of the matching cells will be added into
+     * @return the given array
+     */
+    public IntArray findCells(String propertyName, Object propertyValue, IntArray out) {
+        for(ObjectMap.Entry<TiledMapTile, IntArray> entry : cellsByTile.entries()) {
+            if(propertyValue.equals(entry.key.getProperties().get(propertyName)))
+                out.addAll(entry.value);
+        }
+        return out;
+    }
+
+
+    /**
+     * @param out the array that every distinct tile of the layer will be added into
+     * @return the given array
+     */
+    public Array<TiledMapTile> getTiles(Array<TiledMapTile> out) {
+        for(TiledMapTile tile : cellsByTile.keys())
+            out.add(tile);
+        return out;
+    }
+
+
+    /** @return packed indices of every cell that has this tile, null if no cell has it */
+    public IntArray getCells(TiledMapTile tile) {
+        return cellsByTile.get(tile);
+    }
+
+
+    /**
+     * Puts the new tile into every cell whose tile has the given property.
+     * @return how many cells were changed
+     */
+    public int replaceTiles(String propertyName, Object propertyValue, TiledMapTile newTile) {
+        final Array<TiledMapTile> matchingTiles = findTiles(propertyName, propertyValue, new Array<>());
+        IntArray newTileCells = cellsByTile.get(newTile);
+        if(newTileCells == null) newTileCells = new IntArray();
+
+        int changedCount = 0;
+        for(TiledMapTile oldTile : matchingTiles) {
+            if(oldTile == newTile) continue;
+
+            final IntArray cells = cellsByTile.remove(oldTile);
+            for (int i = 0; i < cells.size; i++)
+                layer.getCell(getCellX(cells.items[i]), getCellY(cells.items[i])).setTile(newTile);
+
+            newTileCells.addAll(cells);
+            changedCount += cells.size;
+        }
+
+        if(newTileCells.size > 0) cellsByTile.put(newTile, newTileCells);
+        return changedCount;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public TiledMapTileLayer getLayer() { return layer; }
+    public int getDistinctTileCount() { return cellsByTile.size; }
+    public int getCellX(int packedCell) { return packedCell % layer.getWidth(); }
+    public int getCellY(int packedCell) { return packedCell / layer.getWidth(); }
+
+
+}
@@ -0,0 +1,229 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.assetsorter;
+
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.OrderedMap;
+import com.twistral.tempest.TempestException;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+
+/**
+ * A build step that packs the textures defined in an {@link AssetSorter} into a few atlas pages, so the
+ * game binds and reads a handful of pages instead of one file per texture. Run it from a tool or a
+ * desktop launcher (it needs the native libraries but not OpenGL), then define the result at runtime with
+ * {@link AssetSorter#definePackedAtlas(String, String)}, which replaces those definitions with atlas regions.
+ * <br><br>
+ *
+ * Images are decoded and pages are encoded on a thread pool, only the packing itself is done on one thread.
+ * Regions are named after the asset IDs of their textures.
+ * <br> Example: new AssetAtlasPacker(sorter).pack("ui_.*", Gdx.files.local("assets/atlases"), "ui");
+ */
+public class AssetAtlasPacker {
+
+    private final AssetSorter assetSorter;
+    private int pageWidth, pageHeight, padding, threadCount;
+    private TextureFilter minFilter, magFilter;
+
+
+    public AssetAtlasPacker(AssetSorter assetSorter) {
+        this.assetSorter = assetSorter;
+        this.pageWidth = 2048;
+        this.pageHeight = 2048;
+        this.padding = 2;
+        this.threadCount = Runtime.getRuntime().availableProcessors();
+        this.minFilter = TextureFilter.Nearest;
+        this.magFilter = TextureFilter.Nearest;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /** @return IDs of the {@link Texture} definitions that match the regex, sorted */
+    public Array<String> findTextureIDs(String regex) {
+        final Array<String> ids = new Array<>();
+        for(Map.Entry<String, AssetDescriptor<?>> entry : assetSorter.getDefinitions().entrySet()) {
+            if(entry.getValue().type == Texture.class && entry.getKey().matches(regex))
+                ids.add(entry.getKey());
+        }
+        ids.sort();
+        return ids;
+    }
+
+
+    /** Same as {@link #pack(Array, FileHandle, String)} with every texture whose ID matches the regex. */
+    public int pack(String regex, FileHandle outputDirectory, String atlasName) {
+        return pack(findTextureIDs(regex), outputDirectory, atlasName);
+    }
+
+
+    /**
+     * Packs the textures and writes atlasName.atlas and its pages (atlasName.png, atlasName_2.png...) into the directory.
+     * @param textureIDs IDs of {@link Texture} definitions of the sorter
+     * @return how many pages were written
+     */
+    public int pack(Array<String> textureIDs, FileHandle outputDirectory, String atlasName) {
+        final FileHandleResolver resolver = assetSorter.getAssetManager().getFileHandleResolver();
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(threadCount, 1));
+        final Pixmap[] pixmaps = new Pixmap[textureIDs.size];
+        PixmapPacker packer = null;
+
+        try {
+            // decode every image in parallel
+            final Array<Future<Pixmap>> decoded = new Array<>(textureIDs.size);
+            for(String textureID : textureIDs) {
+                final AssetDescriptor<?> desc = assetSorter.getDefinitions().get(textureID);
+                if(desc == null || desc.type != Texture.class)
+                    throw new TempestException("%s isn't defined as a texture.", textureID);
+                final FileHandle file = resolver.resolve(desc.fileName);
+                decoded.add(executor.submit(new Callable<Pixmap>() {
+                    @Override public Pixmap call() { return new Pixmap(file); }
+                }));
+            }
+            for (int i = 0; i < pixmaps.length; i++) pixmaps[i] = get(decoded.get(i));
+
+            // biggest images first, they are the hardest ones to fit
+            final Integer[] order = new Integer[pixmaps.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, new Comparator<Integer>() {
+                @Override public int compare(Integer a, Integer b) {
+                    return Integer.compare(pixmaps[b].getWidth() * pixmaps[b].getHeight(),
+                            pixmaps[a].getWidth() * pixmaps[a].getHeight());
+                }
+            });
+
+            packer = new PixmapPacker(pageWidth, pageHeight, Pixmap.Format.RGBA8888, padding, false,
+                    new PixmapPacker.SkylineStrategy());
+            for(int i : order) {
+                final Pixmap pixmap = pixmaps[i];
+                if(pixmap.getWidth() + padding * 2 > pageWidth || pixmap.getHeight() + padding * 2 > pageHeight)
+                    throw new TempestException("%s (%dx%d) doesn't fit into a %dx%d page.", textureIDs.get(i),
+                            pixmap.getWidth(), pixmap.getHeight(), pageWidth, pageHeight);
+                packer.pack(textureIDs.get(i), pixmap);
+            }
+
+            // encode the pages in parallel
+            final Array<PixmapPacker.Page> pages = packer.getPages();
+            final Array<Future<?>> encoded = new Array<>(pages.size);
+            final StringBuilder atlas = new StringBuilder(256 + textureIDs.size * 96);
+            for (int p = 0; p < pages.size; p++) {
+                final Pixmap pagePixmap = pages.get(p).getPixmap();
+                final FileHandle pageFile = outputDirectory.child(atlasName + (p == 0 ? "" : "_" + (p + 1)) + ".png");
+                encoded.add(executor.submit(new Runnable() {
+                    @Override public void run() { PixmapIO.writePNG(pageFile, pagePixmap); }
+                }));
+                appendPage(atlas, pageFile.name(), pagePixmap, pages.get(p).getRects());
+            }
+            for(Future<?> future : encoded) get(future);
+
+            outputDirectory.child(atlasName + ".atlas").writeString(atlas.toString(), false, "UTF-8");
+            return pages.size;
+        }
+        finally {
+            executor.shutdownNow();
+            for(Pixmap pixmap : pixmaps) if(pixmap != null) pixmap.dispose();
+            if(packer != null) packer.dispose();
+        }
+    }
+
+
+    /** Appends a page in the format that {@link com.badlogic.gdx.graphics.g2d.TextureAtlas} reads. */
+    private void appendPage(StringBuilder atlas, String pageFileName, Pixmap page,
+                            OrderedMap<String, PixmapPacker.PixmapPackerRectangle> rects)
+    {
+        atlas.append('\n').append(pageFileName).append('\n');
+        atlas.append("size: ").append(page.getWidth()).append(", ").append(page.getHeight()).append('\n');
+        atlas.append("format: RGBA8888\n");
+        atlas.append("filter: ").append(minFilter).append(", ").append(magFilter).append('\n');
+        atlas.append("repeat: none\n");
+
+        for(OrderedMap.Entry<String, PixmapPacker.PixmapPackerRectangle> entry : rects.entries()) {
+            final Rectangle rect = entry.value;
+            final int x = (int) rect.x, y = (int) rect.y, w = (int) rect.width, h = (int) rect.height;
+            atlas.append(entry.key).append('\n');
+            atlas.append("  rotate: false\n");
+            atlas.append("  xy: ").append(x).append(", ").append(y).append('\n');
+            atlas.append("  size: ").append(w).append(", ").append(h).append('\n');
+            atlas.append("  orig: ").append(w).append(", ").append(h).append('\n');
+            atlas.append("  offset: 0, 0\n");
+            atlas.append("  index: -1\n");
+        }
+    }
+
+
+    private static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TempestException("Packing was interrupted.");
+        }
+        catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if(cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new TempestException("Packing failed: %s", String.valueOf(cause));
+        }
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  SETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    /** Sets the size of each page in pixels, 2048x2048 by default. */
+    public AssetAtlasPacker setPageSize(int pageWidth, int pageHeight) {
+        this.pageWidth = pageWidth;
+        this.pageHeight = pageHeight;
+        return this;
+    }
+
+    /** Sets the empty pixels between regions, 2 by default. */
+    public AssetAtlasPacker setPadding(int padding) {
+        this.padding = padding;
+        return this;
+    }
+
+    /** Sets how many threads decode and encode the images, the number of cores by default. */
+    public AssetAtlasPacker setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+        return this;
+    }
+
+    /** Sets the filters that the pages will be loaded with, nearest by default like {@link Texture}s. */
+    public AssetAtlasPacker setFilter(TextureFilter minFilter, TextureFilter magFilter) {
+        this.minFilter = minFilter;
+        this.magFilter = magFilter;
+        return this;
+    }
+
+
+}
@@ -0,0 +1,382 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.assetsorter;
+
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.twistral.tempest.TempestException;
+import com.twistral.tempest.assetsorter.AssetSorter.LoaderRegistration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Watches the files behind the defined assets of an {@link AssetSorter} and reloads the loaded ones when
+ * their files change, along with every loaded asset that depends on them (an atlas whose page changed, a
+ * map whose tileset changed...). {@link AssetSorter#getAsset(String, Class)} then returns the new versions.
+ * <br><br>
+ *
+ * Changes are debounced: nothing is reloaded until no file has changed for {@link #setDebounceMillis(int)}
+ * milliseconds, then every change is reloaded in one batch. A batch is loaded into its own
+ * {@link AssetManager} (its files are read on that manager's thread), and when all of it is loaded
+ * {@link #update()} swaps every asset of the batch at once, on the thread that calls it. The old versions
+ * stay valid until then. Assets that aren't loaded are skipped, they are read from the disk anyway
+ * when they get queued. <br><br>
+ *
+ * The originally loaded versions stay in memory until they are dequeued, but a reloaded version is disposed
+ * when it's replaced by a newer one, so get the assets from the sorter instead of keeping them around.
+ * <br><br>
+ *
+ * Only files that are on the file system can be watched (not classpath files or files inside a jar/APK).
+ * Custom loaders that were set on the sorter are used for reloading too; a new instance is created
+ * when the loader has a constructor that takes a {@link FileHandleResolver}, otherwise it's shared.
+ */
+public class AssetHotReloader implements Disposable {
+
+    private final AssetSorter assetSorter;
+    private final WatchService watchService;
+    private final Thread watcherThread;
+    private final Set<Path> watchedDirectories;
+
+    private final ConcurrentHashMap<String, Boolean> changedPaths;
+    private volatile long lastChangeNanos;
+    private long debounceNanos;
+
+    private AssetManager batchManager;
+    private final Array<String> batchIDs;
+    private final HashMap<String, ReloadedVersion> versions;
+    private final IdentityHashMap<AssetManager, int[]> liveCounts;
+
+    private ReloadListener listener;
+    private int reloadCount;
+    private volatile boolean disposed;
+
+
+    /** Starts watching the directories of every asset that is defined in the sorter right now. */
+    public AssetHotReloader(AssetSorter assetSorter) {
+        if(assetSorter.hotReloader != null)
+            throw new TempestException("This AssetSorter already has a hot reloader.");
+
+        this.assetSorter = assetSorter;
+        this.watchedDirectories = new HashSet<>();
+        this.changedPaths = new ConcurrentHashMap<>();
+        this.debounceNanos = 300_000_000L;
+        this.batchIDs = new Array<>();
+        this.versions = new HashMap<>();
+        this.liveCounts = new IdentityHashMap<>();
+
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+        }
+        catch (IOException e) {
+            throw new TempestException("Couldn't create a watch service: %s", e.getMessage());
+        }
+
+        this.watcherThread = new Thread(new Runnable() {
+            @Override public void run() { watch(); }
+        }, "AssetHotReloader");
+        this.watcherThread.setDaemon(true);
+        this.watcherThread.start();
+
+        assetSorter.hotReloader = this;
+        refresh();
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  WATCHING  //////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    private void watch() {
+        while (!disposed) {
+            final WatchKey key;
+            try {
+                key = watchService.take();
+            }
+            catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+
+            final Path directory = (Path) key.watchable();
+            for(WatchEvent<?> event : key.pollEvents()) {
+                if(event.kind() == StandardWatchEventKinds.OVERFLOW) continue;
+                final Path path = directory.resolve((Path) event.context());
+                changedPaths.put(path.toAbsolutePath().normalize().toString(), Boolean.TRUE);
+                lastChangeNanos = System.nanoTime();
+            }
+            key.reset();
+        }
+    }
+
+
+    /** Starts watching the directories of the assets that were defined since the last call. */
+    public void refresh() {
+        final FileHandleResolver resolver = assetSorter.getAssetManager().getFileHandleResolver();
+        for(AssetDescriptor<?> desc : assetSorter.getDefinitions().values()) {
+            final File directory = toFile(resolver.resolve(desc.fileName)).getParentFile();
+            if(directory == null || !directory.isDirectory()) continue;
+
+            final Path path = directory.toPath().toAbsolutePath().normalize();
+            if(!watchedDirectories.add(path)) continue;
+            try {
+                path.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            }
+            catch (IOException e) {
+                watchedDirectories.remove(path); // can't be watched, nothing to do about it
+            }
+        }
+    }
+
+
+    /** Reloads the assets of this file as if it was changed on the disk, even if it isn't watched. */
+    public void markChanged(FileHandle file) {
+        changedPaths.put(toFile(file).toPath().toAbsolutePath().normalize().toString(), Boolean.TRUE);
+        lastChangeNanos = System.nanoTime();
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  RELOADING  /////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /** Same as {@link #update(int)} with 5 milliseconds. */
+    public boolean update() {
+        return update(5);
+    }
+
+
+    /**
+     * Starts a batch if the changes have settled, or keeps loading the current batch and swaps it in once
+     * it's loaded. Call this once per frame on the thread that uses the assets.
+     * @param milliseconds how long the current batch can keep loading on this thread
+     * @return true if a batch was swapped in during this call
+     */
+    public boolean update(int milliseconds) {
+        if(disposed) return false;
+
+        if(batchManager == null) {
+            if(changedPaths.isEmpty() || System.nanoTime() - lastChangeNanos < debounceNanos) return false;
+            if(!startBatch()) return false;
+        }
+
+        try {
+            if(!batchManager.update(milliseconds)) return false;
+        }
+        catch (RuntimeException e) { // usually a file that's still being written, it will change again
+            batchManager.dispose();
+            batchManager = null;
+            if(listener != null) listener.reloadFailed(batchIDs, e);
+            return false;
+        }
+
+        finishBatch();
+        return true;
+    }
+
+
+    private boolean startBatch() {
+        final HashSet<String> changed = new HashSet<>();
+        for(String path : changedPaths.keySet()) {
+            changedPaths.remove(path);
+            changed.add(path);
+        }
+
+        final AssetManager mainManager = assetSorter.getAssetManager();
+        final HashMap<String, Boolean> affectedFiles = new HashMap<>();
+        batchIDs.clear();
+        for(String assetID : assetSorter.getDefinitions().keySet()) {
+            final String fileName = assetSorter.getDefinitions().get(assetID).fileName;
+            if(mainManager.isLoaded(fileName) && isAffected(fileName, changed, affectedFiles))
+                batchIDs.add(assetID);
+        }
+        if(batchIDs.size == 0) return false;
+
+        batchManager = new AssetManager(mainManager.getFileHandleResolver());
+        for(LoaderRegistration<?, ?> registration : assetSorter.getLoaderRegistrations())
+            setLoader(batchManager, registration, mainManager.getFileHandleResolver());
+        for(String assetID : batchIDs)
+            batchManager.load(assetSorter.getDefinitions().get(assetID));
+        return true;
+    }
+
+
+    /** @return true if the file or any of its dependencies (as the main manager loaded them) changed */
+    private boolean isAffected(String fileName, HashSet<String> changed, HashMap<String, Boolean> memo) {
+        final Boolean known = memo.get(fileName);
+        if(known != null) return known;
+        memo.put(fileName, Boolean.FALSE); // dependency cycles can't happen, but don't loop if they do
+
+        final FileHandleResolver resolver = assetSorter.getAssetManager().getFileHandleResolver();
+        boolean affected = changed.contains(toFile(resolver.resolve(fileName)).toPath().toAbsolutePath().normalize().toString());
+        final Array<String> dependencies = assetSorter.getAssetManager().getDependencies(fileName);
+        if(dependencies != null) {
+            for (int i = 0; i < dependencies.size && !affected; i++)
+                affected = isAffected(dependencies.get(i), changed, memo);
+        }
+
+        memo.put(fileName, affected);
+        return affected;
+    }
+
+
+    private void finishBatch() {
+        final AssetManager manager = batchManager;
+        batchManager = null;
+        final int[] liveCount = { 0 };
+        liveCounts.put(manager, liveCount);
+
+        final HashMap<String, Object> reloadedAssets = assetSorter.getReloadedAssets();
+        for(String assetID : batchIDs) {
+            final AssetDescriptor<?> desc = assetSorter.getDefinitions().get(assetID);
+            if(desc == null || !assetSorter.getAssetManager().isLoaded(desc.fileName)) continue; // gone while loading
+
+            release(assetID);
+            reloadedAssets.put(assetID, manager.get(desc.fileName, desc.type));
+            versions.put(assetID, new ReloadedVersion(manager, desc.fileName));
+            liveCount[0]++;
+        }
+
+        if(liveCount[0] == 0) {
+            liveCounts.remove(manager);
+            manager.dispose();
+        }
+        reloadCount++;
+        if(listener != null) listener.assetsReloaded(batchIDs);
+    }
+
+
+    /** Forgets the reloaded version of an asset and unloads it, called when the asset is dequeued or undefined. */
+    void release(String assetID) {
+        final ReloadedVersion version = versions.remove(assetID);
+        if(version == null) return;
+
+        assetSorter.getReloadedAssets().remove(assetID);
+        version.manager.unload(version.fileName);
+        final int[] liveCount = liveCounts.get(version.manager);
+        if(--liveCount[0] == 0) {
+            liveCounts.remove(version.manager);
+            version.manager.dispose();
+        }
+    }
+
+
+    private static <T, P extends AssetLoaderParameters<T>>
+    void setLoader(AssetManager manager, LoaderRegistration<T, P> registration, FileHandleResolver resolver) {
+        final AssetLoader<T, P> loader = copyLoader(registration.loader, resolver);
+        if(registration.suffix == null) manager.setLoader(registration.type, loader);
+        else manager.setLoader(registration.type, registration.suffix, loader);
+    }
+
+
+    @SuppressWarnings("unchecked") // the copy is an instance of the same class
+    private static <T, P extends AssetLoaderParameters<T>>
+    AssetLoader<T, P> copyLoader(AssetLoader<T, P> loader, FileHandleResolver resolver) {
+        try {
+            return loader.getClass().getConstructor(FileHandleResolver.class).newInstance(resolver);
+        }
+        catch (ReflectiveOperationException | RuntimeException e) {
+            return loader;
+        }
+    }
+
+
+    private static File toFile(FileHandle file) {
+        return file.file().getAbsoluteFile();
+    }
+
+
+    @Override
+    public void dispose() {
+        if(disposed) return;
+        disposed = true;
+        try {
+            watchService.close();
+        }
+        catch (IOException ignored) {}
+        watcherThread.interrupt();
+
+        if(batchManager != null) batchManager.dispose();
+        batchManager = null;
+        for(AssetManager manager : liveCounts.keySet()) manager.dispose();
+        liveCounts.clear();
+        versions.clear();
+        assetSorter.getReloadedAssets().clear();
+        assetSorter.hotReloader = null;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    /** @return true while a batch is being loaded */
+    public boolean isReloading() { return batchManager != null; }
+    /** @return how many batches were swapped in */
+    public int getReloadCount() { return reloadCount; }
+    /** @return how many assets currently return their reloaded version */
+    public int getReloadedAssetCount() { return versions.size(); }
+    public int getWatchedDirectoryCount() { return watchedDirectories.size(); }
+
+    /** @param debounceMillis how long the files must stay unchanged before they are reloaded, 300 by default */
+    public AssetHotReloader setDebounceMillis(int debounceMillis) {
+        this.debounceNanos = debounceMillis * 1_000_000L;
+        return this;
+    }
+
+    public AssetHotReloader setListener(ReloadListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CLASSES  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    private static class ReloadedVersion {
+
+        private final AssetManager manager;
+        private final String fileName;
+
+        private ReloadedVersion(AssetManager manager, String fileName) {
+            this.manager = manager;
+            this.fileName = fileName;
+        }
+
+    }
+
+
+    /** Both methods are called from {@link #update(int)}. The array is reused, copy it to keep it. */
+    public interface ReloadListener {
+        void assetsReloaded(Array<String> assetIDs);
+        void reloadFailed(Array<String> assetIDs, Throwable error);
+    }
+
+
+}
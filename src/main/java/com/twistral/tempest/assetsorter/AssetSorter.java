@@ -18,9 +18,23 @@ package com.twistral.tempest.assetsorter;
 
 import com.badlogic.gdx.assets.*;
 import com.badlogic.gdx.assets.loaders.AssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.AtlasRegion;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Disposable;
+import com.twistral.tempest.TempestException;
 import com.twistral.tempest.TempestException.AssetIDDoesntExistException;
 import com.twistral.tempest.TempestException.AssetIDAlreadyExistsException;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 
 
@@ -51,20 +65,50 @@ import java.util.*;
  *
  * Usage is pretty straightforward: <br>
  * 1. For existing assets: ADD => GET <br>
- * 2. For queueable assets: DEFINE => QUEUE => LOAD => GET <br>
+ * 2. For queueable assets: DEFINE => QUEUE => LOAD => GET <br><br>
+ *
+ * An existing asset can be added under several IDs, it is still disposed only once. Generated pixmaps and
+ * textures can also be shared by their contents, see {@link #addSharedPixmap(String, Pixmap)}. <br><br>
+ *
+ * Queueable assets can also be regions of a {@link TextureAtlas} (see {@link #definePackedAtlas(String, String)}).
+ * Queueing or dequeueing a region queues or dequeues its atlas, and getting it returns the region.
  */
 public class AssetSorter implements Disposable {
 
     private final HashMap<String, Disposable> existingAssets;
+    private final IdentityHashMap<Disposable, ExistingInstance> existingInstances; // one entry per instance, not per ID
+    private final HashMap<ContentKey, Disposable> sharedContents;
 
-    private final HashMap<String, AssetDescriptor> queueableAssets;
+    private final HashMap<String, AssetDescriptor<?>> queueableAssets;
+    private final HashMap<String, AtlasRegionAlias> regionAliases;
+    private final HashMap<String, TextureRegion> textureRegions;
     private final AssetManager assetManager;
 
+    private final HashMap<String, Object> reloadedAssets; // swapped in by the hot reloader
+    private final ArrayList<LoaderRegistration<?, ?>> loaderRegistrations;
+    AssetHotReloader hotReloader;
+
 
     public AssetSorter() {
-        this.assetManager = new AssetManager();
+        this(new InternalFileHandleResolver());
+    }
+
+
+    /**
+     * @param resolver the resolver that will be used to turn the file names of the defined assets
+     *                 into {@link com.badlogic.gdx.files.FileHandle}s, {@link #AssetSorter()} uses
+     *                 an {@link InternalFileHandleResolver}
+     */
+    public AssetSorter(FileHandleResolver resolver) {
+        this.assetManager = new AssetManager(resolver);
         this.existingAssets = new HashMap<>(128);
+        this.existingInstances = new IdentityHashMap<>(128);
+        this.sharedContents = new HashMap<>(64);
         this.queueableAssets = new HashMap<>(512);
+        this.regionAliases = new HashMap<>(128);
+        this.textureRegions = new HashMap<>(64);
+        this.reloadedAssets = new HashMap<>(16);
+        this.loaderRegistrations = new ArrayList<>(4);
     }
 
 
@@ -73,26 +117,116 @@ public class AssetSorter implements Disposable {
     /*/////////////////////////////////////////////////////////////////////////*/
 
 
+    /** The same instance can be added under multiple IDs, {@link #dispose()} disposes it only once. */
     public AssetSorter addExistingAsset(String assetID, Disposable asset) {
         if(existingAssets.containsKey(assetID))
             throw new AssetIDAlreadyExistsException(assetID);
 
         existingAssets.put(assetID, asset);
+        ExistingInstance instance = existingInstances.get(asset);
+        if(instance == null) {
+            instance = new ExistingInstance();
+            existingInstances.put(asset, instance);
+        }
+        instance.referenceCount++;
         return this;
     }
 
 
+    /**
+     * Removes the ID without disposing the asset, unless it's a shared asset and this was its last ID.
+     * Shared assets belong to the {@link AssetSorter} since their callers can't know who else uses them.
+     */
     public AssetSorter removeExistingAsset(String assetID) {
         if(!existingAssets.containsKey(assetID))
             throw new AssetIDDoesntExistException(assetID);
 
-        existingAssets.remove(assetID);
+        final Disposable asset = existingAssets.remove(assetID);
+        final ExistingInstance instance = existingInstances.get(asset);
+        if(--instance.referenceCount == 0) {
+            existingInstances.remove(asset);
+            if(instance.contentKey != null) {
+                sharedContents.remove(instance.contentKey);
+                asset.dispose();
+            }
+        }
         return this;
     }
 
 
     public void removeAllExistingAssets() {
+        for(Map.Entry<Disposable, ExistingInstance> entry : existingInstances.entrySet()) {
+            if(entry.getValue().contentKey != null) entry.getKey().dispose();
+        }
         existingAssets.clear();
+        existingInstances.clear();
+        sharedContents.clear();
+    }
+
+
+    /**
+     * Adds a generated pixmap, or the one that was already added with the exact same pixels. In the latter case
+     * the given pixmap is disposed, so use the returned one from then on. Pixmaps added with this method belong
+     * to the {@link AssetSorter}, see {@link #removeExistingAsset(String)}.
+     * @return the pixmap that is stored under this ID
+     */
+    public Pixmap addSharedPixmap(String assetID, Pixmap pixmap) {
+        if(existingAssets.containsKey(assetID))
+            throw new AssetIDAlreadyExistsException(assetID);
+
+        final ContentKey key = new ContentKey(Pixmap.class, pixmap);
+        Pixmap shared = (Pixmap) sharedContents.get(key);
+        if(shared == null) shared = (Pixmap) share(key, pixmap);
+        else if(shared != pixmap) pixmap.dispose();
+
+        addExistingAsset(assetID, shared);
+        return shared;
+    }
+
+
+    /**
+     * Adds a texture of the pixmap, or the texture that was already created from the exact same pixels, so
+     * generated textures that look the same share their GPU memory. The pixmap is only read, dispose it yourself.
+     * Textures added with this method belong to the {@link AssetSorter}, see {@link #removeExistingAsset(String)}.
+     * @return the texture that is stored under this ID
+     */
+    public Texture addSharedTexture(String assetID, Pixmap pixmap) {
+        if(existingAssets.containsKey(assetID))
+            throw new AssetIDAlreadyExistsException(assetID);
+
+        final ContentKey key = new ContentKey(Texture.class, pixmap);
+        Texture shared = (Texture) sharedContents.get(key);
+        if(shared == null) shared = (Texture) share(key, new Texture(pixmap));
+
+        addExistingAsset(assetID, shared);
+        return shared;
+    }
+
+
+    private Disposable share(ContentKey key, Disposable asset) {
+        sharedContents.put(key, asset);
+        ExistingInstance instance = existingInstances.get(asset);
+        if(instance == null) { // will be counted when it's added under its ID
+            instance = new ExistingInstance();
+            existingInstances.put(asset, instance);
+        }
+        instance.contentKey = key;
+        return asset;
+    }
+
+
+    /** @return how many IDs the existing asset with this ID is stored under */
+    public int getExistingReferenceCount(String assetID) {
+        final Disposable asset = existingAssets.get(assetID);
+        if(asset == null)
+            throw new AssetIDDoesntExistException(assetID);
+        return existingInstances.get(asset).referenceCount;
+    }
+
+
+    /** @return how many distinct instances the existing assets are, at most the number of their IDs */
+    public int getExistingInstanceCount() {
+        return existingInstances.size();
     }
 
 
@@ -107,25 +241,88 @@ public class AssetSorter implements Disposable {
 
 
     public <T> AssetSorter defineAsset(String assetID, String fileName, Class<T> assetType, AssetLoaderParameters<T> params) {
-        if(queueableAssets.containsKey(assetID))
+        if(queueableAssets.containsKey(assetID) || regionAliases.containsKey(assetID))
             throw new AssetIDAlreadyExistsException(assetID);
 
-        queueableAssets.put(assetID, new AssetDescriptor(fileName, assetType, params));
+        queueableAssets.put(assetID, new AssetDescriptor<>(fileName, assetType, params));
         return this;
     }
 
 
     public AssetSorter undefineAsset(String assetID) {
+        if(regionAliases.remove(assetID) != null) return this;
         if(!queueableAssets.containsKey(assetID))
             throw new AssetIDDoesntExistException(assetID);
 
+        if(hotReloader != null) hotReloader.release(assetID);
         queueableAssets.remove(assetID);
+        textureRegions.remove(assetID);
         return this;
     }
 
 
     public void undefineAllAssets() {
         queueableAssets.clear();
+        regionAliases.clear();
+        textureRegions.clear();
+    }
+
+
+    /*//////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  ATLAS REGIONS  //////////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * Defines an asset that is a region of an atlas which is already defined as a {@link TextureAtlas}.
+     * Getting it returns the {@link AtlasRegion} (get it as a {@link TextureRegion} or an {@link AtlasRegion}).
+     */
+    public AssetSorter defineAtlasRegion(String assetID, String atlasAssetID, String regionName) {
+        if(queueableAssets.containsKey(assetID) || regionAliases.containsKey(assetID))
+            throw new AssetIDAlreadyExistsException(assetID);
+        if(!queueableAssets.containsKey(atlasAssetID))
+            throw new AssetIDDoesntExistException(atlasAssetID);
+
+        regionAliases.put(assetID, new AtlasRegionAlias(atlasAssetID, regionName));
+        return this;
+    }
+
+
+    /**
+     * Defines an atlas written by {@link AssetAtlasPacker} and turns every region of it into a region asset
+     * whose ID is the region's name. Assets that were defined with those IDs (the textures that were packed)
+     * are replaced, so {@link #getAsset(String, Class)} calls that ask for a {@link TextureRegion} keep working
+     * while only the atlas and its pages are read from the disk. Only the atlas file is read here.
+     * @param atlasAssetID ID that the atlas itself will be defined with
+     * @param atlasFileName file name of the .atlas file
+     */
+    public AssetSorter definePackedAtlas(String atlasAssetID, String atlasFileName) {
+        final FileHandle atlasFile = assetManager.getFileHandleResolver().resolve(atlasFileName);
+        final TextureAtlasData atlasData = new TextureAtlasData(atlasFile, atlasFile.parent(), false);
+
+        for(TextureAtlasData.Region region : atlasData.getRegions()) {
+            final AssetDescriptor<?> packedDesc = queueableAssets.get(region.name);
+            // loaded or still waiting in the queue, either way its load can't be forwarded to the atlas
+            if(packedDesc != null && assetManager.contains(packedDesc.fileName, packedDesc.type))
+                throw new TempestException("%s is queued, it can't be replaced by a region of %s.", region.name, atlasFileName);
+            if(existingAssets.containsKey(region.name))
+                throw new AssetIDAlreadyExistsException(region.name);
+        }
+
+        if(!queueableAssets.containsKey(atlasAssetID))
+            defineAsset(atlasAssetID, atlasFileName, TextureAtlas.class);
+
+        for(TextureAtlasData.Region region : atlasData.getRegions()) {
+            queueableAssets.remove(region.name);
+            textureRegions.remove(region.name);
+            regionAliases.put(region.name, new AtlasRegionAlias(atlasAssetID, region.name));
+        }
+        return this;
+    }
+
+
+    public boolean isAtlasRegion(String assetID) {
+        return regionAliases.containsKey(assetID);
     }
 
 
@@ -135,6 +332,8 @@ public class AssetSorter implements Disposable {
 
 
     public AssetSorter queueAsset(String assetID) {
+        final AtlasRegionAlias alias = regionAliases.get(assetID);
+        if(alias != null) return queueAsset(alias.atlasAssetID);
         if(!this.queueableAssets.containsKey(assetID))
             throw new AssetIDDoesntExistException(assetID);
 
@@ -145,16 +344,22 @@ public class AssetSorter implements Disposable {
 
 
     public AssetSorter dequeueAsset(String assetID) {
+        final AtlasRegionAlias alias = regionAliases.get(assetID);
+        if(alias != null) return dequeueAsset(alias.atlasAssetID);
         if(!this.queueableAssets.containsKey(assetID))
             throw new AssetIDDoesntExistException(assetID);
 
         final AssetDescriptor assetDesc = this.queueableAssets.get(assetID);
         this.assetManager.unload(assetDesc.fileName);
+        if(hotReloader != null && !this.assetManager.isLoaded(assetDesc.fileName))
+            hotReloader.release(assetID); // the reloaded version goes away with the original one
         return this;
     }
 
 
     public boolean isQueued(String assetID) {
+        final AtlasRegionAlias alias = regionAliases.get(assetID);
+        if(alias != null) return isQueued(alias.atlasAssetID);
         if(!this.queueableAssets.containsKey(assetID))
             throw new AssetIDDoesntExistException(assetID);
 
@@ -184,6 +389,9 @@ public class AssetSorter implements Disposable {
         for(String assetID : this.queueableAssets.keySet()) {
             if(assetID.matches(regex)) queueAsset(assetID);
         }
+        for(String assetID : this.regionAliases.keySet()) {
+            if(assetID.matches(regex)) queueAsset(assetID);
+        }
         return this;
     }
 
@@ -192,6 +400,9 @@ public class AssetSorter implements Disposable {
         for(String assetID : this.queueableAssets.keySet()) {
             if(assetID.matches(regex)) dequeueAsset(assetID);
         }
+        for(String assetID : this.regionAliases.keySet()) {
+            if(assetID.matches(regex)) dequeueAsset(assetID);
+        }
         return this;
     }
 
@@ -222,6 +433,10 @@ public class AssetSorter implements Disposable {
     }
 
 
+    /**
+     * Same as {@link #keepLoading(int)} with 17 milliseconds. To use whatever time is left in
+     * the frame instead, see {@link com.twistral.tempest.timing.FrameBudgetScheduler#loadingTask(AssetSorter)}.
+     */
     public boolean keepLoading() {
         return keepLoading(17);
     }
@@ -233,6 +448,11 @@ public class AssetSorter implements Disposable {
 
 
     public void finishLoadingSpecificAsset(String assetID) {
+        final AtlasRegionAlias alias = regionAliases.get(assetID);
+        if(alias != null) {
+            finishLoadingSpecificAsset(alias.atlasAssetID);
+            return;
+        }
         if(!this.queueableAssets.containsKey(assetID))
             throw new AssetIDDoesntExistException(assetID);
 
@@ -261,7 +481,9 @@ public class AssetSorter implements Disposable {
 
     /**
      * This class searches for an asset with the specified ID String and returns it. <br>
-     * It doesn't matter if the requested asset is an "Existing Asset" or an "Queueable Asset".
+     * It doesn't matter if the requested asset is an "Existing Asset" or an "Queueable Asset". <br>
+     * Textures can also be requested as {@link TextureRegion}s, so the same call keeps working after
+     * they are packed into an atlas.
      * @param assetID the id String of the requested asset
      * @param assetClass the class of the requested asset
      * @return the requested asset
@@ -274,15 +496,45 @@ public class AssetSorter implements Disposable {
         }
         if(queueableAssets.containsKey(assetID)) {
             final AssetDescriptor assetDesc = this.queueableAssets.get(assetID);
+            final Object reloadedAsset = reloadedAssets.get(assetID);
+            if(assetClass == TextureRegion.class && assetDesc.type == Texture.class) {
+                final Texture texture = reloadedAsset != null ? (Texture) reloadedAsset
+                        : this.assetManager.get(assetDesc.fileName, Texture.class);
+                return assetClass.cast(getTextureAsRegion(assetID, texture));
+            }
+            if(reloadedAsset != null) return assetClass.cast(reloadedAsset);
             return this.assetManager.get(assetDesc.fileName, assetClass);
         }
+        final AtlasRegionAlias alias = regionAliases.get(assetID);
+        if(alias != null) {
+            final TextureAtlas atlas = getAsset(alias.atlasAssetID, TextureAtlas.class);
+            if(alias.atlas != atlas) { // the atlas was reloaded
+                alias.region = atlas.findRegion(alias.regionName);
+                alias.atlas = atlas;
+                if(alias.region == null)
+                    throw new TempestException("Atlas %s doesn't have a region named %s", alias.atlasAssetID, alias.regionName);
+            }
+            return assetClass.cast(alias.region);
+        }
 
         throw new AssetIDDoesntExistException(assetID);
     }
 
 
+    private TextureRegion getTextureAsRegion(String assetID, Texture texture) {
+        TextureRegion region = textureRegions.get(assetID);
+        if(region == null || region.getTexture() != texture) {
+            region = new TextureRegion(texture);
+            textureRegions.put(assetID, region);
+        }
+        return region;
+    }
+
+
     public boolean isAvailable(String assetID) {
         if(existingAssets.containsKey(assetID)) return true;
+        final AtlasRegionAlias alias = regionAliases.get(assetID);
+        if(alias != null) return isAvailable(alias.atlasAssetID);
         if(queueableAssets.containsKey(assetID)) {
             final AssetDescriptor assetDesc = this.queueableAssets.get(assetID);
             return this.assetManager.isLoaded(assetDesc);
@@ -300,12 +552,13 @@ public class AssetSorter implements Disposable {
     public <T, P extends AssetLoaderParameters<T>>
     void setLoader(Class<T> type, String suffix, AssetLoader<T, P> loader) {
         this.assetManager.setLoader(type, suffix, loader);
+        this.loaderRegistrations.add(new LoaderRegistration<>(type, suffix, loader));
     }
 
 
     public <T, P extends AssetLoaderParameters<T>>
     void setLoader(Class<T> type, AssetLoader<T, P> loader) {
-        this.assetManager.setLoader(type, loader);
+        this.setLoader(type, null, loader);
     }
 
 
@@ -324,6 +577,12 @@ public class AssetSorter implements Disposable {
      */
     public AssetManager getAssetManager() { return assetManager; }
 
+    /** @return every queueable asset that isn't an atlas region, {@link AssetAtlasPacker} reads these */
+    HashMap<String, AssetDescriptor<?>> getDefinitions() { return queueableAssets; }
+    HashMap<String, Object> getReloadedAssets() { return reloadedAssets; }
+    /** @return every loader that was set, in order, so {@link AssetHotReloader} can set them on its own managers */
+    ArrayList<LoaderRegistration<?, ?>> getLoaderRegistrations() { return loaderRegistrations; }
+
 
 
     /*////////////////////////////////////////////////////////////////////////*/
@@ -333,19 +592,18 @@ public class AssetSorter implements Disposable {
 
     @Override
     public void dispose() {
+        if(hotReloader != null) hotReloader.dispose();
         this.assetManager.dispose();
 
-        for(Map.Entry<String, Disposable> assetEntry : this.existingAssets.entrySet()) {
-            final Disposable asset = assetEntry.getValue();
+        for(Disposable asset : this.existingInstances.keySet()) // each instance once, even if it has many IDs
             asset.dispose();
-        }
     }
 
 
     @Override
     public String toString() {
         return "AssetOverlord{" + "existingAssets=" + existingAssets + ", queueableAssets=" +
-            queueableAssets + ", assetManager=" + assetManager + '}';
+            queueableAssets + ", regionAliases=" + regionAliases.keySet() + ", assetManager=" + assetManager + '}';
     }
 
 
@@ -359,13 +617,111 @@ public class AssetSorter implements Disposable {
         }
         AssetSorter t = (AssetSorter) o;
         return Objects.equals(existingAssets, t.existingAssets) &&
-            Objects.equals(queueableAssets, t.queueableAssets) && Objects.equals(assetManager, t.assetManager);
+            Objects.equals(queueableAssets, t.queueableAssets) && Objects.equals(regionAliases, t.regionAliases) &&
+            Objects.equals(assetManager, t.assetManager);
     }
 
 
     @Override
     public int hashCode() {
-        return Objects.hash(existingAssets, queueableAssets, assetManager);
+        return Objects.hash(existingAssets, queueableAssets, regionAliases, assetManager);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CLASSES  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    private static class ExistingInstance {
+
+        private int referenceCount;
+        private ContentKey contentKey; // null unless it was added as a shared asset
+
+    }
+
+
+    /** Identifies the contents of a pixmap by a digest of its pixels, compared along with its size and format. */
+    private static class ContentKey {
+
+        private final Class<?> type;
+        private final int width, height;
+        private final Pixmap.Format format;
+        private final byte[] digest;
+
+        private ContentKey(Class<?> type, Pixmap pixmap) {
+            this.type = type;
+            this.width = pixmap.getWidth();
+            this.height = pixmap.getHeight();
+            this.format = pixmap.getFormat();
+
+            final ByteBuffer pixels = pixmap.getPixels().duplicate();
+            pixels.clear();
+            try {
+                final MessageDigest messageDigest = MessageDigest.getInstance("SHA-1");
+                messageDigest.update(pixels);
+                this.digest = messageDigest.digest();
+            }
+            catch (NoSuchAlgorithmException e) { // every Java platform has to support SHA-1
+                throw new TempestException("Couldn't hash the pixmap: %s", e.getMessage());
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) return true;
+            if(!(o instanceof ContentKey)) return false;
+            ContentKey key = (ContentKey) o;
+            return type == key.type && width == key.width && height == key.height &&
+                    format == key.format && Arrays.equals(digest, key.digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(digest);
+        }
+
+    }
+
+
+    static class LoaderRegistration<T, P extends AssetLoaderParameters<T>> {
+
+        final Class<T> type;
+        final String suffix;
+        final AssetLoader<T, P> loader;
+
+        private LoaderRegistration(Class<T> type, String suffix, AssetLoader<T, P> loader) {
+            this.type = type;
+            this.suffix = suffix;
+            this.loader = loader;
+        }
+
+    }
+
+
+    private static class AtlasRegionAlias {
+
+        private final String atlasAssetID, regionName;
+        private TextureAtlas atlas; // the atlas that region was found in
+        private AtlasRegion region;
+
+        private AtlasRegionAlias(String atlasAssetID, String regionName) {
+            this.atlasAssetID = atlasAssetID;
+            this.regionName = regionName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) return true;
+            if(!(o instanceof AtlasRegionAlias)) return false;
+            AtlasRegionAlias alias = (AtlasRegionAlias) o;
+            return atlasAssetID.equals(alias.atlasAssetID) && regionName.equals(alias.regionName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(atlasAssetID, regionName);
+        }
+
     }
 
 
@@ -0,0 +1,316 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.assetsorter;
+
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.twistral.tempest.TempestException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+
+/**
+ * A read only archive written by {@link PackFileWriter}. The whole file is memory mapped and only its
+ * directory is read when it's opened; stored entries are then read straight from the mapping and
+ * deflated ones are inflated when they are read. Entries are sorted by their paths, so looking one up
+ * is a binary search. <br><br>
+ *
+ * Use it through a {@link PackFileHandleResolver} so an {@link AssetSorter} loads its assets from it.
+ * It can be read from any number of threads.
+ */
+public class PackFile {
+
+    static final int MAGIC = 0x314B5054; // "TPK1"
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 24;
+
+    public static final int METHOD_STORED = 0;
+    public static final int METHOD_DEFLATE = 1;
+
+    private final ByteBuffer buffer;
+    private final long lastModified;
+    private final String[] paths;
+    private final int[] methods, sizes, storedSizes, crcs;
+    private final long[] offsets;
+
+
+    private PackFile(ByteBuffer buffer, long lastModified) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.lastModified = lastModified;
+
+        if(buffer.getInt(0) != MAGIC)
+            throw new TempestException("This is not a pack file.");
+        final int version = buffer.getInt(4);
+        if(version != FORMAT_VERSION)
+            throw new TempestException("Pack file format version %d isn't supported, write it again.", version);
+
+        final int entryCount = buffer.getInt(8);
+        this.paths = new String[entryCount];
+        this.methods = new int[entryCount];
+        this.sizes = new int[entryCount];
+        this.storedSizes = new int[entryCount];
+        this.crcs = new int[entryCount];
+        this.offsets = new long[entryCount];
+
+        final ByteBuffer directory = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        directory.position((int) buffer.getLong(16));
+        for (int i = 0; i < entryCount; i++) {
+            final byte[] path = new byte[directory.getInt()];
+            directory.get(path);
+            directory.position((directory.position() + 3) & ~3);
+            paths[i] = new String(path, StandardCharsets.UTF_8);
+            methods[i] = directory.getInt();
+            sizes[i] = directory.getInt();
+            storedSizes[i] = directory.getInt();
+            crcs[i] = directory.getInt();
+            offsets[i] = directory.getLong();
+        }
+    }
+
+
+    /**
+     * Memory maps the file and reads its directory. Files that can't be mapped (like internal files on
+     * Android, which are inside the APK) are read into memory instead.
+     */
+    public static PackFile open(FileHandle file) {
+        ByteBuffer buffer;
+        try {
+            buffer = file.map();
+        }
+        catch (GdxRuntimeException e) {
+            buffer = ByteBuffer.wrap(file.readBytes());
+        }
+        return new PackFile(buffer, file.lastModified());
+    }
+
+
+    /** Reads a pack file that is already in memory, the pack keeps using the buffer. */
+    public static PackFile read(ByteBuffer buffer) {
+        return new PackFile(buffer, 0L);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  LOOKUP  ////////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /** @return index of the entry with this path, -1 if there is none */
+    public int indexOf(String path) {
+        int low = 0, high = paths.length - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            final int cmp = paths[mid].compareTo(path);
+            if(cmp < 0) low = mid + 1;
+            else if(cmp > 0) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+
+    /** @return true if any entry is inside this directory, the root ("") always is one */
+    public boolean isDirectory(String path) {
+        if(path.isEmpty()) return true;
+        final String prefix = path + "/";
+        final int first = lowerBound(prefix);
+        return first < paths.length && paths[first].startsWith(prefix);
+    }
+
+
+    /**
+     * @param directory path of a directory, "" for the root
+     * @param out the array that the names (not paths) of the files and directories inside it will be added into
+     * @return the given array
+     */
+    public Array<String> list(String directory, Array<String> out) {
+        final String prefix = directory.isEmpty() ? "" : directory + "/";
+        String lastChild = null;
+        for (int i = lowerBound(prefix); i < paths.length && paths[i].startsWith(prefix); i++) {
+            final int slash = paths[i].indexOf('/', prefix.length());
+            final String child = paths[i].substring(prefix.length(), slash == -1 ? paths[i].length() : slash);
+            // entries of a subdirectory are next to each other since they are sorted
+            if(!child.equals(lastChild)) out.add(child);
+            lastChild = child;
+        }
+        return out;
+    }
+
+
+    private int lowerBound(String key) {
+        int low = 0, high = paths.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if(paths[mid].compareTo(key) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+
+    /**
+     * Turns a file name into the path format of the entries: '/' separators, without "." segments or any
+     * leading, trailing or repeated slashes. The lookup methods expect paths in this format.
+     */
+    public static String normalize(String fileName) {
+        final StringBuilder path = new StringBuilder(fileName.length());
+        for(String segment : fileName.replace('\\', '/').split("/")) {
+            if(segment.isEmpty() || segment.equals(".")) continue;
+            if(path.length() > 0) path.append('/');
+            path.append(segment);
+        }
+        return path.toString();
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  READING  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * @return a read only view of the entry's bytes inside the mapping, without copying them
+     * @throws TempestException if the entry is compressed, use {@link #readBytes(int)} for those
+     */
+    public ByteBuffer slice(int index) {
+        if(methods[index] != METHOD_STORED)
+            throw new TempestException("%s is compressed, it can't be sliced.", paths[index]);
+        return storedSlice(index).asReadOnlyBuffer();
+    }
+
+
+    private ByteBuffer storedSlice(int index) {
+        final ByteBuffer view = buffer.duplicate();
+        view.position((int) offsets[index]);
+        view.limit((int) offsets[index] + storedSizes[index]);
+        return view.slice();
+    }
+
+
+    public byte[] readBytes(int index) {
+        final byte[] stored = new byte[methods[index] == METHOD_STORED ? storedSizes[index] : storedSizes[index] + 1];
+        storedSlice(index).get(stored, 0, storedSizes[index]);
+        if(methods[index] == METHOD_STORED) return stored;
+
+        // raw deflate needs one extra byte at the end of its input, it's left as 0
+        final byte[] bytes = new byte[sizes[index]];
+        final Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(stored);
+            int length = 0;
+            while (length < bytes.length) {
+                final int inflated = inflater.inflate(bytes, length, bytes.length - length);
+                if(inflated == 0 && (inflater.finished() || inflater.needsInput())) break;
+                length += inflated;
+            }
+            if(length != bytes.length)
+                throw new TempestException("%s is corrupted, it inflated into %d bytes instead of %d.", paths[index], length, bytes.length);
+        }
+        catch (DataFormatException e) {
+            throw new TempestException("%s is corrupted: %s", paths[index], e.getMessage());
+        }
+        finally {
+            inflater.end();
+        }
+        return bytes;
+    }
+
+
+    public InputStream read(int index) {
+        if(methods[index] == METHOD_STORED) return new SliceInputStream(storedSlice(index));
+        return new ByteArrayInputStream(readBytes(index));
+    }
+
+
+    /** @return the path of the first entry whose CRC doesn't match, null if every entry is fine */
+    public String verify() {
+        final CRC32 crc = new CRC32();
+        for (int i = 0; i < paths.length; i++) {
+            crc.reset();
+            crc.update(readBytes(i));
+            if((int) crc.getValue() != crcs[i]) return paths[i];
+        }
+        return null;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public int getEntryCount() { return paths.length; }
+    public String getPath(int index) { return paths[index]; }
+    /** @return {@link #METHOD_STORED} or {@link #METHOD_DEFLATE} */
+    public int getMethod(int index) { return methods[index]; }
+    /** @return size of the entry's bytes after they are read */
+    public int getSize(int index) { return sizes[index]; }
+    /** @return size of the entry inside the pack file */
+    public int getStoredSize(int index) { return storedSizes[index]; }
+    /** @return when the pack file was modified, 0 if it was read from a buffer */
+    public long getLastModified() { return lastModified; }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CLASSES  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    private static class SliceInputStream extends InputStream {
+
+        private final ByteBuffer slice;
+
+        private SliceInputStream(ByteBuffer slice) {
+            this.slice = slice;
+        }
+
+        @Override
+        public int read() {
+            return slice.hasRemaining() ? slice.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if(length == 0) return 0;
+            if(!slice.hasRemaining()) return -1;
+            length = Math.min(length, slice.remaining());
+            slice.get(bytes, offset, length);
+            return length;
+        }
+
+        @Override
+        public long skip(long n) {
+            final int skipped = (int) Math.max(Math.min(n, slice.remaining()), 0);
+            slice.position(slice.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return slice.remaining();
+        }
+
+    }
+
+
+}
@@ -0,0 +1,167 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.assetsorter;
+
+
+import com.badlogic.gdx.Files.FileType;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.FileFilter;
+import java.io.FilenameFilter;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * A file or a directory inside a {@link PackFile}. It acts like an internal file: it can be read, listed
+ * and navigated but not written. {@link #map()} returns the entry's bytes inside the pack's mapping
+ * without copying them if the entry isn't compressed.
+ */
+public class PackFileHandle extends FileHandle {
+
+    private final PackFile pack;
+    private final String path;
+    private final int index;
+
+
+    /** @param path a path in the format of {@link PackFile#normalize(String)} */
+    public PackFileHandle(PackFile pack, String path) {
+        super(path, FileType.Internal);
+        this.pack = pack;
+        this.path = path;
+        this.index = pack.indexOf(path);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  READING  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    @Override
+    public InputStream read() {
+        return pack.read(checkIndex());
+    }
+
+
+    @Override
+    public byte[] readBytes() {
+        return pack.readBytes(checkIndex());
+    }
+
+
+    @Override
+    public ByteBuffer map(FileChannel.MapMode mode) {
+        if(mode != FileChannel.MapMode.READ_ONLY)
+            throw new GdxRuntimeException("Cannot map a pack file entry in " + mode + " mode: " + path);
+        final int i = checkIndex();
+        return pack.getMethod(i) == PackFile.METHOD_STORED ? pack.slice(i) : ByteBuffer.wrap(pack.readBytes(i));
+    }
+
+
+    private int checkIndex() {
+        if(index == -1) {
+            if(pack.isDirectory(path)) throw new GdxRuntimeException("Cannot read a directory: " + path);
+            throw new GdxRuntimeException("File not found in the pack file: " + path);
+        }
+        return index;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  NAVIGATION  ////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    @Override
+    public FileHandle child(String name) {
+        return new PackFileHandle(pack, path.isEmpty() ? PackFile.normalize(name) : path + "/" + PackFile.normalize(name));
+    }
+
+
+    @Override
+    public FileHandle sibling(String name) {
+        if(path.isEmpty()) throw new GdxRuntimeException("Cannot get the sibling of the root.");
+        return parent().child(name);
+    }
+
+
+    @Override
+    public FileHandle parent() {
+        final int slash = path.lastIndexOf('/');
+        return new PackFileHandle(pack, slash == -1 ? "" : path.substring(0, slash));
+    }
+
+
+    @Override
+    public FileHandle[] list() {
+        final Array<String> names = pack.list(path, new Array<String>());
+        final FileHandle[] handles = new FileHandle[names.size];
+        for (int i = 0; i < names.size; i++) handles[i] = child(names.get(i));
+        return handles;
+    }
+
+
+    @Override
+    public FileHandle[] list(FileFilter filter) {
+        final Array<FileHandle> handles = new Array<>(FileHandle.class);
+        for(FileHandle child : list()) if(filter.accept(child.file())) handles.add(child);
+        return handles.toArray();
+    }
+
+
+    @Override
+    public FileHandle[] list(FilenameFilter filter) {
+        final Array<FileHandle> handles = new Array<>(FileHandle.class);
+        for(FileHandle child : list()) if(filter.accept(file(), child.name())) handles.add(child);
+        return handles.toArray();
+    }
+
+
+    @Override
+    public FileHandle[] list(String suffix) {
+        final Array<FileHandle> handles = new Array<>(FileHandle.class);
+        for(FileHandle child : list()) if(child.name().endsWith(suffix)) handles.add(child);
+        return handles.toArray();
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    @Override
+    public String path() { return path; }
+
+    @Override
+    public boolean exists() { return index != -1 || pack.isDirectory(path); }
+
+    @Override
+    public boolean isDirectory() { return index == -1 && pack.isDirectory(path); }
+
+    @Override
+    public long length() { return index == -1 ? 0 : pack.getSize(index); }
+
+    @Override
+    public long lastModified() { return pack.getLastModified(); }
+
+    public PackFile getPack() { return pack; }
+
+
+}
@@ -0,0 +1,61 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.assetsorter;
+
+
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+
+
+/**
+ * Resolves file names into the entries of a {@link PackFile}. Names that aren't in the pack are given to
+ * the fallback resolver, so assets can be moved into packs gradually (or patched by loose files if this
+ * resolver is the fallback of another one).
+ * <br> Example: new AssetSorter(new PackFileHandleResolver(PackFile.open(Gdx.files.internal("assets.pak")), new InternalFileHandleResolver()));
+ */
+public class PackFileHandleResolver implements FileHandleResolver {
+
+    private final PackFile pack;
+    private final FileHandleResolver fallback;
+
+
+    /** Every name resolves into the pack, even the ones that aren't in it. */
+    public PackFileHandleResolver(PackFile pack) {
+        this(pack, null);
+    }
+
+
+    /** @param fallback resolver for the names that aren't in the pack, can be null */
+    public PackFileHandleResolver(PackFile pack, FileHandleResolver fallback) {
+        this.pack = pack;
+        this.fallback = fallback;
+    }
+
+
+    @Override
+    public FileHandle resolve(String fileName) {
+        final String path = PackFile.normalize(fileName);
+        if(fallback == null || pack.indexOf(path) != -1 || pack.isDirectory(path))
+            return new PackFileHandle(pack, path);
+        return fallback.resolve(fileName);
+    }
+
+
+    public PackFile getPack() { return pack; }
+    public FileHandleResolver getFallback() { return fallback; }
+
+
+}
@@ -0,0 +1,195 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.assetsorter;
+
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.twistral.tempest.TempestException;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+
+/**
+ * Writes the files of your assets into a single {@link PackFile}. This is meant to be run offline, like
+ * {@link AssetAtlasPacker}. Entries are named by their paths relative to the assets directory, the same
+ * names you give to {@link AssetSorter#defineAsset(String, String, Class)}. <br><br>
+ *
+ * Files are deflated unless they are already compressed (png, jpg, ogg...) or deflating them doesn't save
+ * at least a tenth of their size, so most entries can be read straight from the mapping.
+ * <br> Example: new PackFileWriter().addDirectory(Gdx.files.local("assets")).write(Gdx.files.local("assets.pak"));
+ */
+public class PackFileWriter {
+
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "png", "jpg", "jpeg", "ogg", "mp3", "m4a", "webp", "ktx", "zip", "gz", "pak"));
+
+    private final TreeMap<String, Entry> entries;
+    private int compressionLevel;
+
+
+    public PackFileWriter() {
+        this.entries = new TreeMap<>();
+        this.compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /** Adds the file, deflating it if that's worth it. */
+    public PackFileWriter add(String path, FileHandle file) {
+        return add(path, file, !COMPRESSED_EXTENSIONS.contains(file.extension().toLowerCase(Locale.ROOT)));
+    }
+
+
+    /** @param compress false to always store the file as it is, so it can be read without copying it */
+    public PackFileWriter add(String path, FileHandle file, boolean compress) {
+        final String normalized = PackFile.normalize(path);
+        if(normalized.isEmpty())
+            throw new TempestException("An entry needs a name.");
+        if(entries.containsKey(normalized))
+            throw new TempestException("%s was already added.", normalized);
+        entries.put(normalized, new Entry(file, compress));
+        return this;
+    }
+
+
+    /** Adds every file under the directory, named by their paths relative to it. */
+    public PackFileWriter addDirectory(FileHandle directory) {
+        return addDirectory(directory, "");
+    }
+
+
+    /** Same as {@link #addDirectory(FileHandle)} but the paths start with the prefix, like "textures/". */
+    public PackFileWriter addDirectory(FileHandle directory, String prefix) {
+        if(!directory.isDirectory())
+            throw new TempestException("%s isn't a directory.", directory.path());
+        for(FileHandle child : directory.list()) {
+            if(child.isDirectory()) addDirectory(child, prefix + child.name() + "/");
+            else add(prefix + child.name(), child);
+        }
+        return this;
+    }
+
+
+    /**
+     * Writes every added file into the output.
+     * @return how many bytes were written
+     */
+    public long write(FileHandle output) {
+        output.parent().mkdirs();
+        final Array<byte[]> paths = new Array<>(byte[].class);
+        int directorySize = 0;
+        for(String path : entries.keySet()) {
+            final byte[] bytes = path.getBytes(StandardCharsets.UTF_8);
+            paths.add(bytes);
+            directorySize += 4 + ((bytes.length + 3) & ~3) + 24;
+        }
+
+        final ByteBuffer directory = ByteBuffer.allocate(directorySize).order(ByteOrder.LITTLE_ENDIAN);
+        final Deflater deflater = new Deflater(compressionLevel, true);
+        final CRC32 crc = new CRC32();
+        byte[] deflated = new byte[0];
+
+        try(RandomAccessFile out = new RandomAccessFile(output.file(), "rw")) {
+            out.setLength(0);
+            out.write(new byte[PackFile.HEADER_SIZE]); // written at the end, when the directory offset is known
+
+            int i = 0;
+            for(Entry entry : entries.values()) {
+                final byte[] bytes = entry.file.readBytes();
+                crc.reset();
+                crc.update(bytes);
+
+                int method = PackFile.METHOD_STORED, storedSize = bytes.length;
+                if(entry.compress && bytes.length > 0) {
+                    if(deflated.length < bytes.length) deflated = new byte[bytes.length];
+                    deflater.reset();
+                    deflater.setInput(bytes);
+                    deflater.finish();
+                    int length = 0;
+                    while (!deflater.finished() && length < deflated.length)
+                        length += deflater.deflate(deflated, length, deflated.length - length);
+                    if(deflater.finished() && length < bytes.length - bytes.length / 10) {
+                        method = PackFile.METHOD_DEFLATE;
+                        storedSize = length;
+                    }
+                }
+
+                // entries start at multiples of 8 so mapped views of them stay aligned
+                final long offset = (out.getFilePointer() + 7) & ~7L;
+                out.seek(offset);
+                out.write(method == PackFile.METHOD_STORED ? bytes : deflated, 0, storedSize);
+
+                final byte[] path = paths.get(i++);
+                directory.putInt(path.length).put(path);
+                directory.position((directory.position() + 3) & ~3);
+                directory.putInt(method).putInt(bytes.length).putInt(storedSize).putInt((int) crc.getValue()).putLong(offset);
+            }
+
+            final long directoryOffset = (out.getFilePointer() + 7) & ~7L;
+            out.seek(directoryOffset);
+            out.write(directory.array());
+
+            final ByteBuffer header = ByteBuffer.allocate(PackFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(PackFile.MAGIC).putInt(PackFile.FORMAT_VERSION).putInt(entries.size()).putInt(0).putLong(directoryOffset);
+            out.seek(0);
+            out.write(header.array());
+            return out.length();
+        }
+        catch (IOException e) {
+            throw new TempestException("Couldn't write %s: %s", output.path(), e.getMessage());
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+
+    /** @param compressionLevel a level of {@link Deflater}, {@link Deflater#DEFAULT_COMPRESSION} by default */
+    public PackFileWriter setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+
+    public int getEntryCount() { return entries.size(); }
+
+
+    private static class Entry {
+
+        private final FileHandle file;
+        private final boolean compress;
+
+        private Entry(FileHandle file, boolean compress) {
+            this.file = file;
+            this.compress = compress;
+        }
+
+    }
+
+
+}
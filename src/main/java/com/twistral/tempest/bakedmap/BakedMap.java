@@ -0,0 +1,347 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.bakedmap;
+
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+import com.twistral.tempest.TempestException;
+
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * A map baked by {@link TiledMapBaker}. Its file is memory mapped when possible, and its layers are
+ * views into that buffer, so loading one only reads the small headers of the layers no matter how big
+ * the map is. Load it with {@link BakedMapLoader} or {@link #load(FileHandle)}. <br><br>
+ *
+ * Cells of tile layers are packed ints: the tile id in the low bits, then the rotation and the flip flags
+ * (check {@link #ID_MASK} and the other constants). An id of 0 means the cell is empty.
+ */
+public class BakedMap {
+
+    static final int MAGIC = 0x314D4254; // "TBM1"
+    static final int FORMAT_VERSION = 1;
+
+    public static final int ID_MASK = 0x0FFFFFFF;
+    public static final int ROTATION_SHIFT = 28;
+    public static final int FLIP_V_FLAG = 0x40000000;
+    public static final int FLIP_H_FLAG = 0x80000000;
+
+    public static final byte SHAPE_CHAIN = 0, SHAPE_BOX = 1, SHAPE_CIRCLE = 2;
+
+    private final int width, height, tileWidth, tileHeight;
+    private final float PPM;
+    private final Array<BakedTileLayer> tileLayers;
+    private final Array<BakedObjectLayer> objectLayers;
+    private final Array<Animation> animations;
+
+
+    private BakedMap(ByteBuffer buffer) {
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if(buffer.getInt() != MAGIC)
+            throw new TempestException("This is not a baked map.");
+        final int version = buffer.getInt();
+        if(version != FORMAT_VERSION)
+            throw new TempestException("Baked map format version %d isn't supported, bake it again.", version);
+
+        this.width = buffer.getInt();
+        this.height = buffer.getInt();
+        this.tileWidth = buffer.getInt();
+        this.tileHeight = buffer.getInt();
+        this.PPM = buffer.getFloat();
+
+        final int tileLayerCount = buffer.getInt();
+        this.tileLayers = new Array<>(true, tileLayerCount, BakedTileLayer.class);
+        for (int i = 0; i < tileLayerCount; i++) {
+            final String name = getString(buffer);
+            final int layerWidth = buffer.getInt(), layerHeight = buffer.getInt();
+            tileLayers.add(new BakedTileLayer(name, layerWidth, layerHeight, intView(buffer, layerWidth * layerHeight)));
+        }
+
+        final int objectLayerCount = buffer.getInt();
+        this.objectLayers = new Array<>(true, objectLayerCount, BakedObjectLayer.class);
+        for (int i = 0; i < objectLayerCount; i++) {
+            final String name = getString(buffer);
+            final int count = buffer.getInt();
+            final ByteBuffer types = view(buffer, count);
+            align(buffer);
+            final IntBuffer offsets = intView(buffer, count + 1);
+            final FloatBuffer data = floatView(buffer, offsets.get(count));
+            objectLayers.add(new BakedObjectLayer(name, PPM, count, types, offsets, data));
+        }
+
+        final int animationCount = buffer.getInt();
+        this.animations = new Array<>(true, animationCount, Animation.class);
+        for (int i = 0; i < animationCount; i++)
+            animations.add(new Animation(getInts(buffer), getInts(buffer), getInts(buffer)));
+    }
+
+
+    /** Reads a baked map from a buffer, the map keeps views into it. */
+    public static BakedMap read(ByteBuffer buffer) {
+        return new BakedMap(buffer);
+    }
+
+
+    /**
+     * Memory maps the file and reads it. Files that can't be mapped (like internal files on Android, which
+     * are inside the APK) are read into memory instead.
+     */
+    public static BakedMap load(FileHandle file) {
+        ByteBuffer buffer;
+        try {
+            buffer = file.map();
+        }
+        catch (GdxRuntimeException e) {
+            buffer = ByteBuffer.wrap(file.readBytes());
+        }
+        return new BakedMap(buffer);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * Creates a regular tile layer that the map renderers can draw, using the tiles of the given tilesets.
+     * Cells of baked animations get one shared {@link AnimatedTiledMapTile} per animation, so remember to
+     * call {@link AnimatedTiledMapTile#updateAnimationBaseTime()} like with any other map.
+     */
+    public TiledMapTileLayer createTileLayer(BakedTileLayer bakedLayer, TiledMapTileSets tileSets) {
+        final TiledMapTileLayer layer = new TiledMapTileLayer(bakedLayer.width, bakedLayer.height, tileWidth, tileHeight);
+        layer.setName(bakedLayer.name);
+
+        final IntMap<TiledMapTile> tilesById = new IntMap<>();
+        for(Animation animation : animations) {
+            TiledMapTile animatedTile = animation.createTile(tileSets);
+            for(int id : animation.triggerIds) tilesById.put(id, animatedTile);
+        }
+
+        final IntBuffer cells = bakedLayer.cells;
+        for (int y = 0; y < bakedLayer.height; y++) {
+            for (int x = 0; x < bakedLayer.width; x++) {
+                final int packed = cells.get(y * bakedLayer.width + x);
+                final int id = packed & ID_MASK;
+                if(id == 0) continue;
+
+                TiledMapTile tile = tilesById.get(id);
+                if(tile == null) {
+                    tile = tileSets.getTile(id);
+                    if(tile == null) continue;
+                    tilesById.put(id, tile);
+                }
+
+                final Cell cell = new Cell();
+                cell.setTile(tile);
+                cell.setFlipHorizontally((packed & FLIP_H_FLAG) != 0);
+                cell.setFlipVertically((packed & FLIP_V_FLAG) != 0);
+                cell.setRotation((packed >>> ROTATION_SHIFT) & 3);
+                layer.setCell(x, y, cell);
+            }
+        }
+        return layer;
+    }
+
+
+    private static ByteBuffer view(ByteBuffer buffer, int byteCount) {
+        final ByteBuffer view = buffer.slice();
+        view.limit(byteCount);
+        buffer.position(buffer.position() + byteCount);
+        return view;
+    }
+
+
+    private static IntBuffer intView(ByteBuffer buffer, int count) {
+        return view(buffer, count * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+
+    private static FloatBuffer floatView(ByteBuffer buffer, int count) {
+        return view(buffer, count * 4).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+    }
+
+
+    private static int[] getInts(ByteBuffer buffer) {
+        final int[] ints = new int[buffer.getInt()];
+        for (int i = 0; i < ints.length; i++) ints[i] = buffer.getInt();
+        return ints;
+    }
+
+
+    private static String getString(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        align(buffer);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+
+    private static void align(ByteBuffer buffer) {
+        buffer.position((buffer.position() + 3) & ~3);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    /** @return width of the map in tiles */
+    public int getWidth() { return width; }
+    /** @return height of the map in tiles */
+    public int getHeight() { return height; }
+    public int getTileWidth() { return tileWidth; }
+    public int getTileHeight() { return tileHeight; }
+    /** @return pixels per meter that the object layers were baked with */
+    public float getPPM() { return PPM; }
+
+    public Array<BakedTileLayer> getTileLayers() { return tileLayers; }
+    public Array<BakedObjectLayer> getObjectLayers() { return objectLayers; }
+    public Array<Animation> getAnimations() { return animations; }
+
+
+    /** @return the first tile layer with this name, null if there is none */
+    public BakedTileLayer getTileLayer(String name) {
+        for(BakedTileLayer layer : tileLayers)
+            if(layer.name.equals(name)) return layer;
+        return null;
+    }
+
+
+    /** @return the first object layer with this name, null if there is none */
+    public BakedObjectLayer getObjectLayer(String name) {
+        for(BakedObjectLayer layer : objectLayers)
+            if(layer.name.equals(name)) return layer;
+        return null;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CLASSES  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public static class BakedTileLayer {
+
+        private final String name;
+        private final int width, height;
+        private final IntBuffer cells;
+
+        private BakedTileLayer(String name, int width, int height, IntBuffer cells) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.cells = cells;
+        }
+
+        /** @return the packed cell, 0 if it's empty */
+        public int getCell(int x, int y) { return cells.get(y * width + x); }
+        /** @return the id of the cell's tile, 0 if it's empty */
+        public int getTileId(int x, int y) { return cells.get(y * width + x) & ID_MASK; }
+
+        public String getName() { return name; }
+        public int getWidth() { return width; }
+        public int getHeight() { return height; }
+        /** @return every packed cell, row by row from the bottom like {@link TiledMapTileLayer} */
+        public IntBuffer getCells() { return cells; }
+
+    }
+
+
+    /**
+     * Shapes of an object layer in meters. Chains are closed polygons (x, y pairs whose last vertex repeats
+     * the first one), boxes are (centerX, centerY, halfWidth, halfHeight) and circles are (x, y, radius).
+     */
+    public static class BakedObjectLayer {
+
+        private final String name;
+        private final float PPM;
+        private final int count;
+        private final ByteBuffer types;
+        private final IntBuffer offsets;
+        private final FloatBuffer data;
+
+        private BakedObjectLayer(String name, float PPM, int count, ByteBuffer types, IntBuffer offsets, FloatBuffer data) {
+            this.name = name;
+            this.PPM = PPM;
+            this.count = count;
+            this.types = types;
+            this.offsets = offsets;
+            this.data = data;
+        }
+
+        /** @return one of {@link #SHAPE_CHAIN}, {@link #SHAPE_BOX}, {@link #SHAPE_CIRCLE} */
+        public byte getShapeType(int index) { return types.get(index); }
+        public int getFloatCount(int index) { return offsets.get(index + 1) - offsets.get(index); }
+
+        /** Copies the floats of a shape into the array, starting from index 0. */
+        public float[] getFloats(int index, float[] out) {
+            final int offset = offsets.get(index), length = offsets.get(index + 1) - offset;
+            for (int i = 0; i < length; i++) out[i] = data.get(offset + i);
+            return out;
+        }
+
+        public String getName() { return name; }
+        public int getShapeCount() { return count; }
+        /** @return pixels per meter that this layer was baked with */
+        public float getPPM() { return PPM; }
+
+    }
+
+
+    /** Cells whose tile id is one of the trigger ids show this animation. */
+    public static class Animation {
+
+        private final int[] triggerIds, frameIds, intervals;
+
+        public Animation(int[] triggerIds, int[] frameIds, int[] intervals) {
+            this.triggerIds = triggerIds;
+            this.frameIds = frameIds;
+            this.intervals = intervals;
+        }
+
+        /** @return a new animated tile that uses the frames of these tilesets */
+        public AnimatedTiledMapTile createTile(TiledMapTileSets tileSets) {
+            final Array<StaticTiledMapTile> frames = new Array<>(frameIds.length);
+            for(int id : frameIds) {
+                TiledMapTile tile = tileSets.getTile(id);
+                if(!(tile instanceof StaticTiledMapTile))
+                    throw new TempestException("Frame %d of a baked animation isn't a static tile of the tilesets", id);
+                frames.add((StaticTiledMapTile) tile);
+            }
+            return new AnimatedTiledMapTile(new IntArray(intervals), frames);
+        }
+
+        public int[] getTriggerIds() { return triggerIds; }
+        public int[] getFrameIds() { return frameIds; }
+        /** @return duration of each frame in milliseconds */
+        public int[] getIntervals() { return intervals; }
+
+    }
+
+
+}
@@ -0,0 +1,66 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.bakedmap;
+
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+
+/**
+ * Loads {@link BakedMap}s on the loading thread of an {@link com.badlogic.gdx.assets.AssetManager}.
+ * <br> Example: assetSorter.setLoader(BakedMap.class, new BakedMapLoader(new InternalFileHandleResolver()));
+ */
+public class BakedMapLoader extends AsynchronousAssetLoader<BakedMap, BakedMapLoader.BakedMapParameters> {
+
+    private BakedMap map;
+
+
+    public BakedMapLoader(FileHandleResolver resolver) {
+        super(resolver);
+    }
+
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, BakedMapParameters parameter) {
+        map = BakedMap.load(file);
+    }
+
+
+    @Override
+    public BakedMap loadSync(AssetManager manager, String fileName, FileHandle file, BakedMapParameters parameter) {
+        BakedMap result = map;
+        map = null;
+        return result;
+    }
+
+
+    @Override
+    @SuppressWarnings("rawtypes") // the signature of AssetLoader
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, BakedMapParameters parameter) {
+        return null;
+    }
+
+
+    public static class BakedMapParameters extends AssetLoaderParameters<BakedMap> {}
+
+
+}
@@ -0,0 +1,272 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.bakedmap;
+
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.maps.MapGroupLayer;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.MapLayers;
+import com.badlogic.gdx.maps.MapObject;
+import com.badlogic.gdx.maps.objects.EllipseMapObject;
+import com.badlogic.gdx.maps.objects.PolygonMapObject;
+import com.badlogic.gdx.maps.objects.RectangleMapObject;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Ellipse;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.twistral.tempest.TempestUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Converts a {@link TiledMap} into the binary format that {@link BakedMap} reads, meant to be run
+ * offline (for example from a desktop tool or a Gradle task) so that games don't parse TMX files. <br><br>
+ *
+ * A baked map has every tile layer (group layers included) as a packed int array of tile ids and flip
+ * flags, every object layer as shapes that are already converted to meters the same way
+ * {@link com.twistral.tempest.box2d.WorldFacade#parseTiledObjectLayer} converts them, and the animation
+ * definitions of the map: the animations that were made in Tiled and the ones added with
+ * {@link #addPropertyAnimation}. Textures are not baked, the tilesets are still loaded separately.
+ * <br> Example: new TiledMapBaker(map, 32f).addPropertyAnimation("myCoolTileset", "anim", "water", 0.25f).bake(file);
+ */
+public class TiledMapBaker {
+
+    private final TiledMap map;
+    private final float PPM;
+    private final Array<int[][]> propertyAnimations; // { triggerIds, frameIds, intervals }
+
+
+    /** @param PPM pixels per meter, the same one your {@link com.twistral.tempest.box2d.WorldFacade} uses */
+    public TiledMapBaker(TiledMap map, float PPM) {
+        this.map = map;
+        this.PPM = PPM;
+        this.propertyAnimations = new Array<>();
+    }
+
+
+    /**
+     * Bakes the animation that {@link TempestUtils#addAnimatedTileToMap(TiledMap, float, String, String, String, String)}
+     * would create, so it doesn't have to be searched for at runtime. Cells that have any of its frames will be animated.
+     */
+    public TiledMapBaker addPropertyAnimation(String tilesetNameWithoutExtension, String animationPropertyName,
+                                              String animationPropertyValue, float durationOfEachFrame)
+    {
+        Array<StaticTiledMapTile> frames = TempestUtils.findFrameTiles(map, tilesetNameWithoutExtension,
+                animationPropertyName, animationPropertyValue);
+
+        int[] frameIds = new int[frames.size];
+        int[] intervals = new int[frames.size];
+        for (int i = 0; i < frames.size; i++) {
+            frameIds[i] = frames.get(i).getId();
+            intervals[i] = (int) (durationOfEachFrame * 1000f);
+        }
+        propertyAnimations.add(new int[][] { frameIds, frameIds, intervals });
+        return this;
+    }
+
+
+    /*////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  BAKING  ///////////////////////////*/
+    /*////////////////////////////////////////////////////////////////*/
+
+
+    public void bake(FileHandle file) {
+        ByteBuffer buffer = bake();
+        file.writeBytes(buffer.array(), 0, buffer.position(), false);
+    }
+
+
+    /** @return a heap buffer that holds the baked map between 0 and its position */
+    public ByteBuffer bake() {
+        final Array<TiledMapTileLayer> tileLayers = new Array<>();
+        final Array<MapLayer> objectLayers = new Array<>();
+        collectLayers(map.getLayers(), tileLayers, objectLayers);
+
+        Output out = new Output(1 << 16);
+        out.putInt(BakedMap.MAGIC);
+        out.putInt(BakedMap.FORMAT_VERSION);
+        out.putInt(map.getProperties().get("width", 0, Integer.class));
+        out.putInt(map.getProperties().get("height", 0, Integer.class));
+        out.putInt(map.getProperties().get("tilewidth", 0, Integer.class));
+        out.putInt(map.getProperties().get("tileheight", 0, Integer.class));
+        out.putFloat(PPM);
+
+        out.putInt(tileLayers.size);
+        for(TiledMapTileLayer layer : tileLayers) writeTileLayer(out, layer);
+
+        out.putInt(objectLayers.size);
+        for(MapLayer layer : objectLayers) writeObjectLayer(out, layer);
+
+        writeAnimations(out);
+        return out.buffer;
+    }
+
+
+    private static void collectLayers(MapLayers layers, Array<TiledMapTileLayer> tileLayers, Array<MapLayer> objectLayers) {
+        for(MapLayer layer : layers) {
+            if(layer instanceof MapGroupLayer) collectLayers(((MapGroupLayer) layer).getLayers(), tileLayers, objectLayers);
+            else if(layer instanceof TiledMapTileLayer) tileLayers.add((TiledMapTileLayer) layer);
+            else if(layer.getObjects().getCount() > 0) objectLayers.add(layer);
+        }
+    }
+
+
+    private static void writeTileLayer(Output out, TiledMapTileLayer layer) {
+        out.putString(layer.getName());
+        out.putInt(layer.getWidth());
+        out.putInt(layer.getHeight());
+        out.ensure(layer.getWidth() * layer.getHeight() * 4);
+        for (int y = 0; y < layer.getHeight(); y++) {
+            for (int x = 0; x < layer.getWidth(); x++) {
+                final Cell cell = layer.getCell(x, y);
+                if(cell == null || cell.getTile() == null) {
+                    out.putInt(0);
+                    continue;
+                }
+                int packed = cell.getTile().getId() & BakedMap.ID_MASK;
+                if(cell.getFlipHorizontally()) packed |= BakedMap.FLIP_H_FLAG;
+                if(cell.getFlipVertically()) packed |= BakedMap.FLIP_V_FLAG;
+                packed |= (cell.getRotation() & 3) << BakedMap.ROTATION_SHIFT;
+                out.putInt(packed);
+            }
+        }
+    }
+
+
+    private void writeObjectLayer(Output out, MapLayer layer) {
+        final IntArray types = new IntArray();
+        final IntArray offsets = new IntArray();
+        final FloatArray data = new FloatArray();
+
+        for(MapObject object : layer.getObjects()) {
+            final int offset = data.size;
+            if(object instanceof PolygonMapObject) {
+                float[] vertices = ((PolygonMapObject) object).getPolygon().getTransformedVertices();
+                for (float v : vertices) data.add(v / PPM);
+                // chains must be closed by repeating the first vertex
+                if(vertices[0] != vertices[vertices.length - 2] || vertices[1] != vertices[vertices.length - 1])
+                    data.add(vertices[0] / PPM, vertices[1] / PPM);
+                types.add(BakedMap.SHAPE_CHAIN);
+            }
+            else if(object instanceof RectangleMapObject) {
+                Rectangle rect = ((RectangleMapObject) object).getRectangle();
+                data.add((rect.x + rect.width / 2f) / PPM, (rect.y + rect.height / 2f) / PPM);
+                data.add(rect.width / 2f / PPM, rect.height / 2f / PPM);
+                types.add(BakedMap.SHAPE_BOX);
+            }
+            else if(object instanceof EllipseMapObject) {
+                Ellipse ellipse = ((EllipseMapObject) object).getEllipse();
+                data.add(ellipse.x / PPM, ellipse.y / PPM, Math.min(ellipse.width, ellipse.height) / 2f / PPM);
+                types.add(BakedMap.SHAPE_CIRCLE);
+            }
+            else continue; // parseTiledObjectLayer doesn't support the other objects either
+            offsets.add(offset);
+        }
+        offsets.add(data.size);
+
+        out.putString(layer.getName());
+        out.putInt(types.size);
+        out.ensure(types.size + 3);
+        for (int i = 0; i < types.size; i++) out.buffer.put((byte) types.get(i));
+        out.align();
+        out.putInts(offsets.items, offsets.size);
+        out.ensure(data.size * 4);
+        for (int i = 0; i < data.size; i++) out.putFloat(data.get(i));
+    }
+
+
+    private void writeAnimations(Output out) {
+        final Array<int[][]> animations = new Array<>();
+
+        // animations that were made in Tiled, cells have the animated tile itself
+        for(TiledMapTileSet tileSet : map.getTileSets()) {
+            for(TiledMapTile tile : tileSet) {
+                if(!(tile instanceof AnimatedTiledMapTile)) continue;
+                AnimatedTiledMapTile animatedTile = (AnimatedTiledMapTile) tile;
+                StaticTiledMapTile[] frames = animatedTile.getFrameTiles();
+                int[] frameIds = new int[frames.length];
+                for (int i = 0; i < frames.length; i++) frameIds[i] = frames[i].getId();
+                animations.add(new int[][] { { animatedTile.getId() }, frameIds, animatedTile.getAnimationIntervals() });
+            }
+        }
+        animations.addAll(propertyAnimations);
+
+        out.putInt(animations.size);
+        for(int[][] animation : animations) {
+            for(int[] ints : animation) {
+                out.putInt(ints.length);
+                out.putInts(ints, ints.length);
+            }
+        }
+    }
+
+
+    /** A growing little endian buffer. */
+    private static final class Output {
+
+        ByteBuffer buffer;
+
+        Output(int capacity) {
+            buffer = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        void ensure(int bytes) {
+            if(buffer.remaining() >= bytes) return;
+            ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+            bigger.put(buffer);
+            buffer = bigger;
+        }
+
+        void putInt(int value) { ensure(4); buffer.putInt(value); }
+        void putFloat(float value) { ensure(4); buffer.putFloat(value); }
+
+        void putInts(int[] values, int count) {
+            ensure(count * 4);
+            for (int i = 0; i < count; i++) buffer.putInt(values[i]);
+        }
+
+        /** Strings are padded so that every int array after them stays aligned. */
+        void putString(String value) {
+            byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            ensure(bytes.length + 3);
+            buffer.put(bytes);
+            align();
+        }
+
+        void align() {
+            ensure(3);
+            while ((buffer.position() & 3) != 0) buffer.put((byte) 0);
+        }
+
+    }
+
+
+}
@@ -0,0 +1,465 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.box2d;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.Sprite;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.twistral.tempest.TempestException;
+
+
+
+/**
+ * Keeps the bounds of its bodies in a spatial hash so that only the bodies inside the camera's
+ * view are synced and drawn. <br><br>
+ *
+ * Every body is approximated by a circle around its origin that contains all of its fixtures,
+ * so the bounds never have to be recomputed when a body rotates. Static bodies are never touched
+ * by {@link #update()} and bodies that fell asleep leave its list, so it only costs as much as the
+ * awake bodies. {@link #syncVisible()} only syncs the sprites of visible bodies that moved since
+ * their last sync. <br><br>
+ *
+ * A few sleeping bodies are checked every update in case something woke them up. To notice them
+ * right away, forward {@link ContactListener#beginContact(Contact)} to {@link #beginContact(Contact)}
+ * and call {@link #refresh(Body)} after waking a body yourself. <br><br>
+ *
+ * Usage: ADD => (every frame) world.step => UPDATE => CULL => SYNC => DRAW <br>
+ * Remove a body from the culler before destroying it. If you move a static body with
+ * {@link Body#setTransform}, call {@link #refresh(Body)} afterwards. If you change the type of
+ * a body, remove it and add it again.
+ */
+public class BodyCuller {
+
+    private final WorldFacade wf;
+    private final float PPM;
+    private final float cellSize; // in meters
+
+    private final LongMap<Array<CulledBody>> cells;
+    private final Array<Array<CulledBody>> freeCells; // cells that emptied out, reused for new ones
+    private final ObjectMap<Body, CulledBody> culledBodies;
+    private final Array<CulledBody> awakeBodies;      // non-static bodies that were awake on the last update
+    private final Array<CulledBody> sleepingBodies;   // non-static bodies that were asleep on the last update
+    private final Array<CulledBody> visibleBodies;
+    private final Array<Body> visibleResult;
+    private int queryStamp;
+    private int wakeChecksPerUpdate;
+    private int wakeCheckCursor;
+
+
+    /**
+     * @param wf the facade of the world that the bodies belong to
+     * @param cellSizePixels size of one spatial hash cell, somewhere around a few times the size
+     *                       of an average body is a good start
+     */
+    public BodyCuller(WorldFacade wf, float cellSizePixels) {
+        this.wf = wf;
+        this.PPM = wf.getPPM();
+        this.cellSize = cellSizePixels / PPM;
+        this.cells = new LongMap<>(256);
+        this.freeCells = new Array<>(false, 64);
+        this.culledBodies = new ObjectMap<>(256);
+        this.awakeBodies = new Array<>(false, 128, CulledBody.class);
+        this.sleepingBodies = new Array<>(false, 128, CulledBody.class);
+        this.visibleBodies = new Array<>(false, 128, CulledBody.class);
+        this.visibleResult = new Array<>(false, 128);
+        this.queryStamp = 0;
+        this.wakeChecksPerUpdate = 16;
+        this.wakeCheckCursor = 0;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  ADDING/REMOVING  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * Starts tracking the body, add it after all of its fixtures are created.
+     * @param body any body of the world
+     * @param sprite the sprite that follows this body, can be null
+     */
+    public BodyCuller add(Body body, Sprite sprite) {
+        if(culledBodies.containsKey(body))
+            throw new TempestException("This body was already added to the culler: %s", body);
+
+        CulledBody cb = new CulledBody(body, sprite, computeBoundingRadius(body),
+                body.getType() == BodyType.StaticBody);
+        culledBodies.put(body, cb);
+        if(!cb.isStatic) moveTo(cb, awakeBodies); // the first update moves it if it's asleep
+        insertIntoCells(cb);
+        return this;
+    }
+
+
+    public BodyCuller add(Body body) {
+        return add(body, null);
+    }
+
+
+    public BodyCuller remove(Body body) {
+        CulledBody cb = culledBodies.remove(body);
+        if(cb == null)
+            throw new TempestException("This body was never added to the culler: %s", body);
+
+        removeFromCells(cb);
+        if(cb.list != null) removeFromList(cb);
+        visibleBodies.removeValue(cb, true);
+        visibleResult.removeValue(body, true);
+        return this;
+    }
+
+
+    /**
+     * Recomputes the cells of a single body no matter what its type or state is, use this after
+     * teleporting a static or sleeping body or waking a body up.
+     */
+    public void refresh(Body body) {
+        CulledBody cb = culledBodies.get(body);
+        if(cb == null)
+            throw new TempestException("This body was never added to the culler: %s", body);
+
+        cb.spriteDirty = true;
+        updateCells(cb);
+        if(cb.list == sleepingBodies) moveTo(cb, awakeBodies);
+    }
+
+
+    /**
+     * Call this from your {@link ContactListener#beginContact(Contact)} so that sleeping bodies that
+     * were woken up by a contact are noticed on the next update.
+     */
+    public void beginContact(Contact contact) {
+        wake(contact.getFixtureA().getBody());
+        wake(contact.getFixtureB().getBody());
+    }
+
+
+    private void wake(Body body) {
+        final CulledBody cb = culledBodies.get(body);
+        if(cb != null && cb.list == sleepingBodies) moveTo(cb, awakeBodies);
+    }
+
+
+    public void clear() {
+        for(Array<CulledBody> cell : cells.values()) {
+            cell.clear();
+            freeCells.add(cell);
+        }
+        cells.clear();
+        culledBodies.clear();
+        awakeBodies.clear();
+        sleepingBodies.clear();
+        visibleBodies.clear();
+        visibleResult.clear();
+    }
+
+
+    /*///////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  PER FRAME  ///////////////////////////*/
+    /*///////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * Moves every awake, non-static body into its new cells. Call this after world.step().
+     */
+    public void update() {
+        // backwards, since a body that fell asleep is replaced by the last one
+        for (int i = awakeBodies.size - 1; i >= 0; i--) {
+            CulledBody cb = awakeBodies.items[i];
+            syncCells(cb);
+            if(!cb.body.isAwake()) moveTo(cb, sleepingBodies);
+        }
+
+        final int checkCount = Math.min(wakeChecksPerUpdate, sleepingBodies.size);
+        for (int i = 0; i < checkCount; i++) {
+            if(wakeCheckCursor >= sleepingBodies.size) wakeCheckCursor = 0;
+            CulledBody cb = sleepingBodies.items[wakeCheckCursor];
+            if(cb.body.isAwake()) { // the last sleeping body takes its place, so the cursor stays
+                moveTo(cb, awakeBodies);
+                syncCells(cb);
+            }
+            else wakeCheckCursor++;
+        }
+    }
+
+
+    private void syncCells(CulledBody cb) {
+        final Vector2 pos = cb.body.getPosition();
+        final float angle = cb.body.getAngle();
+        if(pos.x != cb.lastX || pos.y != cb.lastY || angle != cb.lastAngle) {
+            cb.spriteDirty = true;
+            updateCells(cb);
+        }
+    }
+
+
+    /**
+     * Finds the bodies whose bounds overlap the given rectangle. The returned array is reused by
+     * the next call, so don't keep it around.
+     * @return the bodies that are visible in this rectangle
+     */
+    public Array<Body> cull(float xPixels, float yPixels, float wPixels, float hPixels) {
+        final float minX = xPixels / PPM, minY = yPixels / PPM;
+        final float maxX = (xPixels + wPixels) / PPM, maxY = (yPixels + hPixels) / PPM;
+        final int minCx = toCell(minX), minCy = toCell(minY);
+        final int maxCx = toCell(maxX), maxCy = toCell(maxY);
+        final int stamp = ++queryStamp;
+
+        visibleBodies.clear();
+        visibleResult.clear();
+
+        for (int cx = minCx; cx <= maxCx; cx++) {
+            for (int cy = minCy; cy <= maxCy; cy++) {
+                Array<CulledBody> cell = cells.get(cellKey(cx, cy));
+                if(cell == null) continue;
+
+                for (int i = 0; i < cell.size; i++) {
+                    CulledBody cb = cell.items[i];
+                    if(cb.queryStamp == stamp) continue; // big bodies can be in more than one cell
+                    cb.queryStamp = stamp;
+
+                    if(cb.lastX + cb.radius >= minX && cb.lastX - cb.radius <= maxX &&
+                       cb.lastY + cb.radius >= minY && cb.lastY - cb.radius <= maxY)
+                    {
+                        visibleBodies.add(cb);
+                        visibleResult.add(cb.body);
+                    }
+                }
+            }
+        }
+
+        return visibleResult;
+    }
+
+
+    /**
+     * Same as {@link #cull(float, float, float, float)} but uses the view of the camera (its zoom
+     * is taken into account, its rotation is not).
+     */
+    public Array<Body> cull(OrthographicCamera camera) {
+        final float w = camera.viewportWidth * camera.zoom;
+        final float h = camera.viewportHeight * camera.zoom;
+        return cull(camera.position.x - w / 2f, camera.position.y - h / 2f, w, h);
+    }
+
+
+    /**
+     * Syncs the sprites of the visible bodies (found by the last cull() call) that moved since
+     * their last sync. Sleeping bodies that haven't moved are skipped.
+     */
+    public void syncVisible() {
+        for (int i = 0; i < visibleBodies.size; i++) {
+            CulledBody cb = visibleBodies.items[i];
+            if(cb.sprite != null && cb.spriteDirty) {
+                wf.syncSpriteToBody(cb.sprite, cb.body);
+                cb.spriteDirty = false;
+            }
+        }
+    }
+
+
+    /**
+     * Draws the sprites of the visible bodies (found by the last cull() call). This method doesn't
+     * call {@link Batch#begin()} or {@link Batch#end()}.
+     */
+    public void drawVisible(Batch batch) {
+        for (int i = 0; i < visibleBodies.size; i++) {
+            Sprite sprite = visibleBodies.items[i].sprite;
+            if(sprite != null) sprite.draw(batch);
+        }
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public int getBodyCount() { return culledBodies.size; }
+    public int getAwakeCount() { return awakeBodies.size; }
+    public int getVisibleCount() { return visibleBodies.size; }
+    public float getCellSizePixels() { return cellSize * PPM; }
+    public int getWakeChecksPerUpdate() { return wakeChecksPerUpdate; }
+
+
+    /**
+     * @param wakeChecksPerUpdate how many sleeping bodies {@link #update()} checks for being awake
+     *                            again, 16 by default
+     */
+    public void setWakeChecksPerUpdate(int wakeChecksPerUpdate) {
+        this.wakeChecksPerUpdate = wakeChecksPerUpdate;
+    }
+
+
+    /*//////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  HELPER FUNCTIONS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////////*/
+
+
+    private void updateCells(CulledBody cb) {
+        final Vector2 pos = cb.body.getPosition();
+        cb.lastX = pos.x;
+        cb.lastY = pos.y;
+        cb.lastAngle = cb.body.getAngle();
+
+        final int minCx = toCell(cb.lastX - cb.radius), minCy = toCell(cb.lastY - cb.radius);
+        final int maxCx = toCell(cb.lastX + cb.radius), maxCy = toCell(cb.lastY + cb.radius);
+        if(minCx == cb.minCx && minCy == cb.minCy && maxCx == cb.maxCx && maxCy == cb.maxCy)
+            return; // still in the same cells
+
+        removeFromCells(cb);
+        insertIntoCells(cb);
+    }
+
+
+    private void insertIntoCells(CulledBody cb) {
+        final Vector2 pos = cb.body.getPosition();
+        cb.lastX = pos.x;
+        cb.lastY = pos.y;
+        cb.lastAngle = cb.body.getAngle();
+        cb.minCx = toCell(cb.lastX - cb.radius);
+        cb.minCy = toCell(cb.lastY - cb.radius);
+        cb.maxCx = toCell(cb.lastX + cb.radius);
+        cb.maxCy = toCell(cb.lastY + cb.radius);
+
+        for (int cx = cb.minCx; cx <= cb.maxCx; cx++) {
+            for (int cy = cb.minCy; cy <= cb.maxCy; cy++) {
+                final long key = cellKey(cx, cy);
+                Array<CulledBody> cell = cells.get(key);
+                if(cell == null) {
+                    cell = (freeCells.size > 0) ? freeCells.pop() : new Array<>(false, 8, CulledBody.class);
+                    cells.put(key, cell);
+                }
+                cell.add(cb);
+            }
+        }
+    }
+
+
+    private void removeFromCells(CulledBody cb) {
+        for (int cx = cb.minCx; cx <= cb.maxCx; cx++) {
+            for (int cy = cb.minCy; cy <= cb.maxCy; cy++) {
+                final long key = cellKey(cx, cy);
+                Array<CulledBody> cell = cells.get(key);
+                if(cell == null) continue;
+
+                cell.removeValue(cb, true);
+                if(cell.size == 0) {
+                    cells.remove(key);
+                    freeCells.add(cell);
+                }
+            }
+        }
+    }
+
+
+    private void moveTo(CulledBody cb, Array<CulledBody> list) {
+        if(cb.list != null) removeFromList(cb);
+        cb.list = list;
+        cb.listIndex = list.size;
+        list.add(cb);
+    }
+
+
+    private static void removeFromList(CulledBody cb) {
+        final CulledBody last = cb.list.pop();
+        if(last != cb) {
+            cb.list.items[cb.listIndex] = last;
+            last.listIndex = cb.listIndex;
+        }
+        cb.list = null;
+    }
+
+
+    private int toCell(float meters) {
+        return MathUtils.floor(meters / cellSize);
+    }
+
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+
+    /** @return radius (in meters) of the smallest circle around the body's origin that contains every fixture */
+    private static float computeBoundingRadius(Body body) {
+        final Vector2 tmp = new Vector2();
+        float radius = 0f;
+
+        for(Fixture fixture : body.getFixtureList()) {
+            final Shape shape = fixture.getShape();
+            switch (shape.getType()) {
+                case Circle:
+                    radius = Math.max(radius, ((CircleShape) shape).getPosition().len() + shape.getRadius());
+                    break;
+                case Polygon:
+                    PolygonShape polygon = (PolygonShape) shape;
+                    for (int i = 0; i < polygon.getVertexCount(); i++) {
+                        polygon.getVertex(i, tmp);
+                        radius = Math.max(radius, tmp.len() + shape.getRadius());
+                    }
+                    break;
+                case Chain:
+                    ChainShape chain = (ChainShape) shape;
+                    for (int i = 0; i < chain.getVertexCount(); i++) {
+                        chain.getVertex(i, tmp);
+                        radius = Math.max(radius, tmp.len() + shape.getRadius());
+                    }
+                    break;
+                case Edge:
+                    EdgeShape edge = (EdgeShape) shape;
+                    edge.getVertex1(tmp);
+                    radius = Math.max(radius, tmp.len() + shape.getRadius());
+                    edge.getVertex2(tmp);
+                    radius = Math.max(radius, tmp.len() + shape.getRadius());
+                    break;
+            }
+        }
+
+        return radius;
+    }
+
+
+    private static final class CulledBody {
+        final Body body;
+        final Sprite sprite;
+        final float radius;
+        final boolean isStatic;
+        float lastX, lastY, lastAngle;
+        int minCx, minCy, maxCx, maxCy;
+        int queryStamp;
+        boolean spriteDirty;
+        Array<CulledBody> list; // awakeBodies, sleepingBodies or null for static bodies
+        int listIndex;
+
+        CulledBody(Body body, Sprite sprite, float radius, boolean isStatic) {
+            this.body = body;
+            this.sprite = sprite;
+            this.radius = radius;
+            this.isStatic = isStatic;
+            this.queryStamp = 0;
+            this.spriteDirty = true;
+        }
+    }
+
+
+}
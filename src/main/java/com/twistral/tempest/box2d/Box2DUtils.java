@@ -48,4 +48,26 @@ public class Box2DUtils {
         return new Offset(xPixels, yPixels);
     }
 
+    // -------------------------------------- //
+
+    /**
+     * Divides a slice of the source array by PPM and writes the results into the destination array,
+     * the source array is never modified. The source and destination can be the same array.
+     * @param srcPixels the array that has the values in pixels
+     * @param srcOffset index of the first value that will be converted
+     * @param dstMeters the array that will have the values in meters
+     * @param dstOffset index of the first value that will be written
+     * @param length how many floats will be converted
+     * @param PPM pixels per meter
+     * @return dstMeters
+     */
+    public static float[] convertToMeters(float[] srcPixels, int srcOffset, float[] dstMeters,
+                                          int dstOffset, int length, float PPM)
+    {
+        for (int i = 0; i < length; i++)
+            dstMeters[dstOffset + i] = srcPixels[srcOffset + i] / PPM;
+
+        return dstMeters;
+    }
+
 }
@@ -21,6 +21,7 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
 import com.badlogic.gdx.utils.ShortArray;
+import com.twistral.tempest.TempestException;
 import com.twistral.tempest.box2d.Box2DUtils.*;
 
 import java.util.LinkedList;
@@ -88,18 +89,58 @@ public class ComplexBB {
     }
 
 
-    public ComplexBB addChainshapeFixture(float[] verticesInPixels, DFR dfr) {
-        float[] verticesInMeters = convertToMeters(verticesInPixels);
+    /**
+     * Converts the given vertices into meters inside the given scratch buffer and adds a chain
+     * shape from them. Neither array is kept, so both can be reused right after this call.
+     * @param verticesInPixels x0, y0, x1, y1, ... in pixels, this array will not be modified
+     * @param scratchInMeters the buffer that will hold the converted vertices, its length must
+     *                        be at least verticesInPixels.length
+     */
+    public ComplexBB addChainshapeFixture(float[] verticesInPixels, float[] scratchInMeters, DFR dfr) {
+        convertToMeters(verticesInPixels, scratchInMeters);
+        return addChainshapeFixtureInMeters(scratchInMeters, 0, verticesInPixels.length, dfr);
+    }
+
+
+    /**
+     * Converts the given vertices into meters inside the given scratch buffer and adds a polygon
+     * shape from them. Neither array is kept, so both can be reused right after this call.
+     * @param verticesInPixels x0, y0, x1, y1, ... in pixels, this array will not be modified
+     * @param scratchInMeters the buffer that will hold the converted vertices, its length must
+     *                        be at least verticesInPixels.length
+     */
+    public ComplexBB addPolygonShapeFixture(float[] verticesInPixels, float[] scratchInMeters, DFR dfr) {
+        convertToMeters(verticesInPixels, scratchInMeters);
+        return addPolygonShapeFixtureInMeters(scratchInMeters, 0, verticesInPixels.length, dfr);
+    }
+
+
+    /**
+     * Adds a chain shape from a slice of an array that is already in meters, this makes it possible
+     * to keep the vertices of every prefab inside one big packed array. (see
+     * {@link Box2DUtils#convertToMeters(float[], int, float[], int, int, float)})
+     * @param verticesInMeters x0, y0, x1, y1, ... in meters, this array will not be modified
+     * @param offset index of the first x coordinate of the slice
+     * @param length how many floats (not vertices) the slice has
+     */
+    public ComplexBB addChainshapeFixtureInMeters(float[] verticesInMeters, int offset, int length, DFR dfr) {
         ChainShape shape = new ChainShape();
-        shape.createChain(verticesInMeters);
+        shape.createChain(verticesInMeters, offset, length);
         return saveFixture(shape, dfr);
     }
 
 
-    public ComplexBB addPolygonShapeFixture(float[] verticesInPixels, DFR dfr) {
-        float[] verticesInMeters = convertToMeters(verticesInPixels);
+    /**
+     * Adds a polygon shape from a slice of an array that is already in meters, this makes it possible
+     * to keep the vertices of every prefab inside one big packed array. (see
+     * {@link Box2DUtils#convertToMeters(float[], int, float[], int, int, float)})
+     * @param verticesInMeters x0, y0, x1, y1, ... in meters, this array will not be modified
+     * @param offset index of the first x coordinate of the slice
+     * @param length how many floats (not vertices) the slice has
+     */
+    public ComplexBB addPolygonShapeFixtureInMeters(float[] verticesInMeters, int offset, int length, DFR dfr) {
         PolygonShape shape = new PolygonShape();
-        shape.set(verticesInMeters);
+        shape.set(verticesInMeters, offset, length);
         return saveFixture(shape, dfr);
     }
 
@@ -147,6 +188,14 @@ public class ComplexBB {
         return this.addCircleFixture(rPixels, dfr, null);
     }
 
+    public ComplexBB addChainshapeFixture(float[] verticesInPixels, DFR dfr) {
+        return this.addChainshapeFixture(verticesInPixels, new float[verticesInPixels.length], dfr);
+    }
+
+    public ComplexBB addPolygonShapeFixture(float[] verticesInPixels, DFR dfr) {
+        return this.addPolygonShapeFixture(verticesInPixels, new float[verticesInPixels.length], dfr);
+    }
+
 
     /*//////////////////////////////////////////////////////////////////////////*/
     /*///////////////////////////  HELPER FUNCTIONS  ///////////////////////////*/
@@ -208,11 +257,13 @@ public class ComplexBB {
     }
 
 
-    private float[] convertToMeters(float[] verticesInPixels) {
-        for (int i = 0; i < verticesInPixels.length; i++)
-            verticesInPixels[i] /= PPM;
+    private void convertToMeters(float[] verticesInPixels, float[] scratchInMeters) {
+        if(scratchInMeters.length < verticesInPixels.length) {
+            throw new TempestException("The scratch buffer is too small, expected at least %d floats but got %d",
+                    verticesInPixels.length, scratchInMeters.length);
+        }
 
-        return verticesInPixels;
+        Box2DUtils.convertToMeters(verticesInPixels, 0, scratchInMeters, 0, verticesInPixels.length, PPM);
     }
 
 
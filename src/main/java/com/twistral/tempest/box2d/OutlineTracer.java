@@ -0,0 +1,419 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.box2d;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.twistral.tempest.TempestException;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.stream.IntStream;
+
+
+
+/**
+ * Creates the imgPoints arrays that {@link ComplexBB#addFixturesFromImgTriangulation} and
+ * {@link ComplexBB#addFixturesFromImgChainshape} need by tracing the alpha channel of an image. <br><br>
+ *
+ * A pixel is solid if its alpha is greater than the alpha threshold. The outline of the first solid
+ * region (scanning rows from the top) is found with marching squares and then simplified with the
+ * Douglas-Peucker algorithm. The results are in image space (origin at the top left, y pointing down)
+ * and the polygon isn't closed (the first point isn't repeated at the end). <br><br>
+ *
+ * Everything except reading the pixels happens on the CPU without any GL calls, so this class can be
+ * used at build time with the headless backend. Results can be cached on disk by the hash of the
+ * image's alpha channel and a whole sprite sheet can be traced in parallel.
+ */
+public class OutlineTracer {
+
+    private static final int NONE = 0, UP = 1, DOWN = 2, LEFT = 3, RIGHT = 4;
+    private static final String CACHE_EXTENSION = ".outline";
+
+    private final int alphaThreshold;
+    private final float tolerance;
+
+
+    /**
+     * @param alphaThreshold pixels with an alpha (0-255) greater than this are solid
+     * @param tolerancePixels max distance (in pixels) that the simplified outline can be away from the
+     *                        traced one, 1-2 pixels is usually good enough for collision
+     */
+    public OutlineTracer(int alphaThreshold, float tolerancePixels) {
+        this.alphaThreshold = alphaThreshold;
+        this.tolerance = tolerancePixels;
+    }
+
+
+    public OutlineTracer() {
+        this(0, 1.5f);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  TRACING  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    public float[] trace(Pixmap pixmap) {
+        return trace(pixmap, 0, 0, pixmap.getWidth(), pixmap.getHeight());
+    }
+
+
+    /**
+     * Traces a region of the pixmap, the resulting points are relative to the region's top left corner.
+     */
+    public float[] trace(Pixmap pixmap, int x, int y, int width, int height) {
+        final byte[] alpha = readAlpha(pixmap, x, y, width, height);
+        return traceAlpha(alpha, 0, width, width, height);
+    }
+
+
+    /**
+     * Same as {@link #trace(Pixmap)} but first looks for a cached result inside the cache directory,
+     * if there isn't one the result gets traced and written into that directory.
+     */
+    public float[] trace(Pixmap pixmap, FileHandle cacheDir) {
+        final int width = pixmap.getWidth(), height = pixmap.getHeight();
+        final byte[] alpha = readAlpha(pixmap, 0, 0, width, height);
+        return traceCached(alpha, 0, width, width, height, cacheDir, hash(alpha, 0, width, width, height));
+    }
+
+
+    /**
+     * Traces every frame of a sprite sheet (frames are ordered row by row) in parallel. With a cache directory,
+     * frames with the same alpha values are traced only once and share the same outline array.
+     * @param sheet the sprite sheet, only its pixels are read and only on the calling thread
+     * @param frameWidth width of a single frame
+     * @param frameHeight height of a single frame
+     * @param cacheDir the directory for cached results, can be null
+     * @return the outline of every frame, null for the empty frames
+     */
+    public float[][] traceSheet(Pixmap sheet, int frameWidth, int frameHeight, FileHandle cacheDir) {
+        final int sheetWidth = sheet.getWidth(), sheetHeight = sheet.getHeight();
+        final int cols = sheetWidth / frameWidth, rows = sheetHeight / frameHeight;
+        final byte[] alpha = readAlpha(sheet, 0, 0, sheetWidth, sheetHeight);
+        final float[][] results = new float[cols * rows][];
+
+        if(cacheDir == null) {
+            IntStream.range(0, results.length).parallel().forEach(frame -> results[frame] =
+                traceAlpha(alpha, frameOffset(frame, cols, sheetWidth, frameWidth, frameHeight), sheetWidth, frameWidth, frameHeight));
+            return results;
+        }
+
+        // Only the first frame of each hash is traced, so no two threads ever write the same cache file
+        final String[] hashes = new String[results.length];
+        IntStream.range(0, results.length).parallel().forEach(frame -> hashes[frame] =
+            hash(alpha, frameOffset(frame, cols, sheetWidth, frameWidth, frameHeight), sheetWidth, frameWidth, frameHeight));
+
+        final HashMap<String, Integer> firstFrames = new HashMap<>();
+        final IntArray distinctFrames = new IntArray();
+        for (int frame = 0; frame < hashes.length; frame++) {
+            if(firstFrames.putIfAbsent(hashes[frame], frame) == null) distinctFrames.add(frame);
+        }
+
+        IntStream.range(0, distinctFrames.size).parallel().forEach(i -> {
+            final int frame = distinctFrames.get(i);
+            results[frame] = traceCached(alpha, frameOffset(frame, cols, sheetWidth, frameWidth, frameHeight),
+                sheetWidth, frameWidth, frameHeight, cacheDir, hashes[frame]);
+        });
+        for (int frame = 0; frame < results.length; frame++)
+            results[frame] = results[firstFrames.get(hashes[frame])];
+
+        return results;
+    }
+
+
+    private static int frameOffset(int frame, int cols, int sheetWidth, int frameWidth, int frameHeight) {
+        return (frame / cols) * frameHeight * sheetWidth + (frame % cols) * frameWidth;
+    }
+
+
+    public float[][] traceSheet(Pixmap sheet, int frameWidth, int frameHeight) {
+        return traceSheet(sheet, frameWidth, frameHeight, null);
+    }
+
+
+    /*//////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  MARCHING SQUARES  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * @param alpha alpha values of an image (or a bigger image that contains this one)
+     * @param offset index of the top left pixel inside the alpha array
+     * @param stride width of the image that the alpha array belongs to
+     * @return the simplified outline or null if there are no solid pixels
+     */
+    private float[] traceAlpha(byte[] alpha, int offset, int stride, int width, int height) {
+        int startX = -1, startY = -1;
+        search:
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if(isSolid(alpha, offset, stride, width, height, x, y)) {
+                    startX = x;
+                    startY = y;
+                    break search;
+                }
+            }
+        }
+        if(startX == -1) return null;
+
+        // Walk on the corners of the pixels, only the corners where the direction changes are saved
+        final FloatArray corners = new FloatArray(64);
+        int x = startX, y = startY;
+        int prevDir = NONE;
+        do {
+            int state = 0;
+            if(isSolid(alpha, offset, stride, width, height, x - 1, y - 1)) state |= 1;
+            if(isSolid(alpha, offset, stride, width, height, x, y - 1)) state |= 2;
+            if(isSolid(alpha, offset, stride, width, height, x - 1, y)) state |= 4;
+            if(isSolid(alpha, offset, stride, width, height, x, y)) state |= 8;
+
+            final int dir;
+            switch (state) {
+                case 1: case 5: case 13: dir = UP; break;
+                case 2: case 3: case 7: dir = RIGHT; break;
+                case 4: case 12: case 14: dir = LEFT; break;
+                case 8: case 10: case 11: dir = DOWN; break;
+                case 6: dir = (prevDir == UP) ? LEFT : RIGHT; break;
+                case 9: dir = (prevDir == RIGHT) ? UP : DOWN; break;
+                default: throw new TempestException.UnreachableException("state: " + state);
+            }
+
+            if(dir != prevDir) corners.add(x, y);
+
+            switch (dir) {
+                case UP: y--; break;
+                case DOWN: y++; break;
+                case LEFT: x--; break;
+                default: x++; break;
+            }
+            prevDir = dir;
+        } while (x != startX || y != startY);
+
+        return simplify(corners.toArray(), tolerance);
+    }
+
+
+    private boolean isSolid(byte[] alpha, int offset, int stride, int width, int height, int x, int y) {
+        if(x < 0 || y < 0 || x >= width || y >= height) return false;
+        return (alpha[offset + y * stride + x] & 0xff) > alphaThreshold;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  DOUGLAS-PEUCKER  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * Simplifies a closed polygon with the Douglas-Peucker algorithm. The polygon is split at its first
+     * point and the point that is the farthest away from it, then both halves are simplified.
+     * @return the simplified polygon, or the given one if simplifying it would leave less than 3 points
+     */
+    static float[] simplify(float[] polygon, float tolerance) {
+        final int n = polygon.length / 2;
+        if(n <= 3 || tolerance <= 0f) return polygon;
+
+        int farthest = 0;
+        float farthestDist = -1f;
+        for (int i = 1; i < n; i++) {
+            final float dx = polygon[i * 2] - polygon[0], dy = polygon[i * 2 + 1] - polygon[1];
+            final float dist = dx * dx + dy * dy;
+            if(dist > farthestDist) {
+                farthestDist = dist;
+                farthest = i;
+            }
+        }
+
+        final boolean[] keep = new boolean[n + 1]; // index n is the first point again
+        keep[0] = keep[farthest] = keep[n] = true;
+        final IntArray stack = new IntArray();
+        stack.add(0, farthest);
+        stack.add(farthest, n);
+
+        while (stack.size > 0) {
+            final int end = stack.pop(), start = stack.pop();
+            final float ax = px(polygon, start, n), ay = py(polygon, start, n);
+            final float bx = px(polygon, end, n), by = py(polygon, end, n);
+
+            int maxIndex = -1;
+            float maxDist = tolerance;
+            for (int i = start + 1; i < end; i++) {
+                final float dist = distanceToSegment(px(polygon, i, n), py(polygon, i, n), ax, ay, bx, by);
+                if(dist > maxDist) {
+                    maxDist = dist;
+                    maxIndex = i;
+                }
+            }
+
+            if(maxIndex != -1) {
+                keep[maxIndex] = true;
+                stack.add(start, maxIndex);
+                stack.add(maxIndex, end);
+            }
+        }
+
+        final FloatArray result = new FloatArray(n);
+        for (int i = 0; i < n; i++) {
+            if(keep[i]) result.add(polygon[i * 2], polygon[i * 2 + 1]);
+        }
+
+        return (result.size < 6) ? polygon : result.toArray();
+    }
+
+
+    private static float px(float[] polygon, int index, int n) { return polygon[(index % n) * 2]; }
+    private static float py(float[] polygon, int index, int n) { return polygon[(index % n) * 2 + 1]; }
+
+
+    private static float distanceToSegment(float x, float y, float ax, float ay, float bx, float by) {
+        final float dx = bx - ax, dy = by - ay;
+        final float lenSq = dx * dx + dy * dy;
+        float t = (lenSq == 0f) ? 0f : ((x - ax) * dx + (y - ay) * dy) / lenSq;
+        t = Math.max(0f, Math.min(1f, t));
+        final float cx = ax + t * dx - x, cy = ay + t * dy - y;
+        return (float) Math.sqrt(cx * cx + cy * cy);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CACHING  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    private float[] traceCached(byte[] alpha, int offset, int stride, int width, int height,
+                                FileHandle cacheDir, String hash)
+    {
+        final FileHandle cacheFile = cacheDir.child(hash + CACHE_EXTENSION);
+        if(cacheFile.exists()) {
+            try {
+                return readCache(cacheFile);
+            }
+            catch (IOException e) {
+                // a broken cache file is traced and written again
+            }
+        }
+
+        final float[] outline = traceAlpha(alpha, offset, stride, width, height);
+        writeCache(cacheDir, cacheFile, outline);
+        return outline;
+    }
+
+
+    /** @return hex string of the SHA-1 of the image size, tracing parameters and the alpha values */
+    private String hash(byte[] alpha, int offset, int stride, int width, int height) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            final ByteBuffer header = ByteBuffer.allocate(16);
+            header.putInt(width).putInt(height).putInt(alphaThreshold).putFloat(tolerance);
+            digest.update(header.array());
+            for (int y = 0; y < height; y++)
+                digest.update(alpha, offset + y * stride, width);
+
+            final StringBuilder sb = new StringBuilder(40);
+            for(byte b : digest.digest())
+                sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            return sb.toString();
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new GdxRuntimeException(e);
+        }
+    }
+
+
+    private static float[] readCache(FileHandle cacheFile) throws IOException {
+        try (DataInputStream in = new DataInputStream(cacheFile.read(512))) {
+            final int length = in.readInt();
+            if(length < 0) return null; // empty image
+            if(length * 4L != cacheFile.length() - 4) throw new EOFException("Truncated cache file");
+            final float[] outline = new float[length];
+            for (int i = 0; i < length; i++) outline[i] = in.readFloat();
+            return outline;
+        }
+        catch (GdxRuntimeException e) { // the file was deleted or can't be opened
+            throw new IOException(e);
+        }
+    }
+
+
+    /** Writes into a temporary file first and then moves it into place, so no one can read a half written file. */
+    private static void writeCache(FileHandle cacheDir, FileHandle cacheFile, float[] outline) {
+        File tempFile = null;
+        try {
+            cacheDir.mkdirs();
+            tempFile = File.createTempFile(cacheFile.nameWithoutExtension(), ".tmp", cacheDir.file());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 512))) {
+                out.writeInt(outline == null ? -1 : outline.length);
+                if(outline != null) {
+                    for(float value : outline) out.writeFloat(value);
+                }
+            }
+
+            try {
+                Files.move(tempFile.toPath(), cacheFile.file().toPath(),
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), cacheFile.file().toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException e) {
+            if(tempFile != null) tempFile.delete();
+            throw new GdxRuntimeException("Couldn't write the cached outline: " + cacheFile, e);
+        }
+    }
+
+
+    /*//////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  HELPER FUNCTIONS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////////*/
+
+
+    private static byte[] readAlpha(Pixmap pixmap, int x, int y, int width, int height) {
+        final byte[] alpha = new byte[width * height];
+
+        if(pixmap.getFormat() == Pixmap.Format.RGBA8888) {
+            // direct access, no native call per pixel
+            final ByteBuffer pixels = pixmap.getPixels();
+            final int pixmapWidth = pixmap.getWidth();
+            for (int j = 0; j < height; j++) {
+                for (int i = 0; i < width; i++)
+                    alpha[j * width + i] = pixels.get(((y + j) * pixmapWidth + (x + i)) * 4 + 3);
+            }
+        }
+        else {
+            for (int j = 0; j < height; j++) {
+                for (int i = 0; i < width; i++)
+                    alpha[j * width + i] = (byte) (pixmap.getPixel(x + i, y + j) & 0xff);
+            }
+        }
+
+        return alpha;
+    }
+
+
+}
@@ -0,0 +1,422 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.box2d;
+
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.twistral.tempest.TempestException;
+
+import java.util.Arrays;
+
+
+/**
+ * Runs the common steering behaviors (seek, arrive, separation and cohesion) on many bodies at once,
+ * without wrapping every body in a gdx-ai {@code Steerable}. Each {@link #step()} reads the position
+ * and velocity of every agent in one pass into flat float arrays, finds neighbours with a spatial hash
+ * that is rebuilt in O(n), computes all forces and then applies them in a second pass. Seek, arrive and
+ * cohesion follow gdx-ai's behaviors of the same names, separation pushes with a strength that falls
+ * off linearly with distance. <br><br>
+ *
+ * Positions and radii given to this class are in pixels, like the rest of {@link WorldFacade}, speeds
+ * and accelerations are in meters per second (squared) like Box2D's. Remove a body from the bridge
+ * before destroying it.
+ */
+public class SteeringBridge {
+
+    /** What an agent does with its target. */
+    public static final byte TARGET_NONE = 0, TARGET_SEEK = 1, TARGET_ARRIVE = 2;
+
+    private final WorldFacade wf;
+    private final float PPM;
+    private final ObjectIntMap<Body> indices;
+    private Body[] bodies;
+    private int size;
+
+    // agent data, every array is indexed the same way as bodies (meters)
+    private float[] posX, posY, velX, velY, forceX, forceY;
+    private float[] targetX, targetY, maxSpeed, maxAcceleration, mass;
+    private byte[] targetMode;
+
+    // behavior settings (meters)
+    private float separationRadius, separationWeight;
+    private float cohesionRadius, cohesionWeight;
+    private float arrivalTolerance, slowRadius, timeToTarget;
+    private float defaultMaxSpeed, defaultMaxAcceleration;
+
+    // spatial hash: cellHeads[hash] is the first agent of a cell, nextInCell links the rest
+    private int[] cellHeads, nextInCell;
+    private float cellSize;
+
+
+    /**
+     * @param maxSpeed default maximum speed of the agents in meters per second
+     * @param maxAcceleration default maximum acceleration of the agents in meters per second squared
+     */
+    public SteeringBridge(WorldFacade wf, float maxSpeed, float maxAcceleration) {
+        this.wf = wf;
+        this.PPM = wf.getPPM();
+        this.indices = new ObjectIntMap<>(64);
+        this.defaultMaxSpeed = maxSpeed;
+        this.defaultMaxAcceleration = maxAcceleration;
+        this.timeToTarget = 0.1f;
+        this.arrivalTolerance = 0.01f;
+        this.slowRadius = 1f;
+        allocate(64);
+    }
+
+
+    private void allocate(int capacity) {
+        bodies = bodies == null ? new Body[capacity] : Arrays.copyOf(bodies, capacity);
+        posX = grow(posX, capacity); posY = grow(posY, capacity);
+        velX = grow(velX, capacity); velY = grow(velY, capacity);
+        forceX = grow(forceX, capacity); forceY = grow(forceY, capacity);
+        targetX = grow(targetX, capacity); targetY = grow(targetY, capacity);
+        maxSpeed = grow(maxSpeed, capacity); maxAcceleration = grow(maxAcceleration, capacity);
+        mass = grow(mass, capacity);
+        targetMode = targetMode == null ? new byte[capacity] : Arrays.copyOf(targetMode, capacity);
+        nextInCell = new int[capacity];
+    }
+
+
+    private static float[] grow(float[] array, int capacity) {
+        return array == null ? new float[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  ADDING/REMOVING  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////////////*/
+
+
+    /** Starts steering the body, add it after all of its fixtures are created so its mass is known. */
+    public SteeringBridge add(Body body) {
+        if(indices.containsKey(body))
+            throw new TempestException("This body was already added to the steering bridge: %s", body);
+        if(size == bodies.length) allocate(size * 2);
+
+        final int i = size++;
+        bodies[i] = body;
+        indices.put(body, i);
+        mass[i] = body.getMass();
+        maxSpeed[i] = defaultMaxSpeed;
+        maxAcceleration[i] = defaultMaxAcceleration;
+        targetMode[i] = TARGET_NONE;
+        return this;
+    }
+
+
+    /** The last agent takes the place of the removed one, so removing is O(1). */
+    public SteeringBridge remove(Body body) {
+        final int i = indices.remove(body, -1);
+        if(i < 0)
+            throw new TempestException("This body was never added to the steering bridge: %s", body);
+
+        final int last = --size;
+        if(i != last) {
+            bodies[i] = bodies[last];
+            mass[i] = mass[last];
+            maxSpeed[i] = maxSpeed[last];
+            maxAcceleration[i] = maxAcceleration[last];
+            targetMode[i] = targetMode[last];
+            targetX[i] = targetX[last];
+            targetY[i] = targetY[last];
+            forceX[i] = forceX[last];
+            forceY[i] = forceY[last];
+            indices.put(bodies[i], i);
+        }
+        bodies[last] = null;
+        forceX[last] = forceY[last] = 0f; // the next added agent has no force until the next update
+        return this;
+    }
+
+
+    public void clear() {
+        Arrays.fill(bodies, 0, size, null);
+        indices.clear();
+        size = 0;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  TARGETS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /** The body will move towards the target at full acceleration and pass through it. */
+    public void seek(Body body, float xPixels, float yPixels) {
+        setTarget(body, TARGET_SEEK, xPixels, yPixels);
+    }
+
+
+    /** The body will slow down inside the slow radius and stop at the target. */
+    public void arrive(Body body, float xPixels, float yPixels) {
+        setTarget(body, TARGET_ARRIVE, xPixels, yPixels);
+    }
+
+
+    /** The body will only be affected by separation and cohesion. */
+    public void clearTarget(Body body) {
+        targetMode[indexOf(body)] = TARGET_NONE;
+    }
+
+
+    private void setTarget(Body body, byte mode, float xPixels, float yPixels) {
+        final int i = indexOf(body);
+        targetMode[i] = mode;
+        targetX[i] = xPixels / PPM;
+        targetY[i] = yPixels / PPM;
+    }
+
+
+    public void setLimits(Body body, float maxSpeed, float maxAcceleration) {
+        final int i = indexOf(body);
+        this.maxSpeed[i] = maxSpeed;
+        this.maxAcceleration[i] = maxAcceleration;
+    }
+
+
+    /** Call this if the fixtures of the body changed after it was added. */
+    public void refreshMass(Body body) {
+        mass[indexOf(body)] = body.getMass();
+    }
+
+
+    private int indexOf(Body body) {
+        final int i = indices.get(body, -1);
+        if(i < 0)
+            throw new TempestException("This body was never added to the steering bridge: %s", body);
+        return i;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /** Reads every agent, computes their steering forces and applies them, call this once per frame before world.step(). */
+    public void step() {
+        if(size == 0) return;
+        readBodies();
+        buildSpatialHash();
+        computeForces();
+        applyForces();
+    }
+
+
+    /** One pass over the bodies, the only JNI reads of a step. */
+    private void readBodies() {
+        for (int i = 0; i < size; i++) {
+            final Body body = bodies[i];
+            final Vector2 pos = body.getPosition(); // both getters reuse the body's own vectors
+            posX[i] = pos.x;
+            posY[i] = pos.y;
+            final Vector2 vel = body.getLinearVelocity();
+            velX[i] = vel.x;
+            velY[i] = vel.y;
+        }
+    }
+
+
+    private void buildSpatialHash() {
+        cellSize = Math.max(separationRadius, cohesionRadius);
+        if(cellSize <= 0f) return;
+
+        final int tableSize = Math.max(16, Integer.highestOneBit(size) * 4);
+        if(cellHeads == null || cellHeads.length != tableSize) cellHeads = new int[tableSize];
+        Arrays.fill(cellHeads, -1);
+
+        final int mask = tableSize - 1;
+        for (int i = 0; i < size; i++) {
+            final int h = hash(cellOf(posX[i]), cellOf(posY[i])) & mask;
+            nextInCell[i] = cellHeads[h];
+            cellHeads[h] = i;
+        }
+    }
+
+
+    private void computeForces() {
+        final boolean useNeighbours = cellSize > 0f && (separationWeight != 0f || cohesionWeight != 0f);
+        final float sepRadius2 = separationRadius * separationRadius;
+        final float cohRadius2 = cohesionRadius * cohesionRadius;
+        final int mask = useNeighbours ? cellHeads.length - 1 : 0;
+
+        for (int i = 0; i < size; i++) {
+            float fx = 0f, fy = 0f;
+            final float px = posX[i], py = posY[i];
+            final float maxAcc = maxAcceleration[i];
+
+            // seek / arrive
+            if(targetMode[i] != TARGET_NONE) {
+                final float toX = targetX[i] - px, toY = targetY[i] - py;
+                final float dist = (float) Math.sqrt(toX * toX + toY * toY);
+                if(targetMode[i] == TARGET_SEEK) {
+                    if(dist > 0f) {
+                        fx += toX / dist * maxAcc;
+                        fy += toY / dist * maxAcc;
+                    }
+                }
+                else if(dist > arrivalTolerance) {
+                    final float speed = dist > slowRadius ? maxSpeed[i] : maxSpeed[i] * dist / slowRadius;
+                    fx += ((toX / dist * speed) - velX[i]) / timeToTarget;
+                    fy += ((toY / dist * speed) - velY[i]) / timeToTarget;
+                }
+            }
+
+            // separation and cohesion from the 3x3 cells around the agent
+            if(useNeighbours) {
+                float sepX = 0f, sepY = 0f, centerX = 0f, centerY = 0f;
+                int cohesionCount = 0;
+                final int cx = cellOf(px), cy = cellOf(py);
+                for (int oy = -1; oy <= 1; oy++) {
+                    for (int ox = -1; ox <= 1; ox++) {
+                        // different cells may share a bucket, skip them if they were already visited
+                        final int h = hash(cx + ox, cy + oy) & mask;
+                        if(isBucketVisited(h, cx, cy, ox, oy, mask)) continue;
+
+                        for (int j = cellHeads[h]; j >= 0; j = nextInCell[j]) {
+                            if(j == i) continue;
+                            final float dx = px - posX[j], dy = py - posY[j];
+                            final float dist2 = dx * dx + dy * dy;
+                            if(dist2 < sepRadius2 && dist2 > 0f) {
+                                final float dist = (float) Math.sqrt(dist2);
+                                final float strength = maxAcc * (1f - dist / separationRadius);
+                                sepX += dx / dist * strength;
+                                sepY += dy / dist * strength;
+                            }
+                            if(dist2 < cohRadius2) {
+                                centerX += posX[j];
+                                centerY += posY[j];
+                                cohesionCount++;
+                            }
+                        }
+                    }
+                }
+
+                fx += sepX * separationWeight;
+                fy += sepY * separationWeight;
+                if(cohesionCount > 0) {
+                    final float toX = centerX / cohesionCount - px, toY = centerY / cohesionCount - py;
+                    final float len = (float) Math.sqrt(toX * toX + toY * toY);
+                    if(len > 0f) {
+                        fx += toX / len * maxAcc * cohesionWeight;
+                        fy += toY / len * maxAcc * cohesionWeight;
+                    }
+                }
+            }
+
+            // limit the total acceleration and turn it into a force
+            final float len2 = fx * fx + fy * fy;
+            if(len2 > maxAcc * maxAcc) {
+                final float scale = maxAcc / (float) Math.sqrt(len2);
+                fx *= scale;
+                fy *= scale;
+            }
+            forceX[i] = fx * mass[i];
+            forceY[i] = fy * mass[i];
+        }
+    }
+
+
+    /** @return true if one of the earlier cells of the 3x3 block hashed into the same bucket */
+    private boolean isBucketVisited(int h, int cx, int cy, int ox, int oy, int mask) {
+        for (int py = -1; py <= oy; py++) {
+            for (int px = -1; px <= 1; px++) {
+                if(py == oy && px == ox) return false;
+                if((hash(cx + px, cy + py) & mask) == h) return true;
+            }
+        }
+        return false;
+    }
+
+
+    /** One pass over the bodies, bodies without a force are left asleep. */
+    private void applyForces() {
+        for (int i = 0; i < size; i++) {
+            if(forceX[i] == 0f && forceY[i] == 0f) continue;
+            bodies[i].applyForceToCenter(forceX[i], forceY[i], true);
+        }
+    }
+
+
+    private int cellOf(float meters) {
+        return (int) Math.floor(meters / cellSize);
+    }
+
+
+    private static int hash(int cx, int cy) {
+        return (cx * 73856093) ^ (cy * 19349663);
+    }
+
+
+    /*//////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  SETTINGS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * @param radiusPixels agents closer than this push each other away, 0 disables separation
+     * @param weight how much separation counts compared to seeking/arriving
+     */
+    public SteeringBridge setSeparation(float radiusPixels, float weight) {
+        this.separationRadius = radiusPixels / PPM;
+        this.separationWeight = weight;
+        return this;
+    }
+
+
+    /**
+     * @param radiusPixels agents move towards the center of the agents closer than this, 0 disables cohesion
+     * @param weight how much cohesion counts compared to seeking/arriving
+     */
+    public SteeringBridge setCohesion(float radiusPixels, float weight) {
+        this.cohesionRadius = radiusPixels / PPM;
+        this.cohesionWeight = weight;
+        return this;
+    }
+
+
+    /**
+     * @param arrivalTolerancePixels agents closer than this to their target stop steering
+     * @param slowRadiusPixels agents start slowing down inside this radius
+     * @param timeToTarget how fast (in seconds) agents try to reach their desired speed
+     */
+    public SteeringBridge setArrive(float arrivalTolerancePixels, float slowRadiusPixels, float timeToTarget) {
+        this.arrivalTolerance = arrivalTolerancePixels / PPM;
+        this.slowRadius = slowRadiusPixels / PPM;
+        this.timeToTarget = timeToTarget;
+        return this;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public WorldFacade getWorldFacade() { return wf; }
+    public int getAgentCount() { return size; }
+    public boolean contains(Body body) { return indices.containsKey(body); }
+
+    /** @return the force (in newtons) that was applied to this body in the last step */
+    public Vector2 getLastForce(Body body, Vector2 out) {
+        final int i = indexOf(body);
+        return out.set(forceX[i], forceY[i]);
+    }
+
+
+}
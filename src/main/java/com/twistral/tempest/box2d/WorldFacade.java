@@ -25,6 +25,8 @@ import com.badlogic.gdx.maps.objects.RectangleMapObject;
 import com.badlogic.gdx.math.*;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.twistral.tempest.TempestException;
+import com.twistral.tempest.bakedmap.BakedMap;
 import com.twistral.tempest.box2d.Box2DUtils.*;
 
 
@@ -167,6 +169,64 @@ public class WorldFacade {
     }
 
 
+    /**
+     * Adds every shape of a baked object layer to the world, just like {@link #parseTiledObjectLayer(MapObjects)}
+     * (the same userData strings are used) but without going through any {@link MapObject}s. Shapes are scaled
+     * if the layer was baked with a different PPM than this facade's.
+     * @param layer an object layer of a {@link BakedMap}
+     */
+    public void parseBakedObjectLayer(BakedMap.BakedObjectLayer layer) {
+        final float scale = layer.getPPM() / PPM;
+        float[] floats = new float[16];
+
+        for (int i = 0; i < layer.getShapeCount(); i++) {
+            final int floatCount = layer.getFloatCount(i);
+            if(floats.length < floatCount) floats = new float[floatCount];
+            layer.getFloats(i, floats);
+            for (int j = 0; j < floatCount; j++) floats[j] *= scale;
+
+            BodyDef bDef = new BodyDef();
+            bDef.type = BodyDef.BodyType.StaticBody;
+            Shape shape;
+            String userDataString;
+
+            switch (layer.getShapeType(i)) {
+                case BakedMap.SHAPE_CHAIN: {
+                    userDataString = POLY_UDATA_STR;
+                    ChainShape cs = new ChainShape();
+                    cs.createChain(floats, 0, floatCount);
+                    shape = cs;
+                    break;
+                }
+                case BakedMap.SHAPE_BOX: {
+                    userDataString = RECT_UDATA_STR;
+                    PolygonShape polygonShape = new PolygonShape();
+                    polygonShape.setAsBox(floats[2], floats[3]);
+                    bDef.position.set(floats[0], floats[1]);
+                    shape = polygonShape;
+                    break;
+                }
+                case BakedMap.SHAPE_CIRCLE: {
+                    userDataString = ELLP_UDATA_STR;
+                    CircleShape circleShape = new CircleShape();
+                    circleShape.setRadius(floats[2]);
+                    bDef.position.set(floats[0], floats[1]);
+                    shape = circleShape;
+                    break;
+                }
+                default:
+                    throw new TempestException("Unknown baked shape type: %d", layer.getShapeType(i));
+            }
+
+            Body body = world.createBody(bDef);
+            body.createFixture(shape, 1.0f);
+            body.setUserData(userDataString);
+
+            shape.dispose();
+        }
+    }
+
+
     /*///////////////////////////////////////////////////////////////////////////////*/
     /*///////////////////////////  BODY CREATION METHODS  ///////////////////////////*/
     /*///////////////////////////////////////////////////////////////////////////////*/
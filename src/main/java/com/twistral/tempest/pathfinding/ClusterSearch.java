@@ -0,0 +1,170 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.pathfinding;
+
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+
+/**
+ * Dijkstra and A* searches on a rectangle of a {@link TiledGridGraph}, using the same moves and costs
+ * as the graph. Its arrays are sized for the rectangle and reset lazily, so searches don't allocate.
+ */
+final class ClusterSearch {
+
+    private static final float SQRT2 = 1.4142135f;
+    private static final int[] DX = { 1, -1, 0, 0, 1, -1, 1, -1 };
+    private static final int[] DY = { 0, 0, 1, -1, 1, 1, -1, -1 };
+
+    private final TiledGridGraph graph;
+    private final IntMinHeap heap;
+    private float[] dist;
+    private int[] parent, stamps;
+    private int currentStamp;
+
+    private int rectX, rectY, rectW, rectH;
+
+
+    ClusterSearch(TiledGridGraph graph, int maxRectArea) {
+        this.graph = graph;
+        this.heap = new IntMinHeap(64);
+        ensureCapacity(maxRectArea);
+    }
+
+
+    private void ensureCapacity(int area) {
+        if(dist != null && dist.length >= area) return;
+        dist = new float[area];
+        parent = new int[area];
+        stamps = new int[area];
+        currentStamp = 0;
+    }
+
+
+    /**
+     * Searches the rectangle starting from the source cell.
+     * @param targetCell the search stops when this cell is reached, -1 to reach every cell of the rectangle
+     * @param reverse if true, distances are from the cells to the source instead of from the source to the cells
+     */
+    void run(int x, int y, int w, int h, int sourceCell, int targetCell, boolean reverse) {
+        ensureCapacity(w * h);
+        if(++currentStamp == 0) { // stamps overflowed, forget all of them
+            Arrays.fill(stamps, 0);
+            currentStamp = 1;
+        }
+        this.rectX = x; this.rectY = y; this.rectW = w; this.rectH = h;
+
+        final int gridW = graph.getWidth();
+        final int dirCount = graph.isDiagonalAllowed() ? 8 : 4;
+        final int targetX = targetCell % gridW, targetY = targetCell / gridW;
+        final boolean useHeuristic = targetCell >= 0 && !reverse;
+
+        heap.clear();
+        final int sourceLocal = toLocal(sourceCell);
+        if(sourceLocal < 0) return;
+        visit(sourceLocal, 0f, -1);
+        heap.add(sourceLocal, 0f);
+
+        while (!heap.isEmpty()) {
+            final float key = heap.peekKey();
+            final int local = heap.pop();
+            final float d = dist[local];
+            if(useHeuristic ? key > d + heuristic(local, targetX, targetY) : key > d) continue; // stale entry
+
+            final int cx = rectX + local % rectW, cy = rectY + local / rectW;
+            if(cy * gridW + cx == targetCell) return;
+
+            for (int dir = 0; dir < dirCount; dir++) {
+                final int nx = cx + DX[dir], ny = cy + DY[dir];
+                if(nx < rectX || ny < rectY || nx >= rectX + rectW || ny >= rectY + rectH) continue;
+                if(!graph.isWalkable(nx, ny)) continue;
+
+                float step = 1f;
+                if(dir >= 4) {
+                    if(!graph.isWalkable(cx + DX[dir], cy) || !graph.isWalkable(cx, cy + DY[dir])) continue;
+                    step = SQRT2;
+                }
+
+                // moving forwards enters the neighbour, moving backwards enters the current cell
+                final float nd = d + step * (reverse ? graph.getCost(cx, cy) : graph.getCost(nx, ny));
+                final int nLocal = (ny - rectY) * rectW + (nx - rectX);
+                if(stamps[nLocal] == currentStamp && dist[nLocal] <= nd) continue;
+
+                visit(nLocal, nd, local);
+                heap.add(nLocal, useHeuristic ? nd + heuristic(nLocal, targetX, targetY) : nd);
+            }
+        }
+    }
+
+
+    private void visit(int local, float d, int parentLocal) {
+        stamps[local] = currentStamp;
+        dist[local] = d;
+        parent[local] = parentLocal;
+    }
+
+
+    private float heuristic(int local, int targetX, int targetY) {
+        final int dx = Math.abs(rectX + local % rectW - targetX), dy = Math.abs(rectY + local / rectW - targetY);
+        return graph.isDiagonalAllowed() ? Math.max(dx, dy) + 0.41421356f * Math.min(dx, dy) : dx + dy;
+    }
+
+
+    private int toLocal(int cell) {
+        final int gridW = graph.getWidth();
+        final int x = cell % gridW - rectX, y = cell / gridW - rectY;
+        if(x < 0 || y < 0 || x >= rectW || y >= rectH) return -1;
+        return y * rectW + x;
+    }
+
+
+    /** @return distance of the cell found by the last search, infinity if it wasn't reached */
+    float getDistance(int cell) {
+        final int local = toLocal(cell);
+        if(local < 0 || stamps[local] != currentStamp) return Float.POSITIVE_INFINITY;
+        return dist[local];
+    }
+
+
+    /**
+     * Appends the cells from the source (excluding it) to the target (including it) of the last
+     * forward search.
+     * @return false if the target wasn't reached
+     */
+    boolean appendPath(int targetCell, IntArray out) {
+        int local = toLocal(targetCell);
+        if(local < 0 || stamps[local] != currentStamp) return false;
+
+        final int start = out.size;
+        final int gridW = graph.getWidth();
+        while (parent[local] >= 0) {
+            out.add((rectY + local / rectW) * gridW + rectX + local % rectW);
+            local = parent[local];
+        }
+
+        final int[] items = out.items; // the parent chain goes backwards, reverse the appended part
+        for (int i = start, j = out.size - 1; i < j; i++, j--) {
+            final int tmp = items[i];
+            items[i] = items[j];
+            items[j] = tmp;
+        }
+        return true;
+    }
+
+
+}
@@ -0,0 +1,310 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.pathfinding;
+
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.utils.IntArray;
+import com.twistral.tempest.TempestException;
+import com.twistral.tempest.box2d.WorldFacade;
+
+import java.util.Arrays;
+
+
+/**
+ * A flow field towards one goal cell of a {@link TiledGridGraph}, for crowds that share a destination.
+ * The integration field (the cost of the cheapest path from each cell to the goal) is computed once with
+ * Dijkstra, and every cell stores the direction of its next step, so agents only do an array lookup
+ * per frame instead of a search. Both fields are primitive arrays with one element per cell. <br><br>
+ *
+ * When some cells change, {@link #update(IntArray)} only repairs the cells whose paths went through them
+ * and the cells that may now have a cheaper path. Use {@link FlowFieldCache} to keep fields for
+ * several goals.
+ */
+public class FlowField {
+
+    /** Direction of cells that can't reach the goal and of the goal itself. */
+    public static final byte NO_DIRECTION = -1;
+
+    private static final float SQRT2 = 1.4142135f;
+    private static final int[] DX = { 1, -1, 0, 0, 1, -1, 1, -1 };
+    private static final int[] DY = { 0, 0, 1, -1, 1, 1, -1, -1 };
+    private static final float[] UNIT_X = { 1f, -1f, 0f, 0f, 0.70710678f, -0.70710678f, 0.70710678f, -0.70710678f };
+    private static final float[] UNIT_Y = { 0f, 0f, 1f, -1f, 0.70710678f, 0.70710678f, -0.70710678f, -0.70710678f };
+
+    private final TiledGridGraph graph;
+    private final float[] integration;
+    private final byte[] directions;
+    private final IntMinHeap heap;
+    private final IntArray invalidated;
+    private int goalX, goalY, goalCell;
+    private int builtVersion;
+
+
+    public FlowField(TiledGridGraph graph, int goalX, int goalY) {
+        this.graph = graph;
+        this.integration = new float[graph.getWidth() * graph.getHeight()];
+        this.directions = new byte[integration.length];
+        this.heap = new IntMinHeap(256);
+        this.invalidated = new IntArray();
+        setGoal(goalX, goalY);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /** Changes the goal and rebuilds the whole field, reusing its arrays. */
+    public void setGoal(int goalX, int goalY) {
+        if(goalX < 0 || goalY < 0 || goalX >= graph.getWidth() || goalY >= graph.getHeight())
+            throw new TempestException("Goal (%d, %d) is outside of the grid", goalX, goalY);
+
+        this.goalX = goalX;
+        this.goalY = goalY;
+        this.goalCell = goalY * graph.getWidth() + goalX;
+        rebuild();
+    }
+
+
+    public void rebuild() {
+        Arrays.fill(integration, Float.POSITIVE_INFINITY);
+        Arrays.fill(directions, NO_DIRECTION);
+        heap.clear();
+        if(graph.isWalkable(goalX, goalY)) {
+            integration[goalCell] = 0f;
+            heap.add(goalCell, 0f);
+        }
+        propagate();
+        builtVersion = graph.getVersion();
+    }
+
+
+    /**
+     * Repairs the field after the costs of these cells changed (walls added or removed, costs raised or
+     * lowered). Cells whose path went through a changed cell are recomputed from their neighbours, and
+     * cheaper paths that a changed cell opened are spread from there.
+     * @param changedCells packed indices (y * gridWidth + x) of the cells
+     */
+    public void update(IntArray changedCells) {
+        final int gridW = graph.getWidth();
+        invalidated.clear();
+
+        // forget every cell whose path used a changed cell, as its target or as a corner it cut
+        for (int i = 0; i < changedCells.size; i++) {
+            final int cell = changedCells.items[i];
+            final int cx = cell % gridW, cy = cell / gridW;
+            invalidateSubtree(cell);
+
+            for (int dir = 4; dir < 8; dir++) {
+                for (int corner = 0; corner < 2; corner++) {
+                    // the cell that cuts this corner while moving diagonally in dir
+                    final int ux = corner == 0 ? cx - DX[dir] : cx;
+                    final int uy = corner == 0 ? cy : cy - DY[dir];
+                    if(ux < 0 || uy < 0 || ux >= gridW || uy >= graph.getHeight()) continue;
+                    if(directions[uy * gridW + ux] == dir) invalidateSubtree(uy * gridW + ux);
+                }
+            }
+        }
+
+        // recompute the forgotten cells and the neighbourhoods of the changed cells from their neighbours
+        heap.clear();
+        for (int i = 0; i < invalidated.size; i++)
+            relaxFromNeighbours(invalidated.items[i]);
+
+        for (int i = 0; i < changedCells.size; i++) {
+            final int cell = changedCells.items[i];
+            final int cx = cell % gridW, cy = cell / gridW;
+            relaxFromNeighbours(cell);
+            for (int dir = 0; dir < 8; dir++) {
+                final int nx = cx + DX[dir], ny = cy + DY[dir];
+                if(nx >= 0 && ny >= 0 && nx < gridW && ny < graph.getHeight())
+                    relaxFromNeighbours(ny * gridW + nx);
+            }
+        }
+
+        propagate();
+        builtVersion = graph.getVersion();
+    }
+
+
+    private void invalidateSubtree(int root) {
+        if(integration[root] == Float.POSITIVE_INFINITY) return;
+
+        final int gridW = graph.getWidth(), gridH = graph.getHeight();
+        final int start = invalidated.size;
+        integration[root] = Float.POSITIVE_INFINITY;
+        directions[root] = NO_DIRECTION;
+        invalidated.add(root);
+
+        // the invalidated list doubles as the stack, children point at their parent with their direction
+        for (int i = start; i < invalidated.size; i++) {
+            final int cell = invalidated.items[i];
+            final int cx = cell % gridW, cy = cell / gridW;
+            for (int dir = 0; dir < 8; dir++) {
+                final int childX = cx - DX[dir], childY = cy - DY[dir];
+                if(childX < 0 || childY < 0 || childX >= gridW || childY >= gridH) continue;
+
+                final int child = childY * gridW + childX;
+                if(directions[child] != dir) continue;
+                integration[child] = Float.POSITIVE_INFINITY;
+                directions[child] = NO_DIRECTION;
+                invalidated.add(child);
+            }
+        }
+    }
+
+
+    private void relaxFromNeighbours(int cell) {
+        final int gridW = graph.getWidth();
+        final int x = cell % gridW, y = cell / gridW;
+        if(!graph.isWalkable(x, y)) {
+            integration[cell] = Float.POSITIVE_INFINITY;
+            directions[cell] = NO_DIRECTION;
+            return;
+        }
+        if(cell == goalCell) {
+            if(integration[cell] != 0f) {
+                integration[cell] = 0f;
+                directions[cell] = NO_DIRECTION;
+                heap.add(cell, 0f);
+            }
+            return;
+        }
+
+        float best = integration[cell];
+        int bestDir = -1;
+        for (int dir = 0; dir < dirCount(); dir++) {
+            if(!canMove(x, y, dir)) continue;
+            final int nx = x + DX[dir], ny = y + DY[dir];
+            final float candidate = integration[ny * gridW + nx] + moveCost(nx, ny, dir);
+            if(candidate < best) {
+                best = candidate;
+                bestDir = dir;
+            }
+        }
+
+        if(bestDir >= 0) {
+            integration[cell] = best;
+            directions[cell] = (byte) bestDir;
+            heap.add(cell, best);
+        }
+    }
+
+
+    /** Dijkstra backwards from the cells in the heap: a cell's predecessors are the cells that can step into it. */
+    private void propagate() {
+        final int gridW = graph.getWidth();
+        final int dirCount = dirCount();
+
+        while (!heap.isEmpty()) {
+            final float key = heap.peekKey();
+            final int cell = heap.pop();
+            if(key > integration[cell]) continue; // stale entry
+
+            final int x = cell % gridW, y = cell / gridW;
+            final float enterCost = graph.getCost(x, y);
+            for (int dir = 0; dir < dirCount; dir++) {
+                final int px = x - DX[dir], py = y - DY[dir];
+                if(!graph.isWalkable(px, py) || !canMove(px, py, dir)) continue;
+
+                final float nd = integration[cell] + (dir < 4 ? enterCost : SQRT2 * enterCost);
+                final int pred = py * gridW + px;
+                if(nd < integration[pred]) {
+                    integration[pred] = nd;
+                    directions[pred] = (byte) dir;
+                    heap.add(pred, nd);
+                }
+            }
+        }
+    }
+
+
+    private boolean canMove(int x, int y, int dir) {
+        final int nx = x + DX[dir], ny = y + DY[dir];
+        if(!graph.isWalkable(nx, ny)) return false;
+        return dir < 4 || (graph.isWalkable(nx, y) && graph.isWalkable(x, ny)); // no corner cutting
+    }
+
+
+    private float moveCost(int nx, int ny, int dir) {
+        return (dir < 4 ? 1f : SQRT2) * graph.getCost(nx, ny);
+    }
+
+
+    private int dirCount() {
+        return graph.isDiagonalAllowed() ? 8 : 4;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  LOOKUPS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /** @return index of the direction of this cell's next step (use with {@link #getStepX(int)}), or {@link #NO_DIRECTION} */
+    public int getDirection(int x, int y) {
+        if(x < 0 || y < 0 || x >= graph.getWidth() || y >= graph.getHeight()) return NO_DIRECTION;
+        return directions[y * graph.getWidth() + x];
+    }
+
+
+    /** @return cost of the cheapest path from this cell to the goal, infinity if the goal can't be reached */
+    public float getDistance(int x, int y) {
+        if(x < 0 || y < 0 || x >= graph.getWidth() || y >= graph.getHeight()) return Float.POSITIVE_INFINITY;
+        return integration[y * graph.getWidth() + x];
+    }
+
+
+    /**
+     * Sets the vector to the unit direction of the next step from this position (in pixels).
+     * @return the given vector, set to zero at the goal and where the goal can't be reached
+     */
+    public Vector2 getDirection(float xPixels, float yPixels, Vector2 out) {
+        final int dir = getDirection(graph.toCellX(xPixels), graph.toCellY(yPixels));
+        return dir == NO_DIRECTION ? out.setZero() : out.set(UNIT_X[dir], UNIT_Y[dir]);
+    }
+
+
+    /** Same as {@link #getDirection(float, float, Vector2)} for a body of the given world facade. */
+    public Vector2 getDirection(Body body, WorldFacade worldFacade, Vector2 out) {
+        final Vector2 position = body.getPosition();
+        final float PPM = worldFacade.getPPM();
+        return getDirection(position.x * PPM, position.y * PPM, out);
+    }
+
+
+    public static int getStepX(int direction) { return DX[direction]; }
+    public static int getStepY(int direction) { return DY[direction]; }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public TiledGridGraph getGraph() { return graph; }
+    public int getGoalX() { return goalX; }
+    public int getGoalY() { return goalY; }
+    int getGoalCell() { return goalCell; }
+    int getBuiltVersion() { return builtVersion; }
+
+    /** @return false if the costs of the graph changed since this field was last built or updated */
+    public boolean isUpToDate() { return builtVersion == graph.getVersion(); }
+
+
+}
@@ -0,0 +1,154 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.pathfinding;
+
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.twistral.tempest.TempestException;
+
+
+/**
+ * Keeps the {@link FlowField}s of the most recently used goals. When a new goal is needed and the cache
+ * is full, the arrays of the least recently used field are reused for it. The capacity is meant to be
+ * small (a field costs about 5 bytes per cell), so fields are found with a linear search. <br><br>
+ *
+ * Change costs through {@link #setCost(int, int, float)} (or call {@link #markChanged(int, int)} right after
+ * each change) so that cached fields are repaired incrementally instead of rebuilt. Any change of the graph
+ * that the cache wasn't told about makes every field rebuild instead.
+ */
+public class FlowFieldCache {
+
+    private final TiledGridGraph graph;
+    private final int capacity;
+    private final Array<FlowField> fields; // the most recently used field is first
+    private final IntArray changedCells;
+    private int batchVersion;   // version of the graph before the changed cells
+    private int knownVersion;   // version of the graph after the last change the cache was told about
+    private boolean untrackedChanges;
+    private int builtCount;
+
+
+    public FlowFieldCache(TiledGridGraph graph, int capacity) {
+        if(capacity <= 0)
+            throw new TempestException("Capacity must be positive, it was %d", capacity);
+
+        this.graph = graph;
+        this.capacity = capacity;
+        this.fields = new Array<>(true, capacity, FlowField.class);
+        this.changedCells = new IntArray();
+        this.batchVersion = this.knownVersion = graph.getVersion();
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /** @return an up to date flow field towards this goal */
+    public FlowField get(int goalX, int goalY) {
+        applyChanges();
+
+        final int goalCell = goalY * graph.getWidth() + goalX;
+        for (int i = 0; i < fields.size; i++) {
+            final FlowField field = fields.items[i];
+            if(field.getGoalCell() != goalCell || field.getGoalX() != goalX) continue;
+
+            if(i > 0) {
+                fields.removeIndex(i);
+                fields.insert(0, field);
+            }
+            if(!field.isUpToDate()) field.rebuild();
+            return field;
+        }
+
+        builtCount++;
+        FlowField field;
+        if(fields.size < capacity) field = new FlowField(graph, goalX, goalY);
+        else {
+            field = fields.pop();
+            field.setGoal(goalX, goalY);
+        }
+        fields.insert(0, field);
+        return field;
+    }
+
+
+    /** Same as {@link #get(int, int)} but the goal is in pixels. */
+    public FlowField getPixels(float goalX, float goalY) {
+        return get(graph.toCellX(goalX), graph.toCellY(goalY));
+    }
+
+
+    /** Sets the cost of a cell in the graph and remembers it so that cached fields can be repaired. */
+    public void setCost(int x, int y, float cost) {
+        graph.setCost(x, y, cost);
+        markChanged(x, y);
+    }
+
+
+    /**
+     * Call this right after you changed the cost of this cell through the graph itself. If the graph
+     * changed more than once since the last change the cache knows of, every field is rebuilt instead.
+     */
+    public void markChanged(int x, int y) {
+        final int version = graph.getVersion();
+        if(version != knownVersion + 1) untrackedChanges = true;
+        else changedCells.add(y * graph.getWidth() + x);
+        knownVersion = version;
+    }
+
+
+    private void applyChanges() {
+        // if the graph changed in ways we weren't told about, get() rebuilds the fields instead
+        if(!untrackedChanges && changedCells.size > 0 && knownVersion == graph.getVersion()) {
+            for (int i = 0; i < fields.size; i++) {
+                // only the fields that were up to date before these changes can be repaired with them
+                if(fields.items[i].getBuiltVersion() == batchVersion)
+                    fields.items[i].update(changedCells);
+            }
+        }
+        resetChanges();
+    }
+
+
+    private void resetChanges() {
+        changedCells.clear();
+        untrackedChanges = false;
+        batchVersion = knownVersion = graph.getVersion();
+    }
+
+
+    public void clear() {
+        fields.clear();
+        resetChanges();
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public TiledGridGraph getGraph() { return graph; }
+    public int getCapacity() { return capacity; }
+    public int getSize() { return fields.size; }
+
+    /** @return how many fields were built because their goal wasn't in the cache */
+    public int getBuiltCount() { return builtCount; }
+
+
+}
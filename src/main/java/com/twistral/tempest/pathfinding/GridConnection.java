@@ -0,0 +1,34 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.pathfinding;
+
+
+import com.badlogic.gdx.ai.pfa.Connection;
+
+
+/** Mutable so that nodes can reuse their connections when the costs of the grid change. */
+final class GridConnection implements Connection<GridNode> {
+
+    GridNode fromNode, toNode;
+    float cost;
+
+
+    @Override public float getCost() { return cost; }
+    @Override public GridNode getFromNode() { return fromNode; }
+    @Override public GridNode getToNode() { return toNode; }
+
+
+}
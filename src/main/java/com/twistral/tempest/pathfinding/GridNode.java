@@ -0,0 +1,52 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.pathfinding;
+
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.utils.Array;
+
+
+/**
+ * A node of a {@link TiledGridGraph}, which is just a cell of the grid. Nodes only hold their
+ * coordinates, the costs of the grid live in the graph's primitive arrays.
+ */
+public final class GridNode {
+
+    /** y * gridWidth + x */
+    public final int index;
+    public final int x, y;
+
+    /** Connections of this node, rebuilt by the graph when its costs change. */
+    final GridConnection[] connectionPool = new GridConnection[8];
+    final Array<Connection<GridNode>> connections = new Array<>(false, 8);
+    int connectionsVersion = -1;
+
+
+    GridNode(int index, int x, int y) {
+        this.index = index;
+        this.x = x;
+        this.y = y;
+    }
+
+
+    @Override
+    public String toString() {
+        return "GridNode(" + x + ", " + y + ")";
+    }
+
+
+}
@@ -0,0 +1,199 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.pathfinding;
+
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+
+
+/**
+ * Runs A* searches on a {@link TiledGridGraph} and remembers the most recently used paths, so many
+ * agents that walk between the same cells share one search. Paths are written into an {@link IntArray}
+ * given by the caller as packed cell indices (y * gridWidth + x), from the start cell to the goal cell. <br><br>
+ *
+ * The cache is cleared automatically when the costs of the graph change. Like the graph, a pathfinder
+ * must only be used from one thread at a time.
+ */
+public class GridPathfinder {
+
+    private final TiledGridGraph graph;
+    private final IndexedAStarPathFinder<GridNode> finder;
+    private final DefaultGraphPath<GridNode> nodePath;
+    private final Heuristic<GridNode> heuristic;
+
+    private final int cacheCapacity;
+    private final LongMap<CachedPath> cache;
+    private CachedPath mostRecent, leastRecent;
+    private int cacheVersion;
+    private int cacheHits, cacheMisses;
+
+
+    public GridPathfinder(TiledGridGraph graph) {
+        this(graph, 256);
+    }
+
+
+    /** @param cacheCapacity how many paths will be remembered, 0 disables the cache */
+    public GridPathfinder(TiledGridGraph graph, int cacheCapacity) {
+        this.graph = graph;
+        this.finder = new IndexedAStarPathFinder<>(graph);
+        this.nodePath = new DefaultGraphPath<>();
+        this.heuristic = graph.isDiagonalAllowed() ? GridPathfinder::octile : GridPathfinder::manhattan;
+        this.cacheCapacity = cacheCapacity;
+        this.cache = new LongMap<>(Math.max(cacheCapacity, 1));
+        this.cacheVersion = graph.getVersion();
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * @param out will be cleared and filled with the packed cell indices of the path
+     * @return true if a path was found, false if the goal is unreachable or outside of the grid
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, IntArray out) {
+        out.clear();
+        final GridNode start = graph.getNode(startX, startY);
+        final GridNode goal = graph.getNode(goalX, goalY);
+        if(start == null || goal == null) return false;
+
+        if(cacheVersion != graph.getVersion()) {
+            clearCache();
+            cacheVersion = graph.getVersion();
+        }
+
+        final long key = ((long) start.index << 32) | (goal.index & 0xFFFFFFFFL);
+        CachedPath cached = cacheCapacity > 0 ? cache.get(key) : null;
+        if(cached != null) {
+            cacheHits++;
+            moveToFront(cached);
+            out.addAll(cached.cells);
+            return cached.found;
+        }
+
+        cacheMisses++;
+        nodePath.clear();
+        final boolean found = finder.searchNodePath(start, goal, heuristic, nodePath);
+        for (int i = 0; i < nodePath.getCount(); i++)
+            out.add(nodePath.get(i).index);
+
+        if(cacheCapacity > 0) store(key, found, out);
+        return found;
+    }
+
+
+    /** Same as {@link #findPath(int, int, int, int, IntArray)} but the positions are in pixels. */
+    public boolean findPathPixels(float startX, float startY, float goalX, float goalY, IntArray out) {
+        return findPath(graph.toCellX(startX), graph.toCellY(startY),
+                graph.toCellX(goalX), graph.toCellY(goalY), out);
+    }
+
+
+    /** Runs a search without the cache, for callers that want the nodes themselves. */
+    public boolean findPath(GridNode start, GridNode goal, GraphPath<GridNode> out) {
+        return finder.searchNodePath(start, goal, heuristic, out);
+    }
+
+
+    public void clearCache() {
+        cache.clear();
+        mostRecent = leastRecent = null;
+    }
+
+
+    private void store(long key, boolean found, IntArray cells) {
+        CachedPath entry;
+        if(cache.size >= cacheCapacity) { // reuse the least recently used entry
+            entry = leastRecent;
+            cache.remove(entry.key);
+            unlink(entry);
+            entry.cells.clear();
+        }
+        else entry = new CachedPath();
+
+        entry.key = key;
+        entry.found = found;
+        entry.cells.addAll(cells);
+        cache.put(key, entry);
+        linkFirst(entry);
+    }
+
+
+    private void moveToFront(CachedPath entry) {
+        if(entry == mostRecent) return;
+        unlink(entry);
+        linkFirst(entry);
+    }
+
+
+    private void linkFirst(CachedPath entry) {
+        entry.prev = null;
+        entry.next = mostRecent;
+        if(mostRecent != null) mostRecent.prev = entry;
+        mostRecent = entry;
+        if(leastRecent == null) leastRecent = entry;
+    }
+
+
+    private void unlink(CachedPath entry) {
+        if(entry.prev != null) entry.prev.next = entry.next;
+        else mostRecent = entry.next;
+        if(entry.next != null) entry.next.prev = entry.prev;
+        else leastRecent = entry.prev;
+        entry.prev = entry.next = null;
+    }
+
+
+    private static float manhattan(GridNode node, GridNode endNode) {
+        return Math.abs(node.x - endNode.x) + Math.abs(node.y - endNode.y);
+    }
+
+
+    private static float octile(GridNode node, GridNode endNode) {
+        final int dx = Math.abs(node.x - endNode.x), dy = Math.abs(node.y - endNode.y);
+        return Math.max(dx, dy) + 0.41421356f * Math.min(dx, dy);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public TiledGridGraph getGraph() { return graph; }
+    public Heuristic<GridNode> getHeuristic() { return heuristic; }
+    public int getCacheSize() { return cache.size; }
+    public int getCacheCapacity() { return cacheCapacity; }
+    public int getCacheHits() { return cacheHits; }
+    public int getCacheMisses() { return cacheMisses; }
+
+
+    private static class CachedPath {
+        long key;
+        boolean found;
+        final IntArray cells = new IntArray();
+        CachedPath prev, next;
+    }
+
+
+}
@@ -0,0 +1,743 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.pathfinding;
+
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.*;
+import com.twistral.tempest.TempestException;
+
+import java.io.*;
+import java.util.Arrays;
+
+
+/**
+ * Hierarchical pathfinding (HPA*) for large {@link TiledGridGraph}s. The grid is cut into square clusters,
+ * the walkable openings between neighbouring clusters become the nodes of a small abstract graph and the
+ * distances between the openings of each cluster are precomputed. Queries first search this abstract
+ * graph with gdx-ai's {@link IndexedAStarPathFinder}, then each segment of the result is refined into
+ * cells only inside one cluster, when the agent needs it. <br><br>
+ *
+ * The abstract graph can be saved to a cache file and loaded again (check {@link #loadOrBuild}), a cache
+ * file is only accepted if it was built from the same grid. When cells change through
+ * {@link #setCost(int, int, float)} or {@link #markDirty(int, int)}, only the clusters around them are
+ * rebuilt before the next query. If the costs of the graph change without this class knowing which
+ * cells changed, everything is rebuilt. <br><br>
+ *
+ * Paths are near optimal, not optimal. Like the graph, a pathfinder must only be used from one thread at a time.
+ */
+public class HierarchicalPathfinder {
+
+    private static final int CACHE_MAGIC = 0x48504131; // "HPA1"
+
+    private final TiledGridGraph graph;
+    private final int clusterSize, clustersX, clustersY;
+    private final ClusterSearch search;
+
+    /** Pairs of (cell in the left/bottom cluster, cell in the right/top cluster) for every border. */
+    private final IntArray[] verticalBorders, horizontalBorders;
+
+    private AbstractNode[] nodes;
+    private int nextNodeId;
+    private final IntArray freeNodeIds;
+    private final IntIntMap cellToNodeId;
+    private final Array<AbstractNode>[] clusterNodes;
+
+    private final AbstractGraph abstractGraph;
+    private final Heuristic<AbstractNode> heuristic;
+    private final DefaultGraphPath<AbstractNode> nodePath;
+    private IndexedAStarPathFinder<AbstractNode> finder; // recreated when nodes are removed or the node count grows
+
+    private final AbstractNode tempStart, tempGoal;
+    private final Array<AbstractEdge> tempEdges;
+    private final Array<AbstractNode> tempGoalSources;
+    private int tempEdgeCount;
+
+    private final boolean[] dirtyClusters, redoClusters;
+    private boolean anyDirty, untrackedChanges;
+    private int knownVersion; // version of the graph after the last change this pathfinder was told about
+
+    private final Path scratchPath;
+
+
+    /** Builds the abstract graph right away, use {@link #loadOrBuild} to use a cache file instead. */
+    public HierarchicalPathfinder(TiledGridGraph graph, int clusterSize) {
+        this(graph, clusterSize, true);
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private HierarchicalPathfinder(TiledGridGraph graph, int clusterSize, boolean build) {
+        if(clusterSize < 2)
+            throw new TempestException("Cluster size must be at least 2, it was %d", clusterSize);
+
+        this.graph = graph;
+        this.clusterSize = clusterSize;
+        this.clustersX = (graph.getWidth() + clusterSize - 1) / clusterSize;
+        this.clustersY = (graph.getHeight() + clusterSize - 1) / clusterSize;
+        this.search = new ClusterSearch(graph, clusterSize * clusterSize);
+
+        this.verticalBorders = new IntArray[clustersX * clustersY];
+        this.horizontalBorders = new IntArray[clustersX * clustersY];
+        this.clusterNodes = (Array<AbstractNode>[]) new Array<?>[clustersX * clustersY];
+        for (int i = 0; i < clusterNodes.length; i++) {
+            verticalBorders[i] = new IntArray(8);
+            horizontalBorders[i] = new IntArray(8);
+            clusterNodes[i] = new Array<>(false, 8, AbstractNode.class);
+        }
+
+        this.nodes = new AbstractNode[64];
+        this.freeNodeIds = new IntArray();
+        this.cellToNodeId = new IntIntMap();
+
+        this.abstractGraph = new AbstractGraph();
+        this.heuristic = graph.isDiagonalAllowed() ? this::octile : this::manhattan;
+        this.nodePath = new DefaultGraphPath<>();
+
+        this.tempStart = new AbstractNode();
+        this.tempGoal = new AbstractNode();
+        this.tempEdges = new Array<>(false, 16, AbstractEdge.class);
+        this.tempGoalSources = new Array<>(false, 16, AbstractNode.class);
+
+        this.dirtyClusters = new boolean[clustersX * clustersY];
+        this.redoClusters = new boolean[clustersX * clustersY];
+        this.scratchPath = new Path();
+
+        if(build) rebuildAll();
+    }
+
+
+    /**
+     * Loads the abstract graph from the cache file if it was built from the same grid, otherwise builds
+     * it and writes it into the cache file. The cache file is usually kept next to the map, it must be
+     * writable (a local or external file).
+     */
+    public static HierarchicalPathfinder loadOrBuild(TiledGridGraph graph, int clusterSize, FileHandle cacheFile) {
+        HierarchicalPathfinder pathfinder = new HierarchicalPathfinder(graph, clusterSize, false);
+        if(!pathfinder.load(cacheFile)) {
+            pathfinder.rebuildAll();
+            pathfinder.save(cacheFile);
+        }
+        return pathfinder;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  QUERIES  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * Finds the abstract path, which is the list of cells where the path enters or leaves a cluster.
+     * Use {@link #refineNext(Path, IntArray)} to turn it into cells one segment at a time.
+     * @return true if a path was found
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, Path out) {
+        out.reset();
+        if(!graph.isWalkable(startX, startY) || !graph.isWalkable(goalX, goalY)) return false;
+        rebuildDirty();
+
+        final int gridW = graph.getWidth();
+        final int startCell = startY * gridW + startX, goalCell = goalY * gridW + goalX;
+        final int startCluster = clusterOf(startX, startY), goalCluster = clusterOf(goalX, goalY);
+
+        out.waypoints.add(startCell);
+        if(startCell == goalCell) return true;
+
+        if(startCluster == goalCluster) { // most short queries never touch the abstract graph
+            searchCluster(startCluster, startCell, goalCell, false);
+            if(search.getDistance(goalCell) != Float.POSITIVE_INFINITY) {
+                out.waypoints.add(goalCell);
+                return true;
+            }
+        }
+
+        if(finder == null) finder = new IndexedAStarPathFinder<>(abstractGraph);
+        final AbstractNode start = insertStart(startCell, startCluster);
+        final AbstractNode goal = insertGoal(goalCell, goalCluster);
+
+        nodePath.clear();
+        final boolean found = finder.searchNodePath(start, goal, heuristic, nodePath);
+        removeTemporaryEdges();
+
+        if(!found) {
+            out.reset();
+            return false;
+        }
+        for (int i = 1; i < nodePath.getCount(); i++)
+            out.waypoints.add(nodePath.get(i).cell);
+        return true;
+    }
+
+
+    /**
+     * Appends the cells of the next segment of the path (without the cell it starts from) to the array.
+     * @return false if every segment was already refined, or if the grid changed so much since the query
+     *         that the segment can't be walked anymore (then you should query a new path)
+     */
+    public boolean refineNext(Path path, IntArray out) {
+        if(!path.hasNextSegment()) return false;
+        final int from = path.waypoints.get(path.nextWaypoint - 1);
+        final int to = path.waypoints.get(path.nextWaypoint);
+        path.nextWaypoint++;
+        return refineSegment(from, to, out);
+    }
+
+
+    /**
+     * Finds the whole path at once.
+     * @param out will be cleared and filled with the packed cell indices of the path, from the start to the goal
+     * @return true if a path was found
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, IntArray out) {
+        out.clear();
+        if(!findPath(startX, startY, goalX, goalY, scratchPath)) return false;
+
+        out.add(scratchPath.waypoints.first());
+        while (scratchPath.hasNextSegment()) {
+            if(!refineNext(scratchPath, out)) {
+                out.clear();
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    private boolean refineSegment(int fromCell, int toCell, IntArray out) {
+        final int gridW = graph.getWidth();
+        final int fx = fromCell % gridW, fy = fromCell / gridW, tx = toCell % gridW, ty = toCell / gridW;
+        if(Math.abs(fx - tx) + Math.abs(fy - ty) == 1) { // crossing a border
+            if(!graph.isWalkable(tx, ty)) return false;
+            out.add(toCell);
+            return true;
+        }
+
+        final int cluster = clusterOf(fx, fy);
+        if(cluster != clusterOf(tx, ty)) return false;
+        searchCluster(cluster, fromCell, toCell, false);
+        return search.appendPath(toCell, out);
+    }
+
+
+    private AbstractNode insertStart(int cell, int cluster) {
+        final int id = cellToNodeId.get(cell, -1);
+        if(id >= 0) return nodes[id];
+
+        tempStart.id = nodes.length;
+        tempStart.cell = cell;
+        tempStart.connections.clear();
+
+        searchCluster(cluster, cell, -1, false);
+        final Array<AbstractNode> list = clusterNodes[cluster];
+        for (int i = 0; i < list.size; i++) {
+            final float dist = search.getDistance(list.items[i].cell);
+            if(dist != Float.POSITIVE_INFINITY)
+                tempStart.connections.add(obtainTempEdge(tempStart, list.items[i], dist));
+        }
+        return tempStart;
+    }
+
+
+    private AbstractNode insertGoal(int cell, int cluster) {
+        final int id = cellToNodeId.get(cell, -1);
+        if(id >= 0) return nodes[id];
+
+        tempGoal.id = nodes.length + 1;
+        tempGoal.cell = cell;
+        tempGoal.connections.clear();
+
+        searchCluster(cluster, cell, -1, true);
+        final Array<AbstractNode> list = clusterNodes[cluster];
+        for (int i = 0; i < list.size; i++) {
+            final AbstractNode node = list.items[i];
+            final float dist = search.getDistance(node.cell);
+            if(dist != Float.POSITIVE_INFINITY) {
+                node.connections.add(obtainTempEdge(node, tempGoal, dist));
+                tempGoalSources.add(node);
+            }
+        }
+        return tempGoal;
+    }
+
+
+    private AbstractEdge obtainTempEdge(AbstractNode from, AbstractNode to, float cost) {
+        if(tempEdgeCount == tempEdges.size) tempEdges.add(new AbstractEdge());
+        final AbstractEdge edge = tempEdges.items[tempEdgeCount++];
+        edge.fromNode = from;
+        edge.toNode = to;
+        edge.cost = cost;
+        return edge;
+    }
+
+
+    private void removeTemporaryEdges() {
+        for (int i = 0; i < tempGoalSources.size; i++)
+            tempGoalSources.items[i].connections.pop(); // the edge to the goal was added last
+        tempGoalSources.clear();
+        tempStart.connections.clear();
+        tempEdgeCount = 0;
+    }
+
+
+    /*//////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  UPDATING  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////*/
+
+
+    /** Sets the cost of a cell in the graph and marks its cluster to be rebuilt before the next query. */
+    public void setCost(int x, int y, float cost) {
+        graph.setCost(x, y, cost);
+        markDirty(x, y);
+    }
+
+
+    /** Call this if you changed the cost of this cell through the graph itself. */
+    public void markDirty(int x, int y) {
+        dirtyClusters[clusterOf(x, y)] = true;
+        anyDirty = true;
+
+        // if the graph changed more than once since the last reported change, some changes weren't reported
+        final int version = graph.getVersion();
+        if(version != knownVersion + 1) untrackedChanges = true;
+        knownVersion = version;
+    }
+
+
+    public void rebuildAll() {
+        Arrays.fill(dirtyClusters, true);
+        anyDirty = true;
+        rebuildDirty();
+    }
+
+
+    /** Rebuilds the dirty clusters and their neighbours, queries call this automatically. */
+    public void rebuildDirty() {
+        if(!anyDirty && knownVersion == graph.getVersion()) return;
+        if(untrackedChanges || knownVersion != graph.getVersion())
+            Arrays.fill(dirtyClusters, true); // the graph changed but we don't know where
+
+        // the openings of every border that touches a dirty cluster may have changed
+        Arrays.fill(redoClusters, false);
+        for (int c = 0; c < dirtyClusters.length; c++) {
+            if(!dirtyClusters[c]) continue;
+            final int cx = c % clustersX, cy = c / clustersX;
+            redoClusters[c] = true;
+            if(cx > 0) { computeVerticalBorder(cx - 1, cy); redoClusters[c - 1] = true; }
+            if(cx < clustersX - 1) { computeVerticalBorder(cx, cy); redoClusters[c + 1] = true; }
+            if(cy > 0) { computeHorizontalBorder(cx, cy - 1); redoClusters[c - clustersX] = true; }
+            if(cy < clustersY - 1) { computeHorizontalBorder(cx, cy); redoClusters[c + clustersX] = true; }
+        }
+
+        // so the nodes and edges of those clusters and their neighbours must be rebuilt
+        final IntSet cells = new IntSet();
+        for (int c = 0; c < redoClusters.length; c++)
+            if(redoClusters[c]) updateNodes(c, cells);
+        for (int c = 0; c < redoClusters.length; c++)
+            if(redoClusters[c]) buildEdges(c);
+
+        Arrays.fill(dirtyClusters, false);
+        anyDirty = untrackedChanges = false;
+        knownVersion = graph.getVersion();
+    }
+
+
+    private void computeVerticalBorder(int cx, int cy) {
+        final IntArray pairs = verticalBorders[cy * clustersX + cx];
+        pairs.clear();
+        final int x = (cx + 1) * clusterSize - 1;
+        final int minY = cy * clusterSize, maxY = Math.min(graph.getHeight(), minY + clusterSize);
+
+        int runStart = -1;
+        for (int y = minY; y <= maxY; y++) {
+            final boolean open = y < maxY && graph.isWalkable(x, y) && graph.isWalkable(x + 1, y);
+            if(open && runStart < 0) runStart = y;
+            else if(!open && runStart >= 0) {
+                for (int ty : transitionsOf(runStart, y - runStart))
+                    pairs.add(cellOf(x, ty), cellOf(x + 1, ty));
+                runStart = -1;
+            }
+        }
+    }
+
+
+    private void computeHorizontalBorder(int cx, int cy) {
+        final IntArray pairs = horizontalBorders[cy * clustersX + cx];
+        pairs.clear();
+        final int y = (cy + 1) * clusterSize - 1;
+        final int minX = cx * clusterSize, maxX = Math.min(graph.getWidth(), minX + clusterSize);
+
+        int runStart = -1;
+        for (int x = minX; x <= maxX; x++) {
+            final boolean open = x < maxX && graph.isWalkable(x, y) && graph.isWalkable(x, y + 1);
+            if(open && runStart < 0) runStart = x;
+            else if(!open && runStart >= 0) {
+                for (int tx : transitionsOf(runStart, x - runStart))
+                    pairs.add(cellOf(tx, y), cellOf(tx, y + 1));
+                runStart = -1;
+            }
+        }
+    }
+
+
+    /** Short openings get one transition in the middle, long ones get one at each end. */
+    private static int[] transitionsOf(int runStart, int runLength) {
+        if(runLength < 6) return new int[] { runStart + runLength / 2 };
+        return new int[] { runStart, runStart + runLength - 1 };
+    }
+
+
+    private void updateNodes(int cluster, IntSet cells) {
+        cells.clear();
+        final int cx = cluster % clustersX, cy = cluster / clustersX;
+        if(cx > 0) addSide(verticalBorders[cluster - 1], 1, cells);
+        if(cx < clustersX - 1) addSide(verticalBorders[cluster], 0, cells);
+        if(cy > 0) addSide(horizontalBorders[cluster - clustersX], 1, cells);
+        if(cy < clustersY - 1) addSide(horizontalBorders[cluster], 0, cells);
+
+        final Array<AbstractNode> list = clusterNodes[cluster];
+        for (int i = list.size - 1; i >= 0; i--) {
+            final AbstractNode node = list.items[i];
+            if(cells.remove(node.cell)) continue; // still an opening, keep the node and its id
+            list.removeIndex(i);
+            cellToNodeId.remove(node.cell, -1);
+            nodes[node.id] = null;
+            freeNodeIds.add(node.id);
+            finder = null; // its records remember which node had which id
+        }
+
+        final IntSet.IntSetIterator newCells = cells.iterator();
+        while (newCells.hasNext) {
+            final AbstractNode node = new AbstractNode();
+            node.cell = newCells.next();
+            node.id = obtainNodeId();
+            nodes[node.id] = node;
+            cellToNodeId.put(node.cell, node.id);
+            list.add(node);
+        }
+    }
+
+
+    private static void addSide(IntArray pairs, int side, IntSet out) {
+        for (int i = side; i < pairs.size; i += 2)
+            out.add(pairs.items[i]);
+    }
+
+
+    private int obtainNodeId() {
+        if(freeNodeIds.size > 0) return freeNodeIds.pop();
+        if(nextNodeId == nodes.length) {
+            nodes = Arrays.copyOf(nodes, nodes.length * 2);
+            finder = null; // its records are sized by the node count
+        }
+        return nextNodeId++;
+    }
+
+
+    private void buildEdges(int cluster) {
+        final Array<AbstractNode> list = clusterNodes[cluster];
+        for (int i = 0; i < list.size; i++)
+            list.items[i].connections.clear();
+
+        final int cx = cluster % clustersX, cy = cluster / clustersX;
+        if(cx > 0) addBorderEdges(verticalBorders[cluster - 1], 1);
+        if(cx < clustersX - 1) addBorderEdges(verticalBorders[cluster], 0);
+        if(cy > 0) addBorderEdges(horizontalBorders[cluster - clustersX], 1);
+        if(cy < clustersY - 1) addBorderEdges(horizontalBorders[cluster], 0);
+
+        for (int i = 0; i < list.size; i++) {
+            final AbstractNode from = list.items[i];
+            searchCluster(cluster, from.cell, -1, false);
+            for (int j = 0; j < list.size; j++) {
+                if(i == j) continue;
+                final float dist = search.getDistance(list.items[j].cell);
+                if(dist != Float.POSITIVE_INFINITY)
+                    from.connections.add(new AbstractEdge(from, list.items[j], dist));
+            }
+        }
+    }
+
+
+    /** Adds the edges that leave this side of the border. */
+    private void addBorderEdges(IntArray pairs, int side) {
+        final int gridW = graph.getWidth();
+        for (int i = 0; i < pairs.size; i += 2) {
+            final int fromCell = pairs.items[i + side], toCell = pairs.items[i + 1 - side];
+            final AbstractNode from = nodes[cellToNodeId.get(fromCell, -1)];
+            final AbstractNode to = nodes[cellToNodeId.get(toCell, -1)];
+            from.connections.add(new AbstractEdge(from, to, graph.getCost(toCell % gridW, toCell / gridW)));
+        }
+    }
+
+
+    private void searchCluster(int cluster, int sourceCell, int targetCell, boolean reverse) {
+        final int x = (cluster % clustersX) * clusterSize, y = (cluster / clustersX) * clusterSize;
+        search.run(x, y, Math.min(clusterSize, graph.getWidth() - x), Math.min(clusterSize, graph.getHeight() - y),
+                sourceCell, targetCell, reverse);
+    }
+
+
+    /*///////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CACHE  ///////////////////////////*/
+    /*///////////////////////////////////////////////////////////////*/
+
+
+    /** Writes the abstract graph into a binary file. */
+    public void save(FileHandle cacheFile) {
+        rebuildDirty();
+        DataOutputStream out = null;
+        try {
+            out = new DataOutputStream(new BufferedOutputStream(cacheFile.write(false), 1 << 16));
+            out.writeInt(CACHE_MAGIC);
+            out.writeInt(graph.getWidth());
+            out.writeInt(graph.getHeight());
+            out.writeInt(clusterSize);
+            out.writeBoolean(graph.isDiagonalAllowed());
+            out.writeLong(hashCosts());
+
+            writeBorders(out, verticalBorders);
+            writeBorders(out, horizontalBorders);
+
+            out.writeInt(nextNodeId);
+            for (int id = 0; id < nextNodeId; id++)
+                out.writeInt(nodes[id] == null ? -1 : nodes[id].cell);
+
+            for (int id = 0; id < nextNodeId; id++) {
+                if(nodes[id] == null) continue;
+                final Array<Connection<AbstractNode>> connections = nodes[id].connections;
+                out.writeInt(connections.size);
+                for (int i = 0; i < connections.size; i++) {
+                    out.writeInt(connections.get(i).getToNode().id);
+                    out.writeFloat(connections.get(i).getCost());
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new TempestException("Couldn't write the pathfinding cache: %s", cacheFile.path());
+        }
+        finally {
+            StreamUtils.closeQuietly(out);
+        }
+    }
+
+
+    /**
+     * Replaces the abstract graph with the one in the cache file.
+     * @return false if the file doesn't exist, is broken or was built from a different grid
+     */
+    public boolean load(FileHandle cacheFile) {
+        if(!cacheFile.exists()) return false;
+
+        DataInputStream in = null;
+        try {
+            in = new DataInputStream(new BufferedInputStream(cacheFile.read(), 1 << 16));
+            if(in.readInt() != CACHE_MAGIC || in.readInt() != graph.getWidth() || in.readInt() != graph.getHeight()
+                    || in.readInt() != clusterSize || in.readBoolean() != graph.isDiagonalAllowed()
+                    || in.readLong() != hashCosts())
+                return false;
+
+            clearAbstractGraph();
+            readBorders(in, verticalBorders);
+            readBorders(in, horizontalBorders);
+
+            nextNodeId = in.readInt();
+            nodes = new AbstractNode[Math.max(64, Integer.highestOneBit(Math.max(nextNodeId, 1)) * 2)];
+            for (int id = 0; id < nextNodeId; id++) {
+                final int cell = in.readInt();
+                if(cell < 0) {
+                    freeNodeIds.add(id);
+                    continue;
+                }
+                final AbstractNode node = new AbstractNode();
+                node.id = id;
+                node.cell = cell;
+                nodes[id] = node;
+                cellToNodeId.put(cell, id);
+                clusterNodes[clusterOf(cell % graph.getWidth(), cell / graph.getWidth())].add(node);
+            }
+
+            for (int id = 0; id < nextNodeId; id++) {
+                if(nodes[id] == null) continue;
+                final int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    final AbstractNode to = nodes[in.readInt()];
+                    nodes[id].connections.add(new AbstractEdge(nodes[id], to, in.readFloat()));
+                }
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            clearAbstractGraph();
+            return false;
+        }
+        finally {
+            StreamUtils.closeQuietly(in);
+        }
+
+        Arrays.fill(dirtyClusters, false);
+        anyDirty = untrackedChanges = false;
+        knownVersion = graph.getVersion();
+        return true;
+    }
+
+
+    private void clearAbstractGraph() {
+        for (int c = 0; c < clusterNodes.length; c++) {
+            clusterNodes[c].clear();
+            verticalBorders[c].clear();
+            horizontalBorders[c].clear();
+        }
+        Arrays.fill(nodes, null);
+        nextNodeId = 0;
+        freeNodeIds.clear();
+        cellToNodeId.clear();
+        finder = null;
+    }
+
+
+    private static void writeBorders(DataOutputStream out, IntArray[] borders) throws IOException {
+        for (IntArray pairs : borders) {
+            out.writeInt(pairs.size);
+            for (int i = 0; i < pairs.size; i++)
+                out.writeInt(pairs.items[i]);
+        }
+    }
+
+
+    private static void readBorders(DataInputStream in, IntArray[] borders) throws IOException {
+        for (IntArray pairs : borders) {
+            final int size = in.readInt();
+            pairs.ensureCapacity(size);
+            for (int i = 0; i < size; i++)
+                pairs.add(in.readInt());
+        }
+    }
+
+
+    /** 64-bit FNV-1a hash of every cost in the grid, a cache file is only valid for the same costs. */
+    private long hashCosts() {
+        long hash = 0xcbf29ce484222325L;
+        for (int y = 0; y < graph.getHeight(); y++) {
+            for (int x = 0; x < graph.getWidth(); x++) {
+                hash ^= Float.floatToIntBits(graph.getCost(x, y));
+                hash *= 0x100000001b3L;
+            }
+        }
+        return hash;
+    }
+
+
+    /*///////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  UTILITIES  ///////////////////////////*/
+    /*///////////////////////////////////////////////////////////////////*/
+
+
+    private int clusterOf(int x, int y) {
+        return (y / clusterSize) * clustersX + x / clusterSize;
+    }
+
+
+    private int cellOf(int x, int y) {
+        return y * graph.getWidth() + x;
+    }
+
+
+    private float manhattan(AbstractNode node, AbstractNode endNode) {
+        final int gridW = graph.getWidth();
+        return Math.abs(node.cell % gridW - endNode.cell % gridW) + Math.abs(node.cell / gridW - endNode.cell / gridW);
+    }
+
+
+    private float octile(AbstractNode node, AbstractNode endNode) {
+        final int gridW = graph.getWidth();
+        final int dx = Math.abs(node.cell % gridW - endNode.cell % gridW);
+        final int dy = Math.abs(node.cell / gridW - endNode.cell / gridW);
+        return Math.max(dx, dy) + 0.41421356f * Math.min(dx, dy);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public TiledGridGraph getGraph() { return graph; }
+    public int getClusterSize() { return clusterSize; }
+    public int getClusterCountX() { return clustersX; }
+    public int getClusterCountY() { return clustersY; }
+    public int getAbstractNodeCount() { return cellToNodeId.size; }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CLASSES  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    /**
+     * The result of an abstract query, reuse the same instance for every query of an agent. Its waypoints
+     * are the packed indices (y * gridWidth + x) of the cells where the path crosses cluster borders,
+     * including the start and the goal.
+     */
+    public static class Path {
+
+        private final IntArray waypoints = new IntArray();
+        private int nextWaypoint = 1;
+
+        public void reset() {
+            waypoints.clear();
+            nextWaypoint = 1;
+        }
+
+        public boolean hasNextSegment() { return nextWaypoint < waypoints.size; }
+        public IntArray getWaypoints() { return waypoints; }
+
+    }
+
+
+    static final class AbstractNode {
+        int id, cell;
+        final Array<Connection<AbstractNode>> connections = new Array<>(false, 4);
+    }
+
+
+    static final class AbstractEdge implements Connection<AbstractNode> {
+        AbstractNode fromNode, toNode;
+        float cost;
+
+        AbstractEdge() {}
+
+        AbstractEdge(AbstractNode fromNode, AbstractNode toNode, float cost) {
+            this.fromNode = fromNode;
+            this.toNode = toNode;
+            this.cost = cost;
+        }
+
+        @Override public float getCost() { return cost; }
+        @Override public AbstractNode getFromNode() { return fromNode; }
+        @Override public AbstractNode getToNode() { return toNode; }
+    }
+
+
+    private class AbstractGraph implements IndexedGraph<AbstractNode> {
+        @Override public int getIndex(AbstractNode node) { return node.id; }
+        @Override public int getNodeCount() { return nodes.length + 2; } // the last two are for the start and the goal
+        @Override public Array<Connection<AbstractNode>> getConnections(AbstractNode fromNode) { return fromNode.connections; }
+    }
+
+
+}
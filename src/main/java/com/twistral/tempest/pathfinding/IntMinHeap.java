@@ -0,0 +1,83 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.pathfinding;
+
+
+import java.util.Arrays;
+
+
+/** A binary min-heap of int ids keyed by floats. Ids can be added more than once, stale entries are skipped by the caller. */
+final class IntMinHeap {
+
+    private int[] ids;
+    private float[] keys;
+    private int size;
+
+
+    IntMinHeap(int initialCapacity) {
+        this.ids = new int[Math.max(initialCapacity, 4)];
+        this.keys = new float[ids.length];
+    }
+
+
+    void add(int id, float key) {
+        if(size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+
+        int i = size++;
+        while (i > 0) { // sift up
+            final int parent = (i - 1) >>> 1;
+            if(keys[parent] <= key) break;
+            ids[i] = ids[parent];
+            keys[i] = keys[parent];
+            i = parent;
+        }
+        ids[i] = id;
+        keys[i] = key;
+    }
+
+
+    /** Removes the id with the smallest key, call {@link #peekKey()} before this if you need the key. */
+    int pop() {
+        final int result = ids[0];
+        final int lastId = ids[--size];
+        final float lastKey = keys[size];
+
+        int i = 0;
+        while (true) { // sift down
+            int child = i * 2 + 1;
+            if(child >= size) break;
+            if(child + 1 < size && keys[child + 1] < keys[child]) child++;
+            if(keys[child] >= lastKey) break;
+            ids[i] = ids[child];
+            keys[i] = keys[child];
+            i = child;
+        }
+        ids[i] = lastId;
+        keys[i] = lastKey;
+        return result;
+    }
+
+
+    float peekKey() { return keys[0]; }
+    boolean isEmpty() { return size == 0; }
+    int size() { return size; }
+    void clear() { size = 0; }
+
+
+}
@@ -0,0 +1,242 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.pathfinding;
+
+
+import com.badlogic.gdx.utils.*;
+import com.twistral.tempest.TempestException;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Solves path requests of many agents on worker threads. Every worker searches its own
+ * {@link TiledGridGraph#createView() view} of the same graph with its own {@link GridPathfinder}, so the
+ * costs are shared and never copied. <br><br>
+ *
+ * {@link #request} only queues the request, {@link #update()} must be called once per frame on the main
+ * thread: it sends the queued requests to the workers in batches and delivers at most
+ * {@link #getResultsPerFrame()} finished results to their listeners, also on the main thread. Requests with
+ * the same start and goal cells that are waiting at the same time are solved once and delivered to every
+ * listener. <br><br>
+ *
+ * Don't change the costs of the graph while requests are being solved, check {@link #getPendingCount()}.
+ */
+public class PathRequestService implements Disposable {
+
+    private final TiledGridGraph graph;
+    private final ExecutorService workers;
+    private final int workerCount;
+    private final ThreadLocal<GridPathfinder> pathfinders;
+
+    private final LongMap<PathResult> pendingResults; // by start and goal cells, only touched on the main thread
+    private final Array<PathResult> queuedResults;
+    private final ConcurrentLinkedQueue<PathResult> finishedResults;
+    private final Pool<PathResult> resultPool;
+    private int resultsPerFrame;
+    private boolean disposed;
+
+
+    /**
+     * @param workerCount how many threads will solve requests
+     * @param resultsPerFrame maximum number of results {@link #update()} delivers in one call
+     */
+    public PathRequestService(TiledGridGraph graph, int workerCount, int resultsPerFrame) {
+        this(graph, workerCount, resultsPerFrame, 256);
+    }
+
+
+    /** @param cacheCapacityPerWorker capacity of the path cache of each worker's {@link GridPathfinder} */
+    public PathRequestService(TiledGridGraph graph, int workerCount, int resultsPerFrame, int cacheCapacityPerWorker) {
+        if(workerCount <= 0)
+            throw new TempestException("Worker count must be positive, it was %d", workerCount);
+
+        this.graph = graph;
+        this.workerCount = workerCount;
+        this.pathfinders = ThreadLocal.withInitial(() -> new GridPathfinder(graph.createView(), cacheCapacityPerWorker));
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "tempest-path-worker-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.pendingResults = new LongMap<>();
+        this.queuedResults = new Array<>(false, 64, PathResult.class);
+        this.finishedResults = new ConcurrentLinkedQueue<>();
+        this.resultPool = new Pool<PathResult>() {
+            @Override protected PathResult newObject() { return new PathResult(); }
+        };
+        this.resultsPerFrame = resultsPerFrame;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * Queues a path request, the listener will be called on the main thread during one of the next
+     * {@link #update()} calls. Cells outside of the grid are delivered as not found.
+     */
+    public void request(int startX, int startY, int goalX, int goalY, PathListener listener) {
+        if(disposed) throw new TempestException("This service was disposed.");
+
+        final long key = ((long) (startY * graph.getWidth() + startX) << 32)
+                | ((goalY * graph.getWidth() + goalX) & 0xFFFFFFFFL);
+        final boolean inGrid = isInGrid(startX, startY) && isInGrid(goalX, goalY);
+        PathResult result = inGrid ? pendingResults.get(key) : null;
+        if(result == null) {
+            result = resultPool.obtain();
+            result.set(key, startX, startY, goalX, goalY);
+            if(inGrid) pendingResults.put(key, result); // packed keys of cells outside of the grid aren't unique
+            queuedResults.add(result);
+        }
+        result.listeners.add(listener);
+    }
+
+
+    private boolean isInGrid(int x, int y) {
+        return x >= 0 && y >= 0 && x < graph.getWidth() && y < graph.getHeight();
+    }
+
+
+    /** Same as {@link #request(int, int, int, int, PathListener)} but the positions are in pixels. */
+    public void requestPixels(float startX, float startY, float goalX, float goalY, PathListener listener) {
+        request(graph.toCellX(startX), graph.toCellY(startY), graph.toCellX(goalX), graph.toCellY(goalY), listener);
+    }
+
+
+    /**
+     * Sends the queued requests to the workers and delivers the finished results.
+     * @return how many results were delivered
+     */
+    public int update() {
+        flush();
+
+        int delivered = 0;
+        PathResult result;
+        while (delivered < resultsPerFrame && (result = finishedResults.poll()) != null) {
+            if(pendingResults.get(result.key) == result) pendingResults.remove(result.key);
+            for (int i = 0; i < result.listeners.size; i++)
+                result.listeners.items[i].onPathReady(result);
+            resultPool.free(result);
+            delivered++;
+        }
+        return delivered;
+    }
+
+
+    /** Sends the queued requests to the workers right away, one batch per worker. */
+    public void flush() {
+        if(queuedResults.size == 0) return;
+
+        final int batchSize = (queuedResults.size + workerCount - 1) / workerCount;
+        for (int start = 0; start < queuedResults.size; start += batchSize) {
+            final PathResult[] batch = new PathResult[Math.min(batchSize, queuedResults.size - start)];
+            System.arraycopy(queuedResults.items, start, batch, 0, batch.length);
+            workers.execute(() -> solve(batch));
+        }
+        queuedResults.clear();
+    }
+
+
+    private void solve(PathResult[] batch) {
+        final GridPathfinder pathfinder = pathfinders.get();
+        for (PathResult result : batch) {
+            result.found = pathfinder.findPath(result.startX, result.startY, result.goalX, result.goalY, result.cells);
+            finishedResults.add(result);
+        }
+    }
+
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        workers.shutdownNow();
+        finishedResults.clear();
+        queuedResults.clear();
+        pendingResults.clear();
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public TiledGridGraph getGraph() { return graph; }
+    public int getWorkerCount() { return workerCount; }
+    public int getResultsPerFrame() { return resultsPerFrame; }
+    public void setResultsPerFrame(int resultsPerFrame) { this.resultsPerFrame = resultsPerFrame; }
+
+    /** @return how many distinct requests are waiting to be solved or delivered */
+    public int getPendingCount() { return pendingResults.size; }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CLASSES  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public interface PathListener {
+        /**
+         * Called on the main thread. The result is reused after this method returns, so copy its
+         * cells if you want to keep them.
+         */
+        void onPathReady(PathResult result);
+    }
+
+
+    public static class PathResult implements Pool.Poolable {
+
+        private long key;
+        private int startX, startY, goalX, goalY;
+        private boolean found;
+        private final IntArray cells = new IntArray();
+        private final Array<PathListener> listeners = new Array<>(false, 4, PathListener.class);
+
+        private void set(long key, int startX, int startY, int goalX, int goalY) {
+            this.key = key;
+            this.startX = startX;
+            this.startY = startY;
+            this.goalX = goalX;
+            this.goalY = goalY;
+        }
+
+        @Override
+        public void reset() {
+            found = false;
+            cells.clear();
+            listeners.clear();
+        }
+
+        public int getStartX() { return startX; }
+        public int getStartY() { return startY; }
+        public int getGoalX() { return goalX; }
+        public int getGoalY() { return goalY; }
+        public boolean isFound() { return found; }
+
+        /** @return packed cell indices (y * gridWidth + x) of the path, from the start to the goal */
+        public IntArray getCells() { return cells; }
+
+    }
+
+
+}
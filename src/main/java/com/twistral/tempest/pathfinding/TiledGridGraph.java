@@ -0,0 +1,381 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.pathfinding;
+
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.math.Intersector;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.twistral.tempest.TempestException;
+import com.twistral.tempest.TilePropertyIndex;
+import com.twistral.tempest.box2d.WorldFacade;
+
+import java.util.Arrays;
+
+
+/**
+ * A grid graph for gdx-ai's {@link com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder}. The cost of
+ * entering every cell is kept in one float array, nodes are thin handles that are created the first time
+ * a search reaches them, and each node reuses its connection objects, so searches don't allocate once
+ * the graph has warmed up. <br><br>
+ *
+ * Costs must be at least 1 for {@link GridPathfinder}'s heuristic to stay admissible, and a cost of
+ * {@link #BLOCKED} makes a cell unwalkable. Diagonal moves cost {@code sqrt(2)} times the cost of the
+ * cell they enter and are not allowed to cut the corners of blocked cells. <br><br>
+ *
+ * A graph is not thread safe, don't search it from more than one thread at a time. Use {@link #createView()}
+ * to give each thread its own graph over the same costs.
+ */
+public class TiledGridGraph implements IndexedGraph<GridNode> {
+
+    public static final float BLOCKED = Float.POSITIVE_INFINITY;
+
+    private static final float SQRT2 = 1.4142135f;
+    private static final int[] DX = { 1, -1, 0, 0, 1, -1, 1, -1 };
+    private static final int[] DY = { 0, 0, 1, -1, 1, 1, -1, -1 };
+
+    private final int width, height;
+    private final float tileWidth, tileHeight; // in pixels
+    private final boolean allowDiagonal;
+    private final float[] costs;
+    private final GridNode[] nodes;
+    private final TiledGridGraph owner; // the graph whose costs this graph reads
+    private int version; // only used by the owner
+
+
+    /**
+     * Creates a graph where every cell has a cost of 1.
+     * @param tileWidth width of a cell in pixels
+     * @param tileHeight height of a cell in pixels
+     * @param allowDiagonal whether agents can move diagonally
+     */
+    public TiledGridGraph(int width, int height, float tileWidth, float tileHeight, boolean allowDiagonal) {
+        if(width <= 0 || height <= 0)
+            throw new TempestException("Grid size must be positive, it was %dx%d", width, height);
+
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.allowDiagonal = allowDiagonal;
+        this.costs = new float[width * height];
+        this.nodes = new GridNode[width * height];
+        this.owner = this;
+        Arrays.fill(costs, 1f);
+    }
+
+
+    private TiledGridGraph(TiledGridGraph owner) {
+        this.width = owner.width;
+        this.height = owner.height;
+        this.tileWidth = owner.tileWidth;
+        this.tileHeight = owner.tileHeight;
+        this.allowDiagonal = owner.allowDiagonal;
+        this.costs = owner.costs;
+        this.nodes = new GridNode[width * height];
+        this.owner = owner;
+    }
+
+
+    /**
+     * Creates a graph that has the same size as the layer. Cells whose tile has the blocked property
+     * set to true become {@link #BLOCKED}, cells whose tile has the cost property get that cost and
+     * every other cell (including empty ones) costs 1.
+     * @param blockedPropertyName a boolean property that was set in Tiled, can be null
+     * @param costPropertyName a number property that was set in Tiled, can be null
+     */
+    public static TiledGridGraph fromLayer(TiledMapTileLayer layer, String blockedPropertyName,
+                                           String costPropertyName, boolean allowDiagonal)
+    {
+        TiledGridGraph graph = new TiledGridGraph(layer.getWidth(), layer.getHeight(),
+                layer.getTileWidth(), layer.getTileHeight(), allowDiagonal);
+        graph.applyLayer(new TilePropertyIndex(layer), blockedPropertyName, costPropertyName);
+        return graph;
+    }
+
+
+    /**
+     * Creates a graph where cells whose center is inside a static body of the world are {@link #BLOCKED},
+     * for example the bodies that {@link WorldFacade#parseTiledObjectLayer} creates.
+     */
+    public static TiledGridGraph fromWorld(WorldFacade worldFacade, int width, int height,
+                                           float tileWidth, float tileHeight, boolean allowDiagonal)
+    {
+        TiledGridGraph graph = new TiledGridGraph(width, height, tileWidth, tileHeight, allowDiagonal);
+        graph.blockStaticBodies(worldFacade);
+        return graph;
+    }
+
+
+    /**
+     * Creates a graph that reads the costs of this graph but has its own nodes and connections, so
+     * another thread can search it while this graph is being searched. Costs should only be changed
+     * while no view is being searched, otherwise a search may see some of the old costs.
+     */
+    public TiledGridGraph createView() {
+        return new TiledGridGraph(owner);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * Sets the costs of the cells according to their tiles, checking the properties of each distinct
+     * tile only once. The index must belong to a layer with the same size as this graph.
+     * @see #fromLayer(TiledMapTileLayer, String, String, boolean)
+     */
+    public void applyLayer(TilePropertyIndex layerIndex, String blockedPropertyName, String costPropertyName) {
+        TiledMapTileLayer layer = layerIndex.getLayer();
+        if(layer.getWidth() != width || layer.getHeight() != height) {
+            throw new TempestException("Layer size (%dx%d) doesn't match the graph size (%dx%d)",
+                    layer.getWidth(), layer.getHeight(), width, height);
+        }
+
+        for(TiledMapTile tile : layerIndex.getTiles(new Array<>())) {
+            float cost = 1f;
+            if(costPropertyName != null && tile.getProperties().containsKey(costPropertyName))
+                cost = toFloat(tile.getProperties().get(costPropertyName));
+            if(blockedPropertyName != null && isTrue(tile.getProperties().get(blockedPropertyName)))
+                cost = BLOCKED;
+            if(cost == 1f) continue;
+
+            final IntArray cells = layerIndex.getCells(tile);
+            for (int i = 0; i < cells.size; i++)
+                costs[cells.items[i]] = cost; // packed the same way as node indices
+        }
+        owner.version++;
+    }
+
+
+    /**
+     * Blocks every cell whose center is inside a non-sensor fixture of a static body. Chain shapes are
+     * treated as closed polygons and edge shapes are ignored.
+     */
+    public void blockStaticBodies(WorldFacade worldFacade) {
+        final float PPM = worldFacade.getPPM();
+        final Array<Body> bodies = new Array<>();
+        worldFacade.getWorld().getBodies(bodies);
+
+        final Vector2 vertex = new Vector2();
+        float[] vertices = new float[16];
+
+        for(Body body : bodies) {
+            if(body.getType() != BodyDef.BodyType.StaticBody) continue;
+            final Transform transform = body.getTransform();
+
+            for(Fixture fixture : body.getFixtureList()) {
+                if(fixture.isSensor()) continue;
+                final Shape shape = fixture.getShape();
+
+                if(shape instanceof CircleShape) {
+                    CircleShape circle = (CircleShape) shape;
+                    transform.mul(vertex.set(circle.getPosition()));
+                    blockCircle(vertex.x * PPM, vertex.y * PPM, circle.getRadius() * PPM);
+                    continue;
+                }
+
+                final int vertexCount;
+                if(shape instanceof PolygonShape) vertexCount = ((PolygonShape) shape).getVertexCount();
+                else if(shape instanceof ChainShape) vertexCount = ((ChainShape) shape).getVertexCount();
+                else continue;
+                if(vertexCount < 3) continue;
+
+                if(vertices.length < vertexCount * 2) vertices = new float[vertexCount * 2];
+                for (int i = 0; i < vertexCount; i++) {
+                    if(shape instanceof PolygonShape) ((PolygonShape) shape).getVertex(i, vertex);
+                    else ((ChainShape) shape).getVertex(i, vertex);
+                    transform.mul(vertex);
+                    vertices[i * 2] = vertex.x * PPM;
+                    vertices[i * 2 + 1] = vertex.y * PPM;
+                }
+                blockPolygon(vertices, vertexCount * 2);
+            }
+        }
+        owner.version++;
+    }
+
+
+    private void blockCircle(float cx, float cy, float r) {
+        final int minX = Math.max(0, toCellX(cx - r)), maxX = Math.min(width - 1, toCellX(cx + r));
+        final int minY = Math.max(0, toCellY(cy - r)), maxY = Math.min(height - 1, toCellY(cy + r));
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                final float dx = (x + 0.5f) * tileWidth - cx, dy = (y + 0.5f) * tileHeight - cy;
+                if(dx * dx + dy * dy <= r * r) costs[y * width + x] = BLOCKED;
+            }
+        }
+    }
+
+
+    private void blockPolygon(float[] vertices, int count) {
+        float minPX = vertices[0], maxPX = vertices[0], minPY = vertices[1], maxPY = vertices[1];
+        for (int i = 2; i < count; i += 2) {
+            minPX = Math.min(minPX, vertices[i]);
+            maxPX = Math.max(maxPX, vertices[i]);
+            minPY = Math.min(minPY, vertices[i + 1]);
+            maxPY = Math.max(maxPY, vertices[i + 1]);
+        }
+
+        final int minX = Math.max(0, toCellX(minPX)), maxX = Math.min(width - 1, toCellX(maxPX));
+        final int minY = Math.max(0, toCellY(minPY)), maxY = Math.min(height - 1, toCellY(maxPY));
+        for (int y = minY; y <= maxY; y++) {
+            for (int x = minX; x <= maxX; x++) {
+                if(Intersector.isPointInPolygon(vertices, 0, count, (x + 0.5f) * tileWidth, (y + 0.5f) * tileHeight))
+                    costs[y * width + x] = BLOCKED;
+            }
+        }
+    }
+
+
+    /** @param cost cost of entering this cell, {@link #BLOCKED} to make it unwalkable */
+    public void setCost(int x, int y, float cost) {
+        costs[y * width + x] = cost;
+        owner.version++;
+    }
+
+
+    public void setBlocked(int x, int y, boolean blocked) {
+        setCost(x, y, blocked ? BLOCKED : 1f);
+    }
+
+
+    public float getCost(int x, int y) {
+        return costs[y * width + x];
+    }
+
+
+    public boolean isWalkable(int x, int y) {
+        return x >= 0 && y >= 0 && x < width && y < height && costs[y * width + x] != BLOCKED;
+    }
+
+
+    /** @return the node of this cell, null if the cell is outside of the grid */
+    public GridNode getNode(int x, int y) {
+        if(x < 0 || y < 0 || x >= width || y >= height) return null;
+        final int index = y * width + x;
+        GridNode node = nodes[index];
+        if(node == null) {
+            node = new GridNode(index, x, y);
+            nodes[index] = node;
+        }
+        return node;
+    }
+
+
+    /** @return the node of the cell that has this point (in pixels), null if it's outside of the grid */
+    public GridNode getNodeAt(float xPixels, float yPixels) {
+        return getNode(toCellX(xPixels), toCellY(yPixels));
+    }
+
+
+    public GridNode getNode(int index) {
+        return getNode(index % width, index / width);
+    }
+
+
+    public int toCellX(float xPixels) { return (int) Math.floor(xPixels / tileWidth); }
+    public int toCellY(float yPixels) { return (int) Math.floor(yPixels / tileHeight); }
+
+
+    @Override
+    public Array<Connection<GridNode>> getConnections(GridNode fromNode) {
+        final int currentVersion = owner.version;
+        if(fromNode.connectionsVersion != currentVersion) {
+            buildConnections(fromNode);
+            fromNode.connectionsVersion = currentVersion;
+        }
+        return fromNode.connections;
+    }
+
+
+    private void buildConnections(GridNode node) {
+        node.connections.clear();
+        final int dirCount = allowDiagonal ? 8 : 4;
+        for (int dir = 0; dir < dirCount; dir++) {
+            final int nx = node.x + DX[dir], ny = node.y + DY[dir];
+            if(!isWalkable(nx, ny)) continue;
+
+            float step = 1f;
+            if(dir >= 4) { // no corner cutting
+                if(!isWalkable(node.x + DX[dir], node.y) || !isWalkable(node.x, node.y + DY[dir])) continue;
+                step = SQRT2;
+            }
+
+            GridConnection conn = node.connectionPool[dir];
+            if(conn == null) {
+                conn = new GridConnection();
+                conn.fromNode = node;
+                conn.toNode = getNode(nx, ny);
+                node.connectionPool[dir] = conn;
+            }
+            conn.cost = step * costs[ny * width + nx];
+            node.connections.add(conn);
+        }
+    }
+
+
+    @Override
+    public int getIndex(GridNode node) {
+        return node.index;
+    }
+
+
+    @Override
+    public int getNodeCount() {
+        return costs.length;
+    }
+
+
+    private static boolean isTrue(Object value) {
+        return Boolean.TRUE.equals(value) || "true".equals(value);
+    }
+
+
+    private static float toFloat(Object value) {
+        if(value instanceof Number) return ((Number) value).floatValue();
+        try {
+            return Float.parseFloat(String.valueOf(value));
+        }
+        catch (NumberFormatException e) {
+            throw new TempestException("Cost property must be a number, it was: %s", value);
+        }
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public float getTileWidth() { return tileWidth; }
+    public float getTileHeight() { return tileHeight; }
+    public boolean isDiagonalAllowed() { return allowDiagonal; }
+
+    /** Changes every time a cost of the grid changes, can be used to invalidate cached paths. */
+    public int getVersion() { return owner.version; }
+
+
+}
@@ -0,0 +1,409 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.tilestream;
+
+
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSets;
+import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.utils.*;
+import com.twistral.tempest.TempestException;
+import com.twistral.tempest.assetsorter.AssetSorter;
+import com.twistral.tempest.bakedmap.BakedMap;
+import com.twistral.tempest.bakedmap.BakedMap.Animation;
+import com.twistral.tempest.tilestream.TileChunk.TileChunkLoader;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * A tile map that only keeps the chunks around the camera in memory. Chunks are written by
+ * {@link TileStreamWriter}, then defined, queued and dequeued through an {@link AssetSorter} as the camera
+ * moves, so they are read on its loading thread. Keep calling {@link AssetSorter#keepLoading()} like you
+ * normally would and call {@link #update(OrthographicCamera)} once per frame. <br><br>
+ *
+ * Resident chunks are pooled, each one has a small {@link TiledMapTileLayer} per layer that is offset to
+ * its place in the world, so memory only depends on how many chunks fit around the camera and not on the
+ * size of the map. Tilesets aren't streamed; give it the tilesets of the original map (a copy of the map
+ * without any layers works). Baked animations get one shared {@link AnimatedTiledMapTile} each. <br><br>
+ *
+ * Anything that works on cells, like collision bodies (see {@link TileCollisionListener}) or pathfinding
+ * costs, should be hooked to the chunks with a {@link ChunkListener} so it only covers the resident ones.
+ */
+public class StreamingTileMap implements Disposable {
+
+    public static final String HEADER_FILE_NAME = "map.tsh";
+    static final int MAGIC = 0x31485354; // "TSH1"
+    static final int FORMAT_VERSION = 1;
+
+    private final AssetSorter assetSorter;
+    private final String directory;
+    private final TiledMapTileSets tileSets;
+
+    private final int width, height, tileWidth, tileHeight;
+    private final int chunkSize, chunksX, chunksY;
+    private final String[] layerNames;
+    private final int[] presentChunks;
+
+    private final IntMap<TiledMapTile> tilesById;
+    private final LongMap<Chunk> chunksByKey;
+    private final Array<Chunk> activeChunks;
+    private final Array<Chunk> freeChunks;
+    private final Array<ChunkListener> listeners;
+    private int loadMargin;
+
+
+    /**
+     * @param assetSorter the sorter that will load the chunks, a loader for {@link TileChunk}s is set on it
+     * @param directory the directory that {@link TileStreamWriter} wrote into, resolved by the sorter's resolver
+     * @param tileSets tilesets of the original map
+     */
+    public StreamingTileMap(AssetSorter assetSorter, String directory, TiledMapTileSets tileSets) {
+        this.assetSorter = assetSorter;
+        this.directory = directory.endsWith("/") ? directory : directory + "/";
+        this.tileSets = tileSets;
+        this.tilesById = new IntMap<>();
+        this.chunksByKey = new LongMap<>();
+        this.activeChunks = new Array<>(false, 64, Chunk.class);
+        this.freeChunks = new Array<>(false, 64, Chunk.class);
+        this.listeners = new Array<>(false, 4, ChunkListener.class);
+        this.loadMargin = 1;
+
+        final FileHandleResolver resolver = assetSorter.getAssetManager().getFileHandleResolver();
+        assetSorter.setLoader(TileChunk.class, new TileChunkLoader(resolver));
+
+        final ByteBuffer buffer = ByteBuffer.wrap(resolver.resolve(this.directory + HEADER_FILE_NAME).readBytes())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        if(buffer.getInt() != MAGIC)
+            throw new TempestException("%s isn't the header of a streamed map.", this.directory + HEADER_FILE_NAME);
+        final int version = buffer.getInt();
+        if(version != FORMAT_VERSION)
+            throw new TempestException("Streamed map format version %d isn't supported, write the map again.", version);
+
+        this.width = buffer.getInt();
+        this.height = buffer.getInt();
+        this.tileWidth = buffer.getInt();
+        this.tileHeight = buffer.getInt();
+        this.chunkSize = buffer.getInt();
+        this.chunksX = buffer.getInt();
+        this.chunksY = buffer.getInt();
+
+        this.layerNames = new String[buffer.getInt()];
+        for (int i = 0; i < layerNames.length; i++) {
+            final byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+            buffer.position((buffer.position() + 3) & ~3);
+            layerNames[i] = new String(name, StandardCharsets.UTF_8);
+        }
+
+        this.presentChunks = new int[buffer.getInt()];
+        for (int i = 0; i < presentChunks.length; i++) presentChunks[i] = buffer.getInt();
+
+        final int animationCount = buffer.getInt();
+        for (int i = 0; i < animationCount; i++) {
+            final Animation animation = new Animation(getInts(buffer), getInts(buffer), getInts(buffer));
+            final AnimatedTiledMapTile animatedTile = animation.createTile(tileSets);
+            for(int id : animation.getTriggerIds()) tilesById.put(id, animatedTile);
+        }
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  STREAMING  /////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /** Same as {@link #update(float, float, float, float)} with the area that the camera sees. */
+    public void update(OrthographicCamera camera) {
+        final float w = camera.viewportWidth * camera.zoom;
+        final float h = camera.viewportHeight * camera.zoom;
+        update(camera.position.x - w / 2f, camera.position.y - h / 2f, w, h);
+    }
+
+
+    /**
+     * Queues the chunks that overlap the given area (plus {@link #getLoadMargin()} chunks around it), turns the
+     * ones that finished loading into resident chunks and evicts the ones that are far away. Chunks are evicted
+     * one chunk further than they are loaded so they don't flicker in and out at the border. <br>
+     * Don't call this inside a Box2D world step if a listener creates or destroys bodies.
+     * @param x left of the area in pixels
+     * @param y bottom of the area in pixels
+     */
+    public void update(float x, float y, float w, float h) {
+        final float chunkW = chunkSize * tileWidth, chunkH = chunkSize * tileHeight;
+        final int minX = (int) Math.floor(x / chunkW) - loadMargin;
+        final int minY = (int) Math.floor(y / chunkH) - loadMargin;
+        final int maxX = (int) Math.floor((x + w) / chunkW) + loadMargin;
+        final int maxY = (int) Math.floor((y + h) / chunkH) + loadMargin;
+
+        // evict far away chunks and finish the loaded ones
+        for (int i = activeChunks.size - 1; i >= 0; i--) {
+            final Chunk chunk = activeChunks.get(i);
+            if(chunk.chunkX < minX - 1 || chunk.chunkX > maxX + 1 || chunk.chunkY < minY - 1 || chunk.chunkY > maxY + 1) {
+                evict(chunk);
+                activeChunks.removeIndex(i);
+            }
+            else if(!chunk.resident && assetSorter.isAvailable(chunk.assetID)) {
+                makeResident(chunk);
+            }
+        }
+
+        // queue the missing ones
+        for (int cy = Math.max(minY, 0); cy <= Math.min(maxY, chunksY - 1); cy++) {
+            for (int cx = Math.max(minX, 0); cx <= Math.min(maxX, chunksX - 1); cx++) {
+                if(!isChunkPresent(cx, cy) || chunksByKey.containsKey(key(cx, cy))) continue;
+
+                final Chunk chunk = freeChunks.size > 0 ? freeChunks.pop() : new Chunk(this);
+                chunk.chunkX = cx;
+                chunk.chunkY = cy;
+                chunk.assetID = directory + getChunkFileName(cx, cy);
+                assetSorter.defineAsset(chunk.assetID, chunk.assetID, TileChunk.class);
+                assetSorter.queueAsset(chunk.assetID);
+                chunksByKey.put(key(cx, cy), chunk);
+                activeChunks.add(chunk);
+            }
+        }
+    }
+
+
+    private void makeResident(Chunk chunk) {
+        final TileChunk data = assetSorter.getAsset(chunk.assetID, TileChunk.class);
+        if(data.getSize() != chunkSize || data.getLayerCount() != layerNames.length)
+            throw new TempestException("Chunk %s doesn't belong to this map.", chunk.assetID);
+
+        for (int l = 0; l < layerNames.length; l++) {
+            final TiledMapTileLayer layer = chunk.layers[l];
+            layer.setOffsetX(chunk.chunkX * chunkSize * tileWidth);
+            layer.setOffsetY(-chunk.chunkY * chunkSize * tileHeight); // renderers flip the y offset like Tiled does
+
+            for (int ly = 0; ly < chunkSize; ly++) {
+                for (int lx = 0; lx < chunkSize; lx++) {
+                    final int packed = data.getCell(l, lx, ly);
+                    final TiledMapTile tile = getTile(packed & BakedMap.ID_MASK);
+                    if(tile == null) {
+                        layer.setCell(lx, ly, null);
+                        continue;
+                    }
+
+                    final Cell cell = chunk.cellPool[(l * chunkSize + ly) * chunkSize + lx];
+                    cell.setTile(tile);
+                    cell.setFlipHorizontally((packed & BakedMap.FLIP_H_FLAG) != 0);
+                    cell.setFlipVertically((packed & BakedMap.FLIP_V_FLAG) != 0);
+                    cell.setRotation((packed >>> BakedMap.ROTATION_SHIFT) & 3);
+                    layer.setCell(lx, ly, cell);
+                }
+            }
+        }
+
+        // the cells are copied, the loaded data isn't needed anymore
+        assetSorter.dequeueAsset(chunk.assetID);
+        assetSorter.undefineAsset(chunk.assetID);
+        chunk.resident = true;
+        for (int i = 0; i < listeners.size; i++) listeners.get(i).chunkLoaded(this, chunk);
+    }
+
+
+    private void evict(Chunk chunk) {
+        if(chunk.resident) {
+            for (int i = 0; i < listeners.size; i++) listeners.get(i).chunkUnloaded(this, chunk);
+            chunk.resident = false;
+        }
+        else {
+            assetSorter.dequeueAsset(chunk.assetID);
+            assetSorter.undefineAsset(chunk.assetID);
+        }
+        chunksByKey.remove(key(chunk.chunkX, chunk.chunkY));
+        chunk.assetID = null;
+        freeChunks.add(chunk);
+    }
+
+
+    private TiledMapTile getTile(int id) {
+        if(id == 0) return null;
+        TiledMapTile tile = tilesById.get(id);
+        if(tile == null) {
+            tile = tileSets.getTile(id);
+            if(tile != null) tilesById.put(id, tile);
+        }
+        return tile;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * Draws every resident chunk, layer by layer. The renderer's view must already be set and its batch
+     * must not be drawing. The map that the renderer was created with isn't used, an empty one works.
+     */
+    public void render(OrthogonalTiledMapRenderer renderer) {
+        AnimatedTiledMapTile.updateAnimationBaseTime();
+        final Batch batch = renderer.getBatch();
+        batch.begin();
+        for (int l = 0; l < layerNames.length; l++) {
+            for (int i = 0; i < activeChunks.size; i++) {
+                final Chunk chunk = activeChunks.get(i);
+                if(chunk.resident) renderer.renderTileLayer(chunk.layers[l]);
+            }
+        }
+        batch.end();
+    }
+
+
+    /** @return the cell at these tile coordinates, null if it's empty or its chunk isn't resident */
+    public Cell getCell(int layerIndex, int tileX, int tileY) {
+        if(tileX < 0 || tileY < 0) return null;
+        final Chunk chunk = chunksByKey.get(key(tileX / chunkSize, tileY / chunkSize));
+        if(chunk == null || !chunk.resident) return null;
+        return chunk.layers[layerIndex].getCell(tileX % chunkSize, tileY % chunkSize);
+    }
+
+
+    /** @return the resident chunk at these chunk coordinates, null if there is none */
+    public Chunk getResidentChunk(int chunkX, int chunkY) {
+        final Chunk chunk = chunksByKey.get(key(chunkX, chunkY));
+        return (chunk != null && chunk.resident) ? chunk : null;
+    }
+
+
+    /** @return false if the chunk had no tiles at all, so it was never written */
+    public boolean isChunkPresent(int chunkX, int chunkY) {
+        final int chunkIndex = chunkY * chunksX + chunkX;
+        return (presentChunks[chunkIndex >>> 5] & (1 << (chunkIndex & 31))) != 0;
+    }
+
+
+    public void addListener(ChunkListener listener) { listeners.add(listener); }
+    public void removeListener(ChunkListener listener) { listeners.removeValue(listener, true); }
+
+
+    /** Evicts every chunk, calling the listeners for the resident ones. */
+    public void clear() {
+        for (int i = 0; i < activeChunks.size; i++) evict(activeChunks.get(i));
+        activeChunks.clear();
+    }
+
+
+    @Override
+    public void dispose() {
+        clear();
+    }
+
+
+    /** @return name of the file that holds this chunk, relative to the map's directory */
+    public static String getChunkFileName(int chunkX, int chunkY) {
+        return chunkX + "_" + chunkY + ".chunk";
+    }
+
+
+    private static long key(int chunkX, int chunkY) {
+        return ((long) chunkX << 32) | (chunkY & 0xFFFFFFFFL);
+    }
+
+
+    private static int[] getInts(ByteBuffer buffer) {
+        final int[] ints = new int[buffer.getInt()];
+        for (int i = 0; i < ints.length; i++) ints[i] = buffer.getInt();
+        return ints;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    /** @return width of the whole map in tiles */
+    public int getWidth() { return width; }
+    /** @return height of the whole map in tiles */
+    public int getHeight() { return height; }
+    public int getTileWidth() { return tileWidth; }
+    public int getTileHeight() { return tileHeight; }
+    public int getChunkSize() { return chunkSize; }
+    public int getChunksX() { return chunksX; }
+    public int getChunksY() { return chunksY; }
+    public int getLayerCount() { return layerNames.length; }
+    public String getLayerName(int layerIndex) { return layerNames[layerIndex]; }
+    public TiledMapTileSets getTileSets() { return tileSets; }
+    /** @return chunks that are either resident or still loading */
+    public Array<Chunk> getActiveChunks() { return activeChunks; }
+    public int getLoadMargin() { return loadMargin; }
+
+    /** @param loadMargin how many extra chunks are loaded around the visible area, 1 by default */
+    public StreamingTileMap setLoadMargin(int loadMargin) {
+        this.loadMargin = Math.max(loadMargin, 0);
+        return this;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CLASSES  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    /**
+     * A pooled chunk. Its layers use chunk local coordinates and are only valid while it's resident,
+     * so don't hold on to a chunk after {@link ChunkListener#chunkUnloaded} is called for it.
+     */
+    public static class Chunk {
+
+        private final TiledMapTileLayer[] layers;
+        private final Cell[] cellPool;
+        private final int size;
+        private int chunkX, chunkY;
+        private String assetID;
+        private boolean resident;
+
+        private Chunk(StreamingTileMap map) {
+            this.size = map.chunkSize;
+            this.layers = new TiledMapTileLayer[map.layerNames.length];
+            for (int l = 0; l < layers.length; l++) {
+                layers[l] = new TiledMapTileLayer(size, size, map.tileWidth, map.tileHeight);
+                layers[l].setName(map.layerNames[l]);
+            }
+            this.cellPool = new Cell[layers.length * size * size];
+            for (int i = 0; i < cellPool.length; i++) cellPool[i] = new Cell();
+        }
+
+        public TiledMapTileLayer getLayer(int layerIndex) { return layers[layerIndex]; }
+        public int getChunkX() { return chunkX; }
+        public int getChunkY() { return chunkY; }
+        /** @return tile x of the chunk's bottom left cell */
+        public int getTileX() { return chunkX * size; }
+        /** @return tile y of the chunk's bottom left cell */
+        public int getTileY() { return chunkY * size; }
+        public boolean isResident() { return resident; }
+
+    }
+
+
+    public interface ChunkListener {
+        /** Called on the thread that calls {@link #update}, after the chunk's cells are filled. */
+        void chunkLoaded(StreamingTileMap map, Chunk chunk);
+        /** Called before the chunk is put back into the pool. */
+        void chunkUnloaded(StreamingTileMap map, Chunk chunk);
+    }
+
+
+}
@@ -0,0 +1,120 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.tilestream;
+
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.twistral.tempest.TempestException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+
+/**
+ * Packed cells of one chunk of a streamed map, as written by {@link TileStreamWriter}. Cells use the same
+ * packing as {@link com.twistral.tempest.bakedmap.BakedMap}: the tile id and its flip and rotation bits.
+ * {@link StreamingTileMap} loads these with {@link TileChunkLoader} and unloads them as soon as their cells
+ * are copied into its pooled layers.
+ */
+public class TileChunk {
+
+    static final int MAGIC = 0x31484354; // "TCH1"
+    static final int FORMAT_VERSION = 1;
+
+    private final int size, layerCount;
+    private final int[] cells;
+
+
+    private TileChunk(int size, int layerCount, int[] cells) {
+        this.size = size;
+        this.layerCount = layerCount;
+        this.cells = cells;
+    }
+
+
+    static TileChunk read(byte[] bytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if(buffer.getInt() != MAGIC)
+            throw new TempestException("This is not a tile chunk.");
+        final int version = buffer.getInt();
+        if(version != FORMAT_VERSION)
+            throw new TempestException("Tile chunk format version %d isn't supported, write the map again.", version);
+
+        final int size = buffer.getInt();
+        final int layerCount = buffer.getInt();
+        final IntBuffer ints = buffer.asIntBuffer();
+        final int[] cells = new int[ints.remaining()];
+        ints.get(cells);
+        if(cells.length != size * size * layerCount)
+            throw new TempestException("Tile chunk is truncated, expected %d cells but found %d.",
+                    size * size * layerCount, cells.length);
+        return new TileChunk(size, layerCount, cells);
+    }
+
+
+    /** @return the packed cell at chunk local coordinates, 0 if it's empty */
+    public int getCell(int layerIndex, int localX, int localY) {
+        return cells[(layerIndex * size + localY) * size + localX];
+    }
+
+    public int getSize() { return size; }
+    public int getLayerCount() { return layerCount; }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  LOADER  ////////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    /** Reads chunk files on the loading thread of an {@link AssetManager}. */
+    public static class TileChunkLoader extends AsynchronousAssetLoader<TileChunk, TileChunkLoader.TileChunkParameters> {
+
+        private TileChunk chunk;
+
+        public TileChunkLoader(FileHandleResolver resolver) {
+            super(resolver);
+        }
+
+        @Override
+        public void loadAsync(AssetManager manager, String fileName, FileHandle file, TileChunkParameters parameter) {
+            chunk = TileChunk.read(file.readBytes());
+        }
+
+        @Override
+        public TileChunk loadSync(AssetManager manager, String fileName, FileHandle file, TileChunkParameters parameter) {
+            TileChunk result = chunk;
+            chunk = null;
+            return result;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes") // the signature of AssetLoader
+        public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, TileChunkParameters parameter) {
+            return null;
+        }
+
+        public static class TileChunkParameters extends AssetLoaderParameters<TileChunk> {}
+
+    }
+
+
+}
@@ -0,0 +1,107 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.tilestream;
+
+
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer.Cell;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef.BodyType;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.twistral.tempest.box2d.Box2DUtils;
+import com.twistral.tempest.box2d.WorldFacade;
+import com.twistral.tempest.tilestream.StreamingTileMap.Chunk;
+import com.twistral.tempest.tilestream.StreamingTileMap.ChunkListener;
+
+
+/**
+ * Creates static Box2D boxes for the solid tiles of resident chunks and destroys them when the chunks are
+ * evicted, so the world only has bodies near the camera. A tile is solid if its property has the given
+ * value. Neighbouring solid tiles on the same row are merged into a single box.
+ * <br> Example: streamingMap.addListener(new TileCollisionListener(facade, 0, "solid", true));
+ */
+public class TileCollisionListener implements ChunkListener {
+
+    private final WorldFacade facade;
+    private final int layerIndex;
+    private final String propertyName;
+    private final Object propertyValue;
+
+    private final ObjectMap<Chunk, Array<Body>> bodiesByChunk;
+    private final Array<Array<Body>> freeArrays;
+
+
+    public TileCollisionListener(WorldFacade facade, int layerIndex, String propertyName, Object propertyValue) {
+        this.facade = facade;
+        this.layerIndex = layerIndex;
+        this.propertyName = propertyName;
+        this.propertyValue = propertyValue;
+        this.bodiesByChunk = new ObjectMap<>();
+        this.freeArrays = new Array<>();
+    }
+
+
+    @Override
+    public void chunkLoaded(StreamingTileMap map, Chunk chunk) {
+        final Array<Body> bodies = freeArrays.size > 0 ? freeArrays.pop() : new Array<Body>();
+        final TiledMapTileLayer layer = chunk.getLayer(layerIndex);
+        final float tileW = layer.getTileWidth(), tileH = layer.getTileHeight();
+        final float originX = chunk.getTileX() * tileW, originY = chunk.getTileY() * tileH;
+
+        for (int y = 0; y < layer.getHeight(); y++) {
+            int runStart = -1;
+            for (int x = 0; x <= layer.getWidth(); x++) {
+                final boolean solid = x < layer.getWidth() && isSolid(layer.getCell(x, y));
+                if(solid && runStart == -1) {
+                    runStart = x;
+                }
+                else if(!solid && runStart != -1) {
+                    bodies.add(facade.newSimpleBodyAsBox(BodyType.StaticBody, originX + runStart * tileW,
+                            originY + y * tileH, (x - runStart) * tileW, tileH, Box2DUtils.dfr(1f, 0.5f, 0f), 0f));
+                    runStart = -1;
+                }
+            }
+        }
+        bodiesByChunk.put(chunk, bodies);
+    }
+
+
+    @Override
+    public void chunkUnloaded(StreamingTileMap map, Chunk chunk) {
+        final Array<Body> bodies = bodiesByChunk.remove(chunk);
+        if(bodies == null) return;
+        for (int i = 0; i < bodies.size; i++) facade.getWorld().destroyBody(bodies.get(i));
+        bodies.clear();
+        freeArrays.add(bodies);
+    }
+
+
+    private boolean isSolid(Cell cell) {
+        return cell != null && cell.getTile() != null
+                && propertyValue.equals(cell.getTile().getProperties().get(propertyName));
+    }
+
+
+    /** @return how many bodies this listener currently has in the world */
+    public int getBodyCount() {
+        int count = 0;
+        for(Array<Body> bodies : bodiesByChunk.values()) count += bodies.size;
+        return count;
+    }
+
+
+}
@@ -0,0 +1,157 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.tilestream;
+
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import com.twistral.tempest.TempestException;
+import com.twistral.tempest.bakedmap.BakedMap;
+import com.twistral.tempest.bakedmap.BakedMap.Animation;
+import com.twistral.tempest.bakedmap.BakedMap.BakedTileLayer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+
+
+/**
+ * Splits the tile layers of a {@link BakedMap} into square chunks, one file per chunk, plus a small header
+ * file that {@link StreamingTileMap} reads. The baked map is memory mapped, so even maps that wouldn't fit
+ * into the heap can be split. This is meant to be run offline, next to {@link com.twistral.tempest.bakedmap.TiledMapBaker}. <br><br>
+ *
+ * Chunks whose cells are all empty aren't written at all, and the header remembers which ones exist.
+ */
+public class TileStreamWriter {
+
+    private final BakedMap map;
+    private final int chunkSize;
+
+
+    /** @param chunkSize width and height of a chunk in tiles, something like 32 or 64 */
+    public TileStreamWriter(BakedMap map, int chunkSize) {
+        if(chunkSize <= 0)
+            throw new TempestException("Chunk size must be positive, it was %d.", chunkSize);
+        this.map = map;
+        this.chunkSize = chunkSize;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * Writes the header as {@link StreamingTileMap#HEADER_FILE_NAME} and every non-empty chunk into the directory.
+     * @return how many chunk files were written
+     */
+    public int write(FileHandle directory) {
+        final Array<BakedTileLayer> layers = map.getTileLayers();
+        final int chunksX = (map.getWidth() + chunkSize - 1) / chunkSize;
+        final int chunksY = (map.getHeight() + chunkSize - 1) / chunkSize;
+        final int[] present = new int[(chunksX * chunksY + 31) / 32];
+
+        final int[] cells = new int[layers.size * chunkSize * chunkSize];
+        final ByteBuffer chunkBuffer = ByteBuffer.allocate(16 + cells.length * 4).order(ByteOrder.LITTLE_ENDIAN);
+        int writtenCount = 0;
+
+        for (int cy = 0; cy < chunksY; cy++) {
+            for (int cx = 0; cx < chunksX; cx++) {
+                if(!fillChunk(layers, cx, cy, cells)) continue;
+
+                chunkBuffer.clear();
+                chunkBuffer.putInt(TileChunk.MAGIC).putInt(TileChunk.FORMAT_VERSION).putInt(chunkSize).putInt(layers.size);
+                chunkBuffer.asIntBuffer().put(cells);
+                directory.child(StreamingTileMap.getChunkFileName(cx, cy)).writeBytes(chunkBuffer.array(), false);
+
+                final int chunkIndex = cy * chunksX + cx;
+                present[chunkIndex >>> 5] |= 1 << (chunkIndex & 31);
+                writtenCount++;
+            }
+        }
+
+        writeHeader(directory.child(StreamingTileMap.HEADER_FILE_NAME), chunksX, chunksY, present);
+        return writtenCount;
+    }
+
+
+    /** @return false if every cell of the chunk is empty */
+    private boolean fillChunk(Array<BakedTileLayer> layers, int cx, int cy, int[] cells) {
+        boolean hasTiles = false;
+        for (int l = 0; l < layers.size; l++) {
+            final BakedTileLayer layer = layers.get(l);
+            final IntBuffer layerCells = layer.getCells();
+            for (int ly = 0; ly < chunkSize; ly++) {
+                final int y = cy * chunkSize + ly;
+                for (int lx = 0; lx < chunkSize; lx++) {
+                    final int x = cx * chunkSize + lx;
+                    final int packed = (x < layer.getWidth() && y < layer.getHeight())
+                            ? layerCells.get(y * layer.getWidth() + x) : 0;
+                    cells[(l * chunkSize + ly) * chunkSize + lx] = packed;
+                    hasTiles |= packed != 0;
+                }
+            }
+        }
+        return hasTiles;
+    }
+
+
+    private void writeHeader(FileHandle file, int chunksX, int chunksY, int[] present) {
+        final Array<BakedTileLayer> layers = map.getTileLayers();
+        final byte[][] names = new byte[layers.size][];
+        int size = 44 + present.length * 4 + 4;
+        for (int i = 0; i < layers.size; i++) {
+            names[i] = layers.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            size += 4 + ((names[i].length + 3) & ~3);
+        }
+        for(Animation animation : map.getAnimations())
+            size += 12 + 4 * (animation.getTriggerIds().length + animation.getFrameIds().length + animation.getIntervals().length);
+
+        final ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(StreamingTileMap.MAGIC).putInt(StreamingTileMap.FORMAT_VERSION);
+        buffer.putInt(map.getWidth()).putInt(map.getHeight());
+        buffer.putInt(map.getTileWidth()).putInt(map.getTileHeight());
+        buffer.putInt(chunkSize).putInt(chunksX).putInt(chunksY);
+
+        buffer.putInt(layers.size);
+        for(byte[] name : names) {
+            buffer.putInt(name.length).put(name);
+            buffer.position((buffer.position() + 3) & ~3);
+        }
+
+        buffer.putInt(present.length);
+        for(int bits : present) buffer.putInt(bits);
+
+        buffer.putInt(map.getAnimations().size);
+        for(Animation animation : map.getAnimations()) {
+            putInts(buffer, animation.getTriggerIds());
+            putInts(buffer, animation.getFrameIds());
+            putInts(buffer, animation.getIntervals());
+        }
+
+        file.writeBytes(buffer.array(), false);
+    }
+
+
+    private static void putInts(ByteBuffer buffer, int[] ints) {
+        buffer.putInt(ints.length);
+        for(int value : ints) buffer.putInt(value);
+    }
+
+
+}
@@ -18,7 +18,7 @@ package com.twistral.tempest.timing;
 
 
 
-import com.twistral.tempest.TempestException;
+import com.badlogic.gdx.utils.CharArray;
 
 
 
@@ -27,6 +27,9 @@ public class AccumulationTimer {
     /** Elapsed time in seconds. */
     protected float time;
 
+    /** Formatted text of the last string method call, created lazily. */
+    private TimerText text;
+
 
     /*//////////////////////////////////////////////////////////////////////*/
     /*///////////////////////////  CONSTRUCTORS  ///////////////////////////*/
@@ -56,31 +59,35 @@ public class AccumulationTimer {
 
 
     public String asString(TimerFormatType formatType) {
-        if(formatType == null) formatType = TimerFormatType.MIN_SEC_MILLI;
-
-        switch (formatType) {
-            case DAY_HOUR_MIN_SEC_MILLI:
-                return String.format("%02d:%02d:%02d:%02d:%03d",
-                    getDayCount(), getHourCount(), getMinuteCount(), getSecCount(), getMilliCount());
-            case HOUR_MIN_SEC_MILLI:
-                return String.format("%02d:%02d:%02d:%03d",
-                    getHourCount(), getMinuteCount(), getSecCount(), getMilliCount());
-            case DAY_HOUR_MIN_SEC:
-                return String.format("%02d:%02d:%02d:%02d",
-                    getDayCount(), getHourCount(), getMinuteCount(), getSecCount());
-            case MIN_SEC_MILLI:
-                return String.format("%02d:%02d:%03d", getMinuteCount(), getSecCount(), getMilliCount());
-            case HOUR_MIN_SEC:
-                return String.format("%02d:%02d:%02d", getHourCount(), getMinuteCount(), getSecCount());
-            case SEC_MILLI:
-                return String.format("%02d:%03d", getSecCount(), getMilliCount());
-            case MIN_SEC:
-                return String.format("%02d:%02d", getMinuteCount(), getSecCount());
-            case SEC:
-                return String.format("%02d", getSecCount());
-        }
-
-        throw new TempestException.UnreachableException();
+        return formatText(formatType).asString();
+    }
+
+
+    /**
+     * Appends the same text as {@link #asString(TimerFormatType)} without allocating anything,
+     * useful for HUDs that draw their timers every frame.
+     * @return the given StringBuilder
+     */
+    public StringBuilder appendTo(StringBuilder sb, TimerFormatType formatType) {
+        formatText(formatType).appendTo(sb);
+        return sb;
+    }
+
+
+    /**
+     * Same as {@link #appendTo(StringBuilder, TimerFormatType)} but for libGDX's {@link CharArray}.
+     * @return the given CharArray
+     */
+    public CharArray appendTo(CharArray charArray, TimerFormatType formatType) {
+        formatText(formatType).appendTo(charArray);
+        return charArray;
+    }
+
+
+    private TimerText formatText(TimerFormatType formatType) {
+        if(text == null) text = new TimerText();
+        text.format(formatType, getDayCount(), getHourCount(), getMinuteCount(), getSecCount(), getMilliCount());
+        return text;
     }
 
 
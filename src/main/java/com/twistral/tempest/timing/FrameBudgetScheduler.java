@@ -0,0 +1,195 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.timing;
+
+
+import com.badlogic.gdx.utils.Array;
+import com.twistral.tempest.assetsorter.AssetSorter;
+
+
+
+/**
+ * Runs deferrable jobs (AI replanning, asset prefetching, pathfinding...) in whatever time is left
+ * of a frame. <br><br>
+ *
+ * Tasks are resumable: each call to {@link Task#run(long)} should do a small chunk of work and return
+ * whether the task is finished. Every frame, {@link #run(float)} keeps giving chunks to the task with
+ * the highest priority (tasks with the same priority run in submission order) until the budget is
+ * spent, unfinished tasks simply continue in the next frame. <br><br>
+ *
+ * The scheduler can't interrupt a chunk, so a frame overruns its budget when a chunk takes longer than
+ * the time that was left. These overruns are counted, use them to tune the size of your chunks.
+ */
+public class FrameBudgetScheduler {
+
+    public interface Task {
+        /**
+         * Does a chunk of work.
+         * @param remainingNanos how much of this frame's budget is left, a chunk should try to stay below it
+         * @return true if the task is finished and should be removed from the scheduler
+         */
+        boolean run(long remainingNanos);
+    }
+
+    private final Array<Entry> queue; // sorted by priority, highest first
+
+    // metrics
+    private long frameCount, overrunCount, totalOverrunNanos, maxOverrunNanos, lastUsedNanos;
+
+
+    public FrameBudgetScheduler() {
+        this.queue = new Array<>(true, 16, Entry.class);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * @param task the task that will be run in the upcoming frames
+     * @param priority tasks with a higher priority run first
+     */
+    public FrameBudgetScheduler submit(Task task, int priority) {
+        int index = queue.size;
+        while (index > 0 && queue.items[index - 1].priority < priority) index--;
+        queue.insert(index, new Entry(task, priority));
+        return this;
+    }
+
+
+    public FrameBudgetScheduler submit(Task task) {
+        return submit(task, 0);
+    }
+
+
+    /** @return true if the task was still in the scheduler */
+    public boolean cancel(Task task) {
+        for (int i = 0; i < queue.size; i++) {
+            if(queue.items[i].task == task) {
+                queue.removeIndex(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    public void cancelAll() {
+        queue.clear();
+    }
+
+
+    /**
+     * Runs the queued tasks until the budget is spent or there are no tasks left.
+     * @param budgetSecs how much time (in seconds) the tasks can use in this frame
+     */
+    public void run(float budgetSecs) {
+        runNanos((long) (budgetSecs * 1_000_000_000d));
+    }
+
+
+    /**
+     * Runs the queued tasks in the time that is left until the target frame time is reached. Call this
+     * at the end of your render method.
+     * @param targetFrameSecs for example 1/60f
+     * @param frameStartNanos the {@link System#nanoTime()} value at the start of this frame
+     */
+    public void runRemaining(float targetFrameSecs, long frameStartNanos) {
+        final long frameEnd = frameStartNanos + (long) (targetFrameSecs * 1_000_000_000d);
+        runNanos(Math.max(0L, frameEnd - System.nanoTime()));
+    }
+
+
+    public void runNanos(long budgetNanos) {
+        final long start = System.nanoTime();
+        final long deadline = start + budgetNanos;
+
+        while (queue.size > 0) {
+            final long now = System.nanoTime();
+            if(now >= deadline) break;
+
+            final Entry entry = queue.items[0];
+            if(entry.task.run(deadline - now)) {
+                // the task could have cancelled itself or submitted new tasks in its chunk
+                queue.removeValue(entry, true);
+            }
+        }
+
+        frameCount++;
+        lastUsedNanos = System.nanoTime() - start;
+        if(lastUsedNanos > budgetNanos) {
+            final long overrun = lastUsedNanos - budgetNanos;
+            overrunCount++;
+            totalOverrunNanos += overrun;
+            maxOverrunNanos = Math.max(maxOverrunNanos, overrun);
+        }
+    }
+
+
+    public void resetMetrics() {
+        frameCount = overrunCount = totalOverrunNanos = maxOverrunNanos = lastUsedNanos = 0L;
+    }
+
+
+    /*//////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  COMMON TASKS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * The asset manager works in whole milliseconds and still runs a full update step when it is given
+     * 0 of them, so when less than a millisecond is left the task doesn't load anything and waits for
+     * the next frame instead of overrunning this one.
+     * @return a task that calls {@link AssetSorter#keepLoading(int)} with the remaining budget instead of
+     *         a hard-coded amount of milliseconds, it finishes when the sorter finishes loading
+     */
+    public static Task loadingTask(final AssetSorter assetSorter) {
+        return remainingNanos -> {
+            final int millis = (int) (remainingNanos / 1_000_000L);
+            return millis > 0 && assetSorter.keepLoading(millis);
+        };
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public int getPendingCount() { return queue.size; }
+    public long getFrameCount() { return frameCount; }
+    public long getOverrunCount() { return overrunCount; }
+    public long getTotalOverrunNanos() { return totalOverrunNanos; }
+    public long getMaxOverrunNanos() { return maxOverrunNanos; }
+    public long getLastUsedNanos() { return lastUsedNanos; }
+
+    /** @return how many of the frames went over their budget, in range [0, 1] */
+    public float getOverrunRatio() { return frameCount == 0 ? 0f : overrunCount / (float) frameCount; }
+
+
+    private static final class Entry {
+        final Task task;
+        final int priority;
+
+        Entry(Task task, int priority) {
+            this.task = task;
+            this.priority = priority;
+        }
+    }
+
+
+}
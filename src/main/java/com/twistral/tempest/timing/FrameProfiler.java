@@ -0,0 +1,354 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.timing;
+
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.twistral.tempest.TempestException;
+import com.twistral.tempest.assetsorter.AssetSorter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+
+
+/**
+ * A lightweight profiler for measuring your own code with nested named scopes. <br><br>
+ *
+ * Every scope keeps its last N durations (measured with {@link System#nanoTime()}) in a ring buffer,
+ * and the percentiles and the max are computed over that sliding window. Scopes are identified by their
+ * name and their parent scope, so "render" inside "update" and "render" at the top level are different
+ * scopes. After a scope is seen once, begin/end don't allocate anything. <br><br>
+ *
+ * Every measured duration is also kept in a fixed size event buffer, which can be exported as a
+ * Chrome trace file (open it with chrome://tracing or https://ui.perfetto.dev). <br><br>
+ *
+ * This class is not thread-safe, only use it from the render thread. <br>
+ * Example: profiler.begin("update"); profiler.step(world, 1/60f, 6, 2); ...; profiler.end();
+ */
+public class FrameProfiler {
+
+    private final int windowSize;
+    private final Scope root;
+    private final Array<Scope> allScopes;
+    private final long[] sortScratch;
+    private final long epoch;
+
+    private Scope[] stack;
+    private long[] stackStarts;
+    private int depth;
+
+    // trace events, a ring buffer
+    private final Scope[] eventScopes;
+    private final long[] eventStarts, eventDurations;
+    private int eventIndex, eventCount;
+
+    private boolean enabled;
+
+
+    /*//////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CONSTRUCTORS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////*/
+
+    /**
+     * @param windowSize how many of the latest samples each scope keeps for its statistics
+     * @param traceCapacity how many of the latest samples (of all scopes) are kept for trace exports
+     */
+    public FrameProfiler(int windowSize, int traceCapacity) {
+        this.windowSize = windowSize;
+        this.root = new Scope(this, null, "");
+        this.allScopes = new Array<>();
+        this.sortScratch = new long[windowSize];
+        this.epoch = System.nanoTime();
+
+        this.stack = new Scope[16];
+        this.stackStarts = new long[16];
+        this.depth = 0;
+
+        this.eventScopes = new Scope[traceCapacity];
+        this.eventStarts = new long[traceCapacity];
+        this.eventDurations = new long[traceCapacity];
+        this.eventIndex = 0;
+        this.eventCount = 0;
+        this.enabled = true;
+    }
+
+    public FrameProfiler() {
+        this(300, 16384);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    public void begin(String name) {
+        if(!enabled) return;
+
+        final Scope parent = (depth == 0) ? root : stack[depth - 1];
+        Scope scope = parent.children.get(name);
+        if(scope == null) {
+            scope = new Scope(this, parent, name);
+            parent.children.put(name, scope);
+            allScopes.add(scope);
+        }
+
+        if(depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+            stackStarts = Arrays.copyOf(stackStarts, depth * 2);
+        }
+        stack[depth] = scope;
+        stackStarts[depth] = System.nanoTime();
+        depth++;
+    }
+
+
+    public void end() {
+        if(!enabled) return;
+
+        final long now = System.nanoTime();
+        if(depth == 0)
+            throw new TempestException("FrameProfiler.end() was called without a matching begin()");
+
+        depth--;
+        final Scope scope = stack[depth];
+        final long start = stackStarts[depth];
+        stack[depth] = null;
+        scope.addSample(now - start);
+
+        if(eventScopes.length > 0) {
+            eventScopes[eventIndex] = scope;
+            eventStarts[eventIndex] = start;
+            eventDurations[eventIndex] = now - start;
+            eventIndex = (eventIndex + 1) % eventScopes.length;
+            eventCount = Math.min(eventCount + 1, eventScopes.length);
+        }
+    }
+
+
+    public void profile(String name, Runnable runnable) {
+        begin(name);
+        try {
+            runnable.run();
+        }
+        finally {
+            end();
+        }
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  WRAPPED METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////////////*/
+
+
+    /** Calls {@link World#step(float, int, int)} inside a scope named "world.step". */
+    public void step(World world, float timeStep, int velocityIterations, int positionIterations) {
+        begin("world.step");
+        try {
+            world.step(timeStep, velocityIterations, positionIterations);
+        }
+        finally {
+            end();
+        }
+    }
+
+
+    /** Calls {@link AssetSorter#keepLoading(int)} inside a scope named "assets.keepLoading". */
+    public boolean keepLoading(AssetSorter assetSorter, int milliseconds) {
+        begin("assets.keepLoading");
+        try {
+            return assetSorter.keepLoading(milliseconds);
+        }
+        finally {
+            end();
+        }
+    }
+
+
+    /*///////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  REPORTING  ///////////////////////////*/
+    /*///////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * @param path names of the nested scopes separated with '/', for example "update/world.step"
+     * @return the scope or null if it was never measured
+     */
+    public Scope getScope(String path) {
+        Scope scope = root;
+        for(String name : path.split("/")) {
+            scope = scope.children.get(name);
+            if(scope == null) return null;
+        }
+        return scope;
+    }
+
+
+    /** @return every scope that was measured at least once, in the order they were first seen */
+    public Array<Scope> getScopes() {
+        return allScopes;
+    }
+
+
+    /** @return a human readable table of every scope, this allocates so don't call it every frame */
+    public String report() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-40s %8s %8s %8s %8s %8s%n", "scope (ms)", "last", "p50", "p95", "p99", "max"));
+        appendReport(sb, root, 0);
+        return sb.toString();
+    }
+
+
+    private void appendReport(StringBuilder sb, Scope scope, int indent) {
+        for(Scope child : scope.children.values()) {
+            final StringBuilder name = new StringBuilder();
+            for (int i = 0; i < indent; i++) name.append("  ");
+            name.append(child.name);
+
+            sb.append(String.format("%-40s %8.3f %8.3f %8.3f %8.3f %8.3f%n", name, child.getLastMillis(),
+                child.getPercentileMillis(0.50f), child.getPercentileMillis(0.95f),
+                child.getPercentileMillis(0.99f), child.getMaxMillis()));
+            appendReport(sb, child, indent + 1);
+        }
+    }
+
+
+    /**
+     * Writes the buffered samples as a Chrome trace (JSON) file, open it with chrome://tracing or
+     * https://ui.perfetto.dev to see the scopes on a timeline.
+     */
+    public void exportChromeTrace(FileHandle file) {
+        final int capacity = eventScopes.length;
+        final int first = (eventIndex - eventCount + capacity) % Math.max(1, capacity);
+
+        try (Writer writer = file.writer(false, "UTF-8")) {
+            writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+            for (int i = 0; i < eventCount; i++) {
+                final int e = (first + i) % capacity;
+                if(i > 0) writer.write(',');
+                writer.write("\n{\"name\":\"");
+                writer.write(escape(eventScopes[e].name));
+                writer.write("\",\"cat\":\"");
+                writer.write(escape(eventScopes[e].path));
+                writer.write("\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":");
+                writer.write(Double.toString((eventStarts[e] - epoch) / 1000.0));
+                writer.write(",\"dur\":");
+                writer.write(Double.toString(eventDurations[e] / 1000.0));
+                writer.write('}');
+            }
+            writer.write("\n]}\n");
+        }
+        catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write the trace file: " + file, e);
+        }
+    }
+
+
+    /** Forgets every sample, the scopes themselves are kept. */
+    public void reset() {
+        for(Scope scope : allScopes) scope.clear();
+        Arrays.fill(eventScopes, null);
+        eventIndex = 0;
+        eventCount = 0;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public boolean isEnabled() { return enabled; }
+    public int getWindowSize() { return windowSize; }
+
+    /** A disabled profiler ignores every begin()/end() call, only change this between frames. */
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+
+    private static String escape(String str) {
+        return str.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+
+    /*///////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  SCOPE  ///////////////////////////*/
+    /*///////////////////////////////////////////////////////////////*/
+
+
+    public static final class Scope {
+        private final FrameProfiler profiler;
+        private final String name, path;
+        private final ObjectMap<String, Scope> children;
+        private final long[] samples; // ring buffer, in nanoseconds
+        private int sampleIndex, sampleCount;
+        private long lastNanos;
+
+        private Scope(FrameProfiler profiler, Scope parent, String name) {
+            this.profiler = profiler;
+            this.name = name;
+            this.path = (parent == null || parent.path.isEmpty()) ? name : parent.path + "/" + name;
+            this.children = new ObjectMap<>(8);
+            this.samples = new long[profiler.windowSize];
+        }
+
+        private void addSample(long nanos) {
+            lastNanos = nanos;
+            samples[sampleIndex] = nanos;
+            sampleIndex = (sampleIndex + 1) % samples.length;
+            sampleCount = Math.min(sampleCount + 1, samples.length);
+        }
+
+        private void clear() {
+            sampleIndex = sampleCount = 0;
+            lastNanos = 0L;
+        }
+
+        /**
+         * @param percentile in range [0, 1], for example 0.95 for p95
+         * @return the percentile (nearest rank) of the samples inside the window, 0 if there are no samples
+         */
+        public long getPercentileNanos(float percentile) {
+            if(sampleCount == 0) return 0L;
+            final long[] sorted = profiler.sortScratch;
+            System.arraycopy(samples, 0, sorted, 0, sampleCount);
+            Arrays.sort(sorted, 0, sampleCount);
+            final int rank = (int) Math.ceil(percentile * sampleCount) - 1;
+            return sorted[Math.max(0, Math.min(sampleCount - 1, rank))];
+        }
+
+        public long getMaxNanos() {
+            long max = 0L;
+            for (int i = 0; i < sampleCount; i++) max = Math.max(max, samples[i]);
+            return max;
+        }
+
+        public float getPercentileMillis(float percentile) { return getPercentileNanos(percentile) / 1_000_000f; }
+        public float getMaxMillis() { return getMaxNanos() / 1_000_000f; }
+        public float getLastMillis() { return lastNanos / 1_000_000f; }
+        public long getLastNanos() { return lastNanos; }
+        public int getSampleCount() { return sampleCount; }
+        public String getName() { return name; }
+        public String getPath() { return path; }
+    }
+
+
+}
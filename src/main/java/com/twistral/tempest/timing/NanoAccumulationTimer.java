@@ -0,0 +1,125 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+
+package com.twistral.tempest.timing;
+
+
+
+import com.badlogic.gdx.utils.CharArray;
+
+
+
+/**
+ * Same as {@link AccumulationTimer} but the elapsed time is stored as a long in nanoseconds. <br>
+ * A float timer can't add small deltas precisely after a few hours (past 2^24 milliseconds the
+ * milliseconds are gone completely), this one stays exact for around 292 years. Use it for
+ * long-running sessions such as servers.
+ */
+public class NanoAccumulationTimer {
+
+    static final long NANOS_PER_MILLI = 1_000_000L;
+    static final long NANOS_PER_SEC = 1_000_000_000L;
+    static final long NANOS_PER_MIN = 60L * NANOS_PER_SEC;
+    static final long NANOS_PER_HOUR = 60L * NANOS_PER_MIN;
+    static final long NANOS_PER_DAY = 24L * NANOS_PER_HOUR;
+
+    /** Elapsed time in nanoseconds. */
+    protected long nanos;
+
+    /** Formatted text of the last string method call, created lazily. */
+    private TimerText text;
+
+
+    /*//////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CONSTRUCTORS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////*/
+
+    public NanoAccumulationTimer(long initialNanos){
+        this.nanos = initialNanos;
+    }
+
+    public NanoAccumulationTimer() {
+        this(0L);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    /**
+     * @param deltaTime elapsed time in seconds, it gets rounded to the nearest nanosecond
+     */
+    public void update(float deltaTime) {
+        this.nanos += toNanos(deltaTime);
+    }
+
+    public void updateNanos(long deltaNanos) {
+        this.nanos += deltaNanos;
+    }
+
+
+    /*////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  STRING METHODS  ///////////////////////////*/
+    /*////////////////////////////////////////////////////////////////////////*/
+
+
+    /** @see AccumulationTimer#asString(TimerFormatType) */
+    public String asString(TimerFormatType formatType) {
+        return formatText(formatType).asString();
+    }
+
+
+    /** @see AccumulationTimer#appendTo(StringBuilder, TimerFormatType) */
+    public StringBuilder appendTo(StringBuilder sb, TimerFormatType formatType) {
+        formatText(formatType).appendTo(sb);
+        return sb;
+    }
+
+
+    /** @see AccumulationTimer#appendTo(CharArray, TimerFormatType) */
+    public CharArray appendTo(CharArray charArray, TimerFormatType formatType) {
+        formatText(formatType).appendTo(charArray);
+        return charArray;
+    }
+
+
+    private TimerText formatText(TimerFormatType formatType) {
+        if(text == null) text = new TimerText();
+        text.format(formatType, getDayCount(), getHourCount(), getMinuteCount(), getSecCount(), getMilliCount());
+        return text;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public long getElapsedNanos() { return nanos; }
+    public double getElapsedSecs() { return nanos / (double) NANOS_PER_SEC; }
+
+    public int getDayCount(){ return (int) (this.nanos / NANOS_PER_DAY); }
+    public int getHourCount(){ return (int) ((this.nanos / NANOS_PER_HOUR) % 24L); }
+    public int getMinuteCount(){ return (int) ((this.nanos % NANOS_PER_HOUR) / NANOS_PER_MIN); }
+    public int getSecCount(){ return (int) ((this.nanos % NANOS_PER_MIN) / NANOS_PER_SEC); }
+    public int getMilliCount(){ return (int) ((this.nanos % NANOS_PER_SEC) / NANOS_PER_MILLI); }
+
+
+    static long toNanos(float secs) {
+        return Math.round(secs * (double) NANOS_PER_SEC);
+    }
+
+}
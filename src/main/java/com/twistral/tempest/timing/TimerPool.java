@@ -0,0 +1,181 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.timing;
+
+
+import com.badlogic.gdx.utils.IntArray;
+import com.twistral.tempest.TempestException;
+
+import java.util.Arrays;
+
+
+
+/**
+ * Stores many {@link LimitTimer}-like timers in parallel primitive arrays instead of one object per
+ * timer. Timers are referred to by int handles, and the slots of freed timers are reused. <br><br>
+ *
+ * {@link #update(float)} adds the delta to every timer in one tight loop and then collects the
+ * timers that reached their limit. Those timers are reset to zero, just like
+ * {@link LimitTimer#hasPassed()} does.
+ */
+public class TimerPool {
+
+    private float[] elapsed; // in seconds
+    private float[] limits;  // in seconds, free slots have a limit of +infinity so they never expire
+    private boolean[] used;
+    private int slotCount;   // every slot >= slotCount was never used
+    private int activeCount;
+
+    private final IntArray freeSlots;
+    private final IntArray expired;
+
+
+    /*//////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CONSTRUCTORS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////*/
+
+    public TimerPool(int initialCapacity) {
+        initialCapacity = Math.max(1, initialCapacity);
+        this.elapsed = new float[initialCapacity];
+        this.limits = new float[initialCapacity];
+        this.used = new boolean[initialCapacity];
+        this.slotCount = 0;
+        this.activeCount = 0;
+        this.freeSlots = new IntArray();
+        this.expired = new IntArray(false, 64);
+    }
+
+    public TimerPool() {
+        this(256);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * @param limitInSeconds the limit of the new timer, same as {@link LimitTimer#LimitTimer(float)}
+     * @return the handle of the new timer
+     */
+    public int obtain(float limitInSeconds) {
+        final int handle;
+        if(freeSlots.size > 0) {
+            handle = freeSlots.pop();
+        }
+        else {
+            if(slotCount == limits.length) grow();
+            handle = slotCount++;
+        }
+
+        elapsed[handle] = 0f;
+        limits[handle] = limitInSeconds;
+        used[handle] = true;
+        activeCount++;
+        return handle;
+    }
+
+
+    public void free(int handle) {
+        checkHandle(handle);
+        elapsed[handle] = 0f;
+        limits[handle] = Float.POSITIVE_INFINITY;
+        used[handle] = false;
+        freeSlots.add(handle);
+        activeCount--;
+    }
+
+
+    /**
+     * Updates every timer and resets the ones that reached their limit.
+     * @param deltaTime elapsed time in seconds
+     * @return handles of the timers that expired in this update, this array is reused by the next call
+     */
+    public IntArray update(float deltaTime) {
+        final float[] elapsed = this.elapsed, limits = this.limits;
+        final int n = slotCount;
+
+        for (int i = 0; i < n; i++)
+            elapsed[i] += deltaTime;
+
+        expired.clear();
+        for (int i = 0; i < n; i++) {
+            if(elapsed[i] >= limits[i]) {
+                elapsed[i] = 0f;
+                expired.add(i);
+            }
+        }
+
+        return expired;
+    }
+
+
+    public void reset(int handle) {
+        checkHandle(handle);
+        elapsed[handle] = 0f;
+    }
+
+
+    public void setLimit(int handle, float limitInSeconds) {
+        checkHandle(handle);
+        limits[handle] = limitInSeconds;
+    }
+
+
+    /** Frees every timer. */
+    public void clear() {
+        Arrays.fill(elapsed, 0, slotCount, 0f);
+        Arrays.fill(used, 0, slotCount, false);
+        slotCount = 0;
+        activeCount = 0;
+        freeSlots.clear();
+        expired.clear();
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public float getElapsedSecs(int handle) { checkHandle(handle); return elapsed[handle]; }
+    public float getLimitSecs(int handle) { checkHandle(handle); return limits[handle]; }
+    public float getRemainingSecs(int handle) { checkHandle(handle); return Math.max(0f, limits[handle] - elapsed[handle]); }
+    public boolean isValid(int handle) { return handle >= 0 && handle < slotCount && used[handle]; }
+    public int getActiveCount() { return activeCount; }
+    public int getCapacity() { return limits.length; }
+
+
+    /*//////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  HELPER FUNCTIONS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////////*/
+
+
+    private void grow() {
+        final int newCapacity = Math.max(8, limits.length * 2);
+        elapsed = Arrays.copyOf(elapsed, newCapacity);
+        limits = Arrays.copyOf(limits, newCapacity);
+        used = Arrays.copyOf(used, newCapacity);
+    }
+
+
+    private void checkHandle(int handle) {
+        if(!isValid(handle))
+            throw new TempestException("Invalid timer handle: %d", handle);
+    }
+
+
+}
@@ -0,0 +1,131 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.timing;
+
+
+import com.badlogic.gdx.utils.CharArray;
+import com.twistral.tempest.TempestException;
+
+
+
+/**
+ * Formats the units of a timer into a reusable char buffer without any {@link java.util.Formatter},
+ * boxing or string allocations. The output is the same as the old String.format("%02d:%03d"...)
+ * patterns. If the displayed units didn't change since the last call, nothing gets formatted again.
+ */
+final class TimerText {
+
+    private static final int HIDDEN = Integer.MIN_VALUE;
+
+    private final char[] chars = new char[64];
+    private int length = 0;
+    private String string = null; // created lazily from chars, only by asString()
+
+    private TimerFormatType formatType = null;
+    private int day, hour, minute, sec, milli;
+
+
+    /**
+     * Formats the given units with the given format type unless the units that this format type
+     * displays are the same as the last time.
+     */
+    void format(TimerFormatType type, int day, int hour, int minute, int sec, int milli) {
+        if(type == null) type = TimerFormatType.MIN_SEC_MILLI;
+
+        boolean showDay = false, showHour = false, showMinute = false, showMilli = false;
+        switch (type) {
+            case DAY_HOUR_MIN_SEC_MILLI: showDay = showHour = showMinute = showMilli = true; break;
+            case HOUR_MIN_SEC_MILLI: showHour = showMinute = showMilli = true; break;
+            case DAY_HOUR_MIN_SEC: showDay = showHour = showMinute = true; break;
+            case MIN_SEC_MILLI: showMinute = showMilli = true; break;
+            case HOUR_MIN_SEC: showHour = showMinute = true; break;
+            case SEC_MILLI: showMilli = true; break;
+            case MIN_SEC: showMinute = true; break;
+            case SEC: break;
+            default: throw new TempestException.UnreachableException();
+        }
+
+        if(!showDay) day = HIDDEN;
+        if(!showHour) hour = HIDDEN;
+        if(!showMinute) minute = HIDDEN;
+        if(!showMilli) milli = HIDDEN;
+
+        if(type == this.formatType && day == this.day && hour == this.hour &&
+           minute == this.minute && sec == this.sec && milli == this.milli)
+            return; // the displayed units didn't change
+
+        this.formatType = type;
+        this.day = day;
+        this.hour = hour;
+        this.minute = minute;
+        this.sec = sec;
+        this.milli = milli;
+        this.string = null;
+        this.length = 0;
+
+        if(showDay) appendUnit(day, 2);
+        if(showHour) appendUnit(hour, 2);
+        if(showMinute) appendUnit(minute, 2);
+        appendUnit(sec, 2);
+        if(showMilli) appendUnit(milli, 3);
+    }
+
+
+    String asString() {
+        if(string == null) string = new String(chars, 0, length);
+        return string;
+    }
+
+
+    void appendTo(StringBuilder sb) {
+        sb.append(chars, 0, length);
+    }
+
+
+    void appendTo(CharArray charArray) {
+        charArray.addAll(chars, 0, length);
+    }
+
+
+    /*//////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  HELPER FUNCTIONS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////////*/
+
+
+    private void appendUnit(int value, int width) {
+        if(length > 0) chars[length++] = ':';
+
+        // same as %0Nd, the minus sign counts towards the width
+        long abs = value;
+        if(abs < 0) {
+            chars[length++] = '-';
+            abs = -abs;
+            width--;
+        }
+
+        int digitCount = 1;
+        for (long v = abs / 10; v > 0; v /= 10) digitCount++;
+        for (int i = digitCount; i < width; i++) chars[length++] = '0';
+
+        for (int i = length + digitCount - 1; i >= length; i--) {
+            chars[i] = (char) ('0' + (abs % 10));
+            abs /= 10;
+        }
+        length += digitCount;
+    }
+
+
+}
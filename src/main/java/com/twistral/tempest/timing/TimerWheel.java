@@ -0,0 +1,307 @@
+// Copyright 2025 Oğuzhan Topaloğlu
+//
+// Licensed under the Apache License, Version 2.0 (the "License");
+// you may not use this file except in compliance with the License.
+// You may obtain a copy of the License at
+//
+//     http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing, software
+// distributed under the License is distributed on an "AS IS" BASIS,
+// WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// See the License for the specific language governing permissions and
+// limitations under the License.
+
+
+package com.twistral.tempest.timing;
+
+
+import com.twistral.tempest.TempestException;
+
+
+
+/**
+ * A hierarchical timer wheel that can drive thousands of timers without touching each one of them
+ * every frame. {@link #update(float)} costs O(1) per tick plus the timers that actually expire in that
+ * tick, instead of one {@link LimitTimer#update(float)} and {@link LimitTimer#hasPassed()} call per timer. <br><br>
+ *
+ * Time is measured in ticks of a fixed length, so every delay is rounded up to a whole number of ticks.
+ * There are 4 levels of 64 slots, which covers 64^4 ticks (around 77 hours with 1/60 second ticks),
+ * timers that are further away than that wait in an overflow list. <br><br>
+ *
+ * Repeating timers behave like {@link LimitTimer#hasPassed()}: when they fire, they are reset and the
+ * next expiration is one full limit after the tick they fired in.
+ */
+public class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOT_COUNT = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOT_COUNT - 1;
+    private static final int LEVEL_COUNT = 4;
+
+    private final float tickSecs;
+    private final Handle[][] wheels; // sentinel node for each slot of each level
+    private final Handle overflow;   // sentinel node for timers that are too far away
+
+    private long currentTick;
+    private float accumulator;
+    private int scheduledCount;
+
+
+    /*//////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  CONSTRUCTORS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////*/
+
+    /**
+     * @param tickSecs length of a single tick in seconds, this is the resolution of every timer
+     */
+    public TimerWheel(float tickSecs) {
+        if(tickSecs <= 0f)
+            throw new TempestException("Tick length must be positive: %f", tickSecs);
+
+        this.tickSecs = tickSecs;
+        this.wheels = new Handle[LEVEL_COUNT][SLOT_COUNT];
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            for (int slot = 0; slot < SLOT_COUNT; slot++)
+                wheels[level][slot] = Handle.newSentinel();
+        }
+        this.overflow = Handle.newSentinel();
+        this.currentTick = 0L;
+        this.accumulator = 0f;
+        this.scheduledCount = 0;
+    }
+
+    public TimerWheel() {
+        this(1f / 60f);
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  METHODS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+
+    /**
+     * Schedules a one shot timer.
+     * @param delaySecs after how many seconds the callback will run
+     * @param callback the callback, runs inside {@link #update(float)}
+     * @return the handle of this timer, can be used to cancel or reschedule it
+     */
+    public Handle schedule(float delaySecs, Runnable callback) {
+        Handle handle = new Handle(this, callback, false, 0L);
+        insert(handle, toTicks(delaySecs));
+        return handle;
+    }
+
+
+    /**
+     * Schedules a repeating timer that fires every limitSecs seconds until it's cancelled.
+     * @param limitSecs the limit of the timer, same as {@link LimitTimer#LimitTimer(float)}
+     * @param callback the callback, runs inside {@link #update(float)}
+     * @return the handle of this timer, can be used to cancel or reschedule it
+     */
+    public Handle scheduleRepeating(float limitSecs, Runnable callback) {
+        final long periodTicks = toTicks(limitSecs);
+        Handle handle = new Handle(this, callback, true, periodTicks);
+        insert(handle, periodTicks);
+        return handle;
+    }
+
+
+    /**
+     * Schedules an existing handle again (it gets cancelled first if it's still scheduled), this
+     * doesn't allocate anything.
+     */
+    public void reschedule(Handle handle, float delaySecs) {
+        checkOwner(handle);
+        if(handle.isScheduled()) unlink(handle);
+        insert(handle, toTicks(delaySecs));
+    }
+
+
+    /**
+     * @return true if the timer was scheduled and is now cancelled, false if it wasn't scheduled
+     */
+    public boolean cancel(Handle handle) {
+        checkOwner(handle);
+        if(!handle.isScheduled()) return false;
+        unlink(handle);
+        return true;
+    }
+
+
+    /**
+     * Advances the wheel and runs the callbacks of the timers that expired.
+     * @param deltaTime elapsed time in seconds
+     */
+    public void update(float deltaTime) {
+        accumulator += deltaTime;
+        while (accumulator >= tickSecs) {
+            accumulator -= tickSecs;
+            tick();
+        }
+    }
+
+
+    /** Cancels every timer. */
+    public void clear() {
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            for (int slot = 0; slot < SLOT_COUNT; slot++)
+                clearList(wheels[level][slot]);
+        }
+        clearList(overflow);
+        scheduledCount = 0;
+    }
+
+
+    /*/////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  GETTERS  ///////////////////////////*/
+    /*/////////////////////////////////////////////////////////////////*/
+
+    public float getTickSecs() { return tickSecs; }
+    public long getCurrentTick() { return currentTick; }
+    public int getScheduledCount() { return scheduledCount; }
+
+
+    /*//////////////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  HELPER FUNCTIONS  ///////////////////////////*/
+    /*//////////////////////////////////////////////////////////////////////////*/
+
+
+    private void tick() {
+        currentTick++;
+
+        // Move the timers of the higher levels down when a lower level wraps around
+        if((currentTick & SLOT_MASK) == 0) {
+            for (int level = 1; level < LEVEL_COUNT; level++) {
+                final int slot = (int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                cascade(wheels[level][slot]);
+                if(slot != 0) break;
+                if(level == LEVEL_COUNT - 1) cascade(overflow);
+            }
+        }
+
+        // Take the timers out one at a time, callbacks may cancel or reschedule the others in this slot.
+        // Nothing can be inserted into this slot meanwhile since every delay is at least one tick.
+        final Handle sentinel = wheels[0][(int) (currentTick & SLOT_MASK)];
+        while (sentinel.next != sentinel) {
+            final Handle handle = sentinel.next;
+            unlink(handle);
+
+            if(handle.repeating) insert(handle, handle.periodTicks);
+            handle.callback.run();
+        }
+    }
+
+
+    // No callbacks run here, so walking the detached list is safe. Timers of the overflow
+    // list can go back into it, that's why the list is detached instead of emptied one by one.
+    private void cascade(Handle sentinel) {
+        Handle handle = sentinel.next;
+        sentinel.next = sentinel.prev = sentinel;
+
+        while (handle != sentinel) {
+            final Handle next = handle.next;
+            handle.next = handle.prev = null;
+            scheduledCount--;
+            insertAt(handle, handle.deadline);
+            handle = next;
+        }
+    }
+
+
+    private void insert(Handle handle, long delayTicks) {
+        insertAt(handle, currentTick + delayTicks);
+    }
+
+
+    private void insertAt(Handle handle, long deadline) {
+        handle.deadline = deadline;
+        final long delta = deadline - currentTick;
+
+        Handle sentinel = overflow;
+        for (int level = 0; level < LEVEL_COUNT; level++) {
+            if(delta < (1L << (SLOT_BITS * (level + 1)))) {
+                sentinel = wheels[level][(int) ((deadline >>> (SLOT_BITS * level)) & SLOT_MASK)];
+                break;
+            }
+        }
+
+        // append to the end of the slot's list
+        handle.prev = sentinel.prev;
+        handle.next = sentinel;
+        sentinel.prev.next = handle;
+        sentinel.prev = handle;
+        scheduledCount++;
+    }
+
+
+    private void unlink(Handle handle) {
+        handle.prev.next = handle.next;
+        handle.next.prev = handle.prev;
+        handle.next = handle.prev = null;
+        scheduledCount--;
+    }
+
+
+    // No callbacks run here either
+    private static void clearList(Handle sentinel) {
+        Handle handle = sentinel.next;
+        while (handle != sentinel) {
+            final Handle next = handle.next;
+            handle.next = handle.prev = null;
+            handle = next;
+        }
+        sentinel.next = sentinel.prev = sentinel;
+    }
+
+
+    private long toTicks(float secs) {
+        return Math.max(1L, (long) Math.ceil(secs / tickSecs));
+    }
+
+
+    private void checkOwner(Handle handle) {
+        if(handle.wheel != this)
+            throw new TempestException("This handle belongs to another TimerWheel.");
+    }
+
+
+    /*////////////////////////////////////////////////////////////////*/
+    /*///////////////////////////  HANDLE  ///////////////////////////*/
+    /*////////////////////////////////////////////////////////////////*/
+
+
+    public static final class Handle {
+        private final TimerWheel wheel;
+        private final Runnable callback;
+        private final boolean repeating;
+        private final long periodTicks;
+        private long deadline;
+        private Handle prev, next;
+
+        private Handle(TimerWheel wheel, Runnable callback, boolean repeating, long periodTicks) {
+            this.wheel = wheel;
+            this.callback = callback;
+            this.repeating = repeating;
+            this.periodTicks = periodTicks;
+        }
+
+        private static Handle newSentinel() {
+            Handle sentinel = new Handle(null, null, false, 0L);
+            sentinel.next = sentinel.prev = sentinel;
+            return sentinel;
+        }
+
+        public boolean isScheduled() { return next != null; }
+        public boolean isRepeating() { return repeating; }
+
+        /** @return seconds until this timer fires, 0 if it's not scheduled */
+        public float getRemainingSecs() {
+            if(!isScheduled()) return 0f;
+            return Math.max(0f, (deadline - wheel.currentTick) * wheel.tickSecs - wheel.accumulator);
+        }
+    }
+
+
+}
@@ -49,6 +49,7 @@ public class TimerTest extends ApplicationAdapter {
 
     AccumulationTimer accTimer = new AccumulationTimer();
     LimitTimer limitTimer = new LimitTimer(3f);
+    final StringBuilder playTimeText = new StringBuilder();
 
 
     @Override
@@ -113,7 +114,9 @@ public class TimerTest extends ApplicationAdapter {
 
         batch.begin();
         font.draw(batch, "left to jump (secs): " + limitTimer.getRemainingSecs(), 25, 50);
-        font.draw(batch, "play time (mins): " + accTimer.asString(TimerFormatType.MIN_SEC_MILLI), 25, 25);
+        playTimeText.setLength(0);
+        accTimer.appendTo(playTimeText.append("play time (mins): "), TimerFormatType.MIN_SEC_MILLI);
+        font.draw(batch, playTimeText, 25, 25);
         font.draw(batch, "Press SPACE to jump, A/D to move horizontally", 250, 25);
         batch.end();
 